@@ -129,6 +129,23 @@ extern "C" {
     */
     void rs2_config_enable_record_to_file(rs2_config* config, const char* file, rs2_error ** error);
 
+    /**
+    * Requires that the resolved device would be recorded to a series of files, <file>_000.bag, <file>_001.bag...
+    * A new file is started once the current one reaches the given size or duration, finished files are synced to storage
+    * in the background. When max_segments is set, the oldest finished files are deleted so at most max_segments of them
+    * are kept besides the file being written.
+    * This request cannot be used if enable_device_from_file() is called for the current config, and vise versa
+    *
+    * \param[in] config                   A pointer to an instance of a config
+    * \param[in] file                     The desired file for the output record, segment numbers are inserted before the .bag extension
+    * \param[in] max_segment_bytes        Size after which a new file is started, 0 for no size limit
+    * \param[in] max_segment_duration_ms  Recording time after which a new file is started, 0 for no time limit
+    * \param[in] max_segments             Number of finished files to keep, 0 to keep all of them
+    * \param[out] error  if non-null, receives any error that occurs during this call, otherwise, errors are ignored
+    */
+    void rs2_config_enable_record_to_file_segmented(rs2_config* config, const char* file, unsigned long long max_segment_bytes,
+        unsigned long long max_segment_duration_ms, unsigned int max_segments, rs2_error ** error);
+
 
     /**
     * Disable a device stream explicitly, to remove any requests on this stream type.
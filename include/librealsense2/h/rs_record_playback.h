@@ -29,6 +29,43 @@ const char* rs2_playback_status_to_string(rs2_playback_status status);
 
 typedef void (*rs2_playback_status_changed_callback_ptr)(rs2_playback_status);
 
+/** \brief What a recording device does with a new frame when the frames waiting to be written exceed the write budget */
+typedef enum rs2_record_overflow_policy
+{
+    RS2_RECORD_OVERFLOW_POLICY_DROP_NEWEST, /**< The new frame is not recorded and counted as dropped */
+    RS2_RECORD_OVERFLOW_POLICY_BLOCK,       /**< The sensor thread waits until the writer caught up */
+    RS2_RECORD_OVERFLOW_POLICY_COUNT
+} rs2_record_overflow_policy;
+
+/** \brief Counters of the recording device writer, byte counts refer to frame data */
+typedef struct rs2_record_write_stats
+{
+    unsigned long long frames_pending;     /**< Frames queued for writing */
+    unsigned long long bytes_pending;      /**< Frame data queued for writing */
+    unsigned long long max_bytes_pending;  /**< Highest bytes_pending since the recording started */
+    unsigned long long frames_written;     /**< Frames handed to the file writer */
+    unsigned long long bytes_written;      /**< Frame data handed to the file writer */
+    unsigned long long write_time_ns;      /**< Time spent writing frames, bytes_written / write_time_ns is the sustained write rate */
+    unsigned long long frames_dropped;     /**< Frames not recorded because the write budget was exceeded */
+} rs2_record_write_stats;
+
+/** \brief Summary of a recorded stream, read from the file index */
+typedef struct rs2_bag_stream_info
+{
+    rs2_stream stream;                /**< Stream type */
+    int index;                        /**< Stream index */
+    rs2_format format;                /**< Stream format */
+    int width;                        /**< Frame width, 0 for motion and pose streams */
+    int height;                       /**< Frame height, 0 for motion and pose streams */
+    int fps;                          /**< Requested frame rate */
+    unsigned long long frame_count;   /**< Number of recorded frames */
+    unsigned long long first_frame_ns; /**< Time of the first frame, relative to the start of the recording */
+    unsigned long long last_frame_ns;  /**< Time of the last frame, relative to the start of the recording */
+} rs2_bag_stream_info;
+
+/** \brief Recording summary, see rs2_create_bag_info */
+typedef struct rs2_bag_info rs2_bag_info;
+
 /**
  * Creates a recording device to record the given device and save it to the given file
  * \param[in]  device    The device to record
@@ -63,6 +100,18 @@ void rs2_record_device_pause(const rs2_device* device, rs2_error** error);
 */
 void rs2_record_device_resume(const rs2_device* device, rs2_error** error);
 
+/**
+* Finishes the current file and continues the recording in a new one, without stopping the device from streaming.
+* The new file starts with the device description, its timestamps start at the time of the switch.
+* Data already queued for writing goes to the previous file. To cut clips at exact points, pause the device before
+* switching and resume it afterwards
+* \param[in]  device               A recording device
+* \param[in]  file                 Path of the new file
+* \param[in]  compression_enabled  Indicates if compression is enabled in the new file
+* \param[out] error                If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+*/
+void rs2_record_device_switch_file(const rs2_device* device, const char* file, int compression_enabled, rs2_error** error);
+
 /**
 * Gets the name of the file to which the recorder is writing
 * \param[in]  device    A recording device
@@ -71,6 +120,23 @@ void rs2_record_device_resume(const rs2_device* device, rs2_error** error);
 */
 const char* rs2_record_device_filename(const rs2_device* device, rs2_error** error);
 
+/**
+* Limits the memory held by frames waiting to be written to the file
+* \param[in]  device             A recording device
+* \param[in]  max_pending_bytes  Frame data allowed in the write queue, a single frame is always accepted into an empty queue
+* \param[in]  policy             What happens to frames arriving while the budget is exhausted
+* \param[out] error              If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+*/
+void rs2_record_device_set_write_budget(const rs2_device* device, unsigned long long max_pending_bytes, rs2_record_overflow_policy policy, rs2_error** error);
+
+/**
+* Retrieves the writer counters of the recording device
+* \param[in]  device    A recording device
+* \param[out] stats     Receives the counters
+* \param[out] error     If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+*/
+void rs2_record_device_get_write_stats(const rs2_device* device, rs2_record_write_stats* stats, rs2_error** error);
+
 /**
 * Creates a playback device to play the content of the given file
 * \param[in]  file      Path to the file to play
@@ -186,6 +252,64 @@ void rs2_playback_device_set_playback_speed(const rs2_device* device, float spee
 */
 void rs2_playback_device_stop(const rs2_device* device, rs2_error** error);
 
+/**
+* Reads the summary of a recording from the file index, without creating a playback device or decoding the frames
+* Only the first frame of the thumbnail stream is read, and only when a thumbnail is requested
+* \param[in]  file      Path to the recording
+* \param[in]  read_thumbnail  Non-zero to read the thumbnail, zero to read only the index
+* \param[out] error     If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+* \return The recording summary, to be released with rs2_delete_bag_info
+*/
+rs2_bag_info* rs2_create_bag_info(const char* file, int read_thumbnail, rs2_error** error);
+
+/**
+* Releases a recording summary
+* \param[in] info      The summary to release
+*/
+void rs2_delete_bag_info(rs2_bag_info* info);
+
+/**
+* Gets the duration of the recording in nanoseconds
+* \param[in]  info      A recording summary
+* \param[out] error     If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+* \return Duration of the recording in nanoseconds
+*/
+unsigned long long rs2_bag_info_get_duration(const rs2_bag_info* info, rs2_error** error);
+
+/**
+* Gets the number of recorded streams
+* \param[in]  info      A recording summary
+* \param[out] error     If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+* \return Number of streams in the recording
+*/
+int rs2_bag_info_get_streams_count(const rs2_bag_info* info, rs2_error** error);
+
+/**
+* Gets the summary of a recorded stream
+* \param[in]  info      A recording summary
+* \param[in]  index     Index of the stream, between 0 and rs2_bag_info_get_streams_count - 1
+* \param[out] stream    Receives the stream summary
+* \param[out] error     If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+*/
+void rs2_bag_info_get_stream(const rs2_bag_info* info, int index, rs2_bag_stream_info* stream, rs2_error** error);
+
+/**
+* Gets the stream the thumbnail was taken from, a color stream is preferred over depth and other video streams
+* \param[in]  info      A recording summary
+* \param[out] error     If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+* \return Index of the stream, or -1 when the recording has no video frames or the thumbnail was not read
+*/
+int rs2_bag_info_get_thumbnail_stream(const rs2_bag_info* info, rs2_error** error);
+
+/**
+* Gets the data of the thumbnail, the first recorded frame of the thumbnail stream in the format of that stream
+* \param[in]  info      A recording summary
+* \param[out] size      Receives the size of the data in bytes
+* \param[out] error     If non-null, receives any error that occurs during this call, otherwise, errors are ignored
+* \return Pointer to the frame data, valid until the summary is released, or null when there is no thumbnail
+*/
+const void* rs2_bag_info_get_thumbnail_data(const rs2_bag_info* info, int* size, rs2_error** error);
+
 #ifdef __cplusplus
 }
 #endif
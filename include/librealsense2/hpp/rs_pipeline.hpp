@@ -267,6 +267,24 @@ namespace rs2
             error::handle(e);
         }
 
+        /**
+        * Requires that the resolved device would be recorded to a series of files of bounded size or duration.
+        * See \c rs2_config_enable_record_to_file_segmented() for the naming and retention rules.
+        *
+        * \param[in] file_name                The desired file for the output record
+        * \param[in] max_segment_bytes        Size after which a new file is started, 0 for no size limit
+        * \param[in] max_segment_duration_ms  Recording time after which a new file is started, 0 for no time limit
+        * \param[in] max_segments             Number of finished files to keep, 0 to keep all of them
+        */
+        void enable_record_to_file(const std::string& file_name, unsigned long long max_segment_bytes,
+                                   unsigned long long max_segment_duration_ms, unsigned int max_segments = 0)
+        {
+            rs2_error* e = nullptr;
+            rs2_config_enable_record_to_file_segmented(_config.get(), file_name.c_str(), max_segment_bytes,
+                                                       max_segment_duration_ms, max_segments, &e);
+            error::handle(e);
+        }
+
         /**
         * Disable a device stream explicitly, to remove any requests on this stream profile.
         * The stream can still be enabled due to pipeline computer vision module request. This call removes any filter on the
@@ -255,6 +255,18 @@ namespace rs2
             error::handle(e);
         }
 
+        /**
+        * Finishes the current file and continues the recording in a new one, without stopping the device from streaming
+        * \param[in] file                 Path of the new file
+        * \param[in] compression_enabled  Indicates if compression is enabled in the new file
+        */
+        void switch_file(const std::string& file, bool compression_enabled = true)
+        {
+            rs2_error* e = nullptr;
+            rs2_record_device_switch_file(_dev.get(), file.c_str(), compression_enabled, &e);
+            error::handle(e);
+        }
+
         /**
         * Gets the name of the file to which the recorder is writing
         * \return The  name of the file to which the recorder is writing
@@ -266,6 +278,30 @@ namespace rs2
             error::handle(e);
             return filename;
         }
+
+        /**
+        * Limits the memory held by frames waiting to be written to the file
+        * \param[in] max_pending_bytes  Frame data allowed in the write queue
+        * \param[in] policy             What happens to frames arriving while the budget is exhausted
+        */
+        void set_write_budget(unsigned long long max_pending_bytes, rs2_record_overflow_policy policy)
+        {
+            rs2_error* e = nullptr;
+            rs2_record_device_set_write_budget(_dev.get(), max_pending_bytes, policy, &e);
+            error::handle(e);
+        }
+
+        /**
+        * Gets the writer counters: queue depth, bytes pending, bytes written, write time and dropped frames
+        */
+        rs2_record_write_stats write_stats() const
+        {
+            rs2_error* e = nullptr;
+            rs2_record_write_stats stats;
+            rs2_record_device_get_write_stats(_dev.get(), &stats, &e);
+            error::handle(e);
+            return stats;
+        }
     protected:
         explicit recorder(std::shared_ptr<rs2_device> dev) : device(dev)
         {
@@ -0,0 +1,107 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2021 Intel Corporation. All Rights Reserved.
+
+#include <jni.h>
+#include "error.h"
+#include "../../../include/librealsense2/rs.h"
+#include "../../../include/librealsense2/h/rs_record_playback.h"
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_BagFileInfo_nCreate(JNIEnv *env, jclass type,
+                                                          jstring path, jboolean read_thumbnail) {
+    const char *file = env->GetStringUTFChars(path, 0);
+    rs2_error *e = NULL;
+    rs2_bag_info *rv = rs2_create_bag_info(file, read_thumbnail, &e);
+    env->ReleaseStringUTFChars(path, file);
+    handle_error(env, e);
+    return (jlong) rv;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_BagFileInfo_nDelete(JNIEnv *env, jclass type,
+                                                          jlong handle) {
+    rs2_delete_bag_info(reinterpret_cast<rs2_bag_info *>(handle));
+}
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_BagFileInfo_nGetDuration(JNIEnv *env, jclass type,
+                                                               jlong handle) {
+    rs2_error *e = NULL;
+    unsigned long long rv = rs2_bag_info_get_duration(reinterpret_cast<const rs2_bag_info *>(handle), &e);
+    handle_error(env, e);
+    return rv;
+}
+
+extern "C"
+JNIEXPORT jint JNICALL
+Java_com_intel_realsense_librealsense_BagFileInfo_nGetStreamsCount(JNIEnv *env, jclass type,
+                                                                   jlong handle) {
+    rs2_error *e = NULL;
+    int rv = rs2_bag_info_get_streams_count(reinterpret_cast<const rs2_bag_info *>(handle), &e);
+    handle_error(env, e);
+    return rv;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_BagFileInfo_nGetStream(JNIEnv *env, jclass type,
+                                                             jlong handle, jint index, jobject info) {
+    rs2_error *e = NULL;
+    rs2_bag_stream_info rv;
+    rs2_bag_info_get_stream(reinterpret_cast<const rs2_bag_info *>(handle), index, &rv, &e);
+    handle_error(env, e);
+    if (e != NULL)
+        return;
+
+    jclass clazz = env->GetObjectClass(info);
+
+    jfieldID typeField = env->GetFieldID(clazz, "mType", "I");
+    jfieldID indexField = env->GetFieldID(clazz, "mIndex", "I");
+    jfieldID formatField = env->GetFieldID(clazz, "mFormat", "I");
+    jfieldID widthField = env->GetFieldID(clazz, "mWidth", "I");
+    jfieldID heightField = env->GetFieldID(clazz, "mHeight", "I");
+    jfieldID fpsField = env->GetFieldID(clazz, "mFps", "I");
+    jfieldID frameCountField = env->GetFieldID(clazz, "mFrameCount", "J");
+    jfieldID firstFrameField = env->GetFieldID(clazz, "mFirstFrameNanos", "J");
+    jfieldID lastFrameField = env->GetFieldID(clazz, "mLastFrameNanos", "J");
+
+    env->SetIntField(info, typeField, rv.stream);
+    env->SetIntField(info, indexField, rv.index);
+    env->SetIntField(info, formatField, rv.format);
+    env->SetIntField(info, widthField, rv.width);
+    env->SetIntField(info, heightField, rv.height);
+    env->SetIntField(info, fpsField, rv.fps);
+    env->SetLongField(info, frameCountField, rv.frame_count);
+    env->SetLongField(info, firstFrameField, rv.first_frame_ns);
+    env->SetLongField(info, lastFrameField, rv.last_frame_ns);
+}
+
+extern "C"
+JNIEXPORT jint JNICALL
+Java_com_intel_realsense_librealsense_BagFileInfo_nGetThumbnailStream(JNIEnv *env, jclass type,
+                                                                      jlong handle) {
+    rs2_error *e = NULL;
+    int rv = rs2_bag_info_get_thumbnail_stream(reinterpret_cast<const rs2_bag_info *>(handle), &e);
+    handle_error(env, e);
+    return rv;
+}
+
+extern "C"
+JNIEXPORT jbyteArray JNICALL
+Java_com_intel_realsense_librealsense_BagFileInfo_nGetThumbnailData(JNIEnv *env, jclass type,
+                                                                    jlong handle) {
+    rs2_error *e = NULL;
+    int size = 0;
+    const void *data = rs2_bag_info_get_thumbnail_data(reinterpret_cast<const rs2_bag_info *>(handle), &size, &e);
+    handle_error(env, e);
+    if (e != NULL)
+        return NULL;
+
+    jbyteArray rv = env->NewByteArray(size);
+    if (rv != NULL && size > 0)
+        env->SetByteArrayRegion(rv, 0, size, reinterpret_cast<const jbyte *>(data));
+    return rv;
+}
@@ -44,6 +44,21 @@ Java_com_intel_realsense_librealsense_Config_nEnableDeviceFromFile(JNIEnv *env,
     env->ReleaseStringUTFChars(filePath_, filePath);
 }
 
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Config_nEnableDeviceFromFileRepeatOption(JNIEnv *env, jclass type,
+                                                                               jlong handle,
+                                                                               jstring filePath_,
+                                                                               jboolean repeat) {
+    const char *filePath = env->GetStringUTFChars(filePath_, 0);
+
+    rs2_error *e = NULL;
+    rs2_config_enable_device_from_file_repeat_option(reinterpret_cast<rs2_config *>(handle), filePath, repeat, &e);
+    handle_error(env, e);
+
+    env->ReleaseStringUTFChars(filePath_, filePath);
+}
+
 extern "C" JNIEXPORT void JNICALL
 Java_com_intel_realsense_librealsense_Config_nEnableDevice(JNIEnv *env, jclass type,
                                                                    jlong handle,
@@ -69,6 +84,22 @@ Java_com_intel_realsense_librealsense_Config_nEnableRecordToFile(JNIEnv *env, jc
     env->ReleaseStringUTFChars(filePath_, filePath);
 }
 
+extern "C" JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Config_nEnableRecordToFileSegmented(JNIEnv *env, jclass type,
+                                                                          jlong handle, jstring filePath_,
+                                                                          jlong maxSegmentBytes,
+                                                                          jlong maxSegmentDurationMs,
+                                                                          jint maxSegments) {
+    const char *filePath = env->GetStringUTFChars(filePath_, 0);
+
+    rs2_error *e = NULL;
+    rs2_config_enable_record_to_file_segmented(reinterpret_cast<rs2_config *>(handle), filePath,
+                                               maxSegmentBytes, maxSegmentDurationMs, maxSegments, &e);
+    handle_error(env, e);
+
+    env->ReleaseStringUTFChars(filePath_, filePath);
+}
+
 extern "C" JNIEXPORT void JNICALL
 Java_com_intel_realsense_librealsense_Config_nDisableStream(JNIEnv *env, jclass type, jlong handle,
                                                             jint streamType) {
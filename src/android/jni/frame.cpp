@@ -2,7 +2,12 @@
 // Copyright(c) 2019 Intel Corporation. All Rights Reserved.
 
 #include <jni.h>
+#include <cstring>
+#include <cmath>
+#include <utility>
+#include <vector>
 #include "error.h"
+#include "jni_common.h"
 #include "../../../include/librealsense2/rs.h"
 
 extern "C" JNIEXPORT void JNICALL
@@ -19,11 +24,21 @@ Java_com_intel_realsense_librealsense_Frame_nRelease(JNIEnv *env, jclass type, j
 }
 
 extern "C" JNIEXPORT jlong JNICALL
-Java_com_intel_realsense_librealsense_Frame_nGetStreamProfile(JNIEnv *env, jclass type, jlong handle) {
+Java_com_intel_realsense_librealsense_Frame_nGetStreamProfile(JNIEnv *env, jclass type, jlong handle,
+                                                               jintArray key_) {
     rs2_error *e = NULL;
     const rs2_stream_profile *rv = rs2_get_frame_stream_profile(
             reinterpret_cast<const rs2_frame *>(handle), &e);
     handle_error(env, e);
+    if (e)
+        return 0;
+    // the key is read in the same call, so the Java profile cache can validate a hit without calling back in
+    jint key[RS_JNI_PROFILE_KEY_SIZE];
+    rs_jni_get_profile_key(rv, key, &e);
+    handle_error(env, e);
+    if (e)
+        return 0;
+    env->SetIntArrayRegion(key_, 0, RS_JNI_PROFILE_KEY_SIZE, key);
     return (jlong) rv;
 }
 
@@ -47,6 +62,42 @@ Java_com_intel_realsense_librealsense_Frame_nGetData(JNIEnv *env, jclass type, j
     handle_error(env, e);
 }
 
+extern "C" JNIEXPORT jobject JNICALL
+Java_com_intel_realsense_librealsense_Frame_nGetDataBuffer(JNIEnv *env, jclass type, jlong handle) {
+    rs2_error *e = NULL;
+    auto frame = reinterpret_cast<const rs2_frame *>(handle);
+    int size = rs2_get_frame_data_size(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return NULL;
+    const void *data = rs2_get_frame_data(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return NULL;
+    // the buffer aliases the frame memory, it is exposed as read-only on the java side
+    return env->NewDirectByteBuffer(const_cast<void *>(data), size);
+}
+
+extern "C" JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_MotionFrame_nGetMotionData(JNIEnv *env, jclass type, jlong handle,
+                                                                 jfloatArray data_) {
+    rs2_error *e = NULL;
+    auto frame = reinterpret_cast<const rs2_frame *>(handle);
+    int size = rs2_get_frame_data_size(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    if (size < (int) (3 * sizeof(float))) {
+        env->ThrowNew(env->FindClass("java/lang/IllegalStateException"), "the frame holds no motion vector");
+        return;
+    }
+    auto data = static_cast<const jfloat *>(rs2_get_frame_data(frame, &e));
+    handle_error(env, e);
+    if (e)
+        return;
+    env->SetFloatArrayRegion(data_, 0, 3, data);
+}
+
 extern "C"
 JNIEXPORT void JNICALL
 Java_com_intel_realsense_librealsense_Points_nGetData(JNIEnv *env, jclass type, jlong handle,
@@ -70,6 +121,184 @@ Java_com_intel_realsense_librealsense_Points_nGetTextureCoordinates(JNIEnv *env,
     handle_error(env, e);
 }
 
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Points_nCopyVertices(JNIEnv *env, jclass type, jlong handle,
+                                                           jobject dst, jint offset, jint size) {
+    auto out = static_cast<jfloat *>(env->GetDirectBufferAddress(dst));
+    if (out == NULL)
+        return;
+    rs2_error *e = NULL;
+    const rs2_vertex *vertices = rs2_get_frame_vertices(reinterpret_cast<const rs2_frame *>(handle), &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    memcpy(out + offset, vertices, size * sizeof(jfloat));
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Points_nCopyTextureCoordinates(JNIEnv *env, jclass type,
+                                                                     jlong handle, jobject dst,
+                                                                     jint offset, jint size) {
+    auto out = static_cast<jfloat *>(env->GetDirectBufferAddress(dst));
+    if (out == NULL)
+        return;
+    rs2_error *e = NULL;
+    const rs2_pixel *coordinates = rs2_get_frame_texture_coordinates(reinterpret_cast<const rs2_frame *>(handle), &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    memcpy(out + offset, coordinates, size * sizeof(jfloat));
+}
+
+extern "C"
+JNIEXPORT jobject JNICALL
+Java_com_intel_realsense_librealsense_Points_nGetVerticesBuffer(JNIEnv *env, jclass type, jlong handle) {
+    rs2_error *e = NULL;
+    auto frame = reinterpret_cast<const rs2_frame *>(handle);
+    int count = rs2_get_frame_points_count(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return NULL;
+    rs2_vertex *vertices = rs2_get_frame_vertices(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return NULL;
+    return env->NewDirectByteBuffer(vertices, count * sizeof(rs2_vertex));
+}
+
+extern "C"
+JNIEXPORT jobject JNICALL
+Java_com_intel_realsense_librealsense_Points_nGetTextureCoordinatesBuffer(JNIEnv *env, jclass type,
+                                                                          jlong handle) {
+    rs2_error *e = NULL;
+    auto frame = reinterpret_cast<const rs2_frame *>(handle);
+    int count = rs2_get_frame_points_count(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return NULL;
+    rs2_pixel *coordinates = rs2_get_frame_texture_coordinates(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return NULL;
+    return env->NewDirectByteBuffer(coordinates, count * sizeof(rs2_pixel));
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Points_nMapColors(JNIEnv *env, jclass type, jlong handle,
+                                                        jlong texture_handle, jobject dst, jint offset) {
+    auto out = static_cast<uint8_t *>(env->GetDirectBufferAddress(dst));
+    if (out == NULL)
+        return;
+    out += offset;
+
+    rs2_error *e = NULL;
+    auto points = reinterpret_cast<const rs2_frame *>(handle);
+    auto texture = reinterpret_cast<const rs2_frame *>(texture_handle);
+    int count = rs2_get_frame_points_count(points, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    const rs2_vertex *vertices = rs2_get_frame_vertices(points, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    // the pointcloud stores u, v as floats
+    auto coordinates = reinterpret_cast<const float *>(rs2_get_frame_texture_coordinates(points, &e));
+    handle_error(env, e);
+    if (e)
+        return;
+
+    // the texture must be a video frame, checked once so its fields can be read one after the other
+    if (!rs2_is_frame_extendable_to(texture, RS2_EXTENSION_VIDEO_FRAME, &e)) {
+        handle_error(env, e);
+        if (!e)
+            env->ThrowNew(env->FindClass("java/lang/IllegalArgumentException"), "the texture is not a video frame");
+        return;
+    }
+    int w = rs2_get_frame_width(texture, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    int h = rs2_get_frame_height(texture, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    int stride = rs2_get_frame_stride_in_bytes(texture, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    int bpp = rs2_get_frame_bits_per_pixel(texture, &e) / 8;
+    handle_error(env, e);
+    if (e)
+        return;
+    auto data = static_cast<const uint8_t *>(rs2_get_frame_data(texture, &e));
+    handle_error(env, e);
+    if (e)
+        return;
+    const rs2_stream_profile *profile = rs2_get_frame_stream_profile(texture, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    rs2_stream stream;
+    rs2_format format;
+    int index, uid, fps;
+    rs2_get_stream_profile_data(profile, &stream, &format, &index, &uid, &fps, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+
+    // channel offsets of red, green and blue within a pixel, gray formats replicate the single channel
+    int r = 0, g = 1, b = 2;
+    if (format == RS2_FORMAT_BGR8 || format == RS2_FORMAT_BGRA8)
+        std::swap(r, b);
+    if (bpp < 3)
+        r = g = b = 0;
+
+    for (int i = 0; i < count; i++, out += 4) {
+        int x = (int) std::lround(coordinates[2 * i] * w);
+        int y = (int) std::lround(coordinates[2 * i + 1] * h);
+        if (vertices[i].xyz[2] == 0 || x <= 0 || y <= 0 || x >= w || y >= h) {
+            memset(out, 0, 4);
+            continue;
+        }
+        const uint8_t *pixel = data + y * stride + x * bpp;
+        out[0] = pixel[r];
+        out[1] = pixel[g];
+        out[2] = pixel[b];
+        out[3] = 255;
+    }
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Points_nMapDepthColors(JNIEnv *env, jclass type, jlong handle,
+                                                             jfloat max_range, jobject dst, jint offset) {
+    auto out = static_cast<uint8_t *>(env->GetDirectBufferAddress(dst));
+    if (out == NULL)
+        return;
+    out += offset;
+
+    rs2_error *e = NULL;
+    auto points = reinterpret_cast<const rs2_frame *>(handle);
+    int count = rs2_get_frame_points_count(points, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    const rs2_vertex *vertices = rs2_get_frame_vertices(points, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+
+    for (int i = 0; i < count; i++, out += 4) {
+        auto val = (uint8_t) (int) (vertices[i].xyz[2] / max_range * 255);
+        out[0] = out[1] = out[2] = val;
+        out[3] = 255;
+    }
+}
+
 extern "C" JNIEXPORT jboolean JNICALL
 Java_com_intel_realsense_librealsense_Frame_nIsFrameExtendableTo(JNIEnv *env, jclass type,
                                                                  jlong handle, jint extension) {
@@ -195,3 +424,74 @@ Java_com_intel_realsense_librealsense_Frame_nSupportsMetadata(JNIEnv *env, jclas
     handle_error(env, e);
     return rv > 0;
 }
+
+static void fill_metadata(JNIEnv *env, const rs2_frame *frame, jlongArray values_, jbooleanArray supported_) {
+    jsize length = env->GetArrayLength(values_);
+    if (length > RS2_FRAME_METADATA_COUNT)
+        length = RS2_FRAME_METADATA_COUNT;
+
+    std::vector<jlong> values(length, 0);
+    std::vector<jboolean> supported(length, JNI_FALSE);
+    for (int i = 0; i < length; i++) {
+        rs2_error *e = NULL;
+        auto md = static_cast<rs2_frame_metadata_value>(i);
+        int rv = rs2_supports_frame_metadata(frame, md, &e);
+        if (e) {
+            // treat a failing query as unsupported rather than aborting the whole snapshot
+            rs2_free_error(e);
+            continue;
+        }
+        if (rv <= 0)
+            continue;
+        rs2_metadata_type value = rs2_get_frame_metadata(frame, md, &e);
+        if (e) {
+            rs2_free_error(e);
+            continue;
+        }
+        values[i] = value;
+        supported[i] = JNI_TRUE;
+    }
+    env->SetLongArrayRegion(values_, 0, length, values.data());
+    env->SetBooleanArrayRegion(supported_, 0, length, supported.data());
+}
+
+extern "C" JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Frame_nGetMetadataValues(JNIEnv *env, jclass type, jlong handle,
+                                                               jlongArray values, jbooleanArray supported) {
+    fill_metadata(env, reinterpret_cast<const rs2_frame *>(handle), values, supported);
+}
+
+extern "C" JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Frame_nGetMetadataSnapshot(JNIEnv *env, jclass type, jlong handle,
+                                                                 jobject snapshot) {
+    auto frame = reinterpret_cast<const rs2_frame *>(handle);
+    rs2_error *e = NULL;
+    unsigned long long number = rs2_get_frame_number(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    double timestamp = rs2_get_frame_timestamp(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+    rs2_timestamp_domain domain = rs2_get_frame_timestamp_domain(frame, &e);
+    handle_error(env, e);
+    if (e)
+        return;
+
+    jclass clazz = env->GetObjectClass(snapshot);
+
+    jfieldID values_field = env->GetFieldID(clazz, "mValues", "[J");
+    jfieldID supported_field = env->GetFieldID(clazz, "mSupported", "[Z");
+    jfieldID number_field = env->GetFieldID(clazz, "mNumber", "J");
+    jfieldID timestamp_field = env->GetFieldID(clazz, "mTimestamp", "D");
+    jfieldID domain_field = env->GetFieldID(clazz, "mTimestampDomain", "I");
+
+    auto values = reinterpret_cast<jlongArray>(env->GetObjectField(snapshot, values_field));
+    auto supported = reinterpret_cast<jbooleanArray>(env->GetObjectField(snapshot, supported_field));
+    fill_metadata(env, frame, values, supported);
+
+    env->SetLongField(snapshot, number_field, number);
+    env->SetDoubleField(snapshot, timestamp_field, timestamp);
+    env->SetIntField(snapshot, domain_field, domain);
+}
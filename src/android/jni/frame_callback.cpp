@@ -2,6 +2,8 @@
 // Copyright(c) 2021 Intel Corporation. All Rights Reserved.
 
 #include <jni.h>
+#include <mutex>
+#include <pthread.h>
 #include "error.h"
 #include "../../../include/librealsense2/rs.h"
 #include "../../../include/librealsense2/hpp/rs_frame.hpp"
@@ -72,131 +74,112 @@ bool rs_jni_callback_init(JNIEnv *env, jlong handle, jobject jcb, frame_callback
     }
     ud->frameclass = fclass;
 
+    // resolve the method IDs once, the per frame path only calls them
+    jclass usercb = env->GetObjectClass(jcb);
+    ud->on_frame = env->GetMethodID(usercb, "onFrame", "(Lcom/intel/realsense/librealsense/Frame;)V");
+    env->DeleteLocalRef(usercb);
+    if (env->ExceptionCheck() || ud->on_frame == NULL)
+    {
+        env->ExceptionClear();
+        LRS_JNI_LOGE("cannot find method onFrame in user java callback");
+        rs_jni_cleanup(env, ud);
+        return false;
+    }
+
+    ud->frame_ctor = env->GetMethodID(fclass, "<init>", "(J)V");
+    if (env->ExceptionCheck() || ud->frame_ctor == NULL)
+    {
+        env->ExceptionClear();
+        LRS_JNI_LOGE("cannot find frame java class constructor");
+        rs_jni_cleanup(env, ud);
+        return false;
+    }
+
     return true;
 }
 
-bool rs_jni_cb(rs2::frame f, frame_callback_data* ud)
+// thread local slot holding the JavaVM of threads attached by rs_jni_attach_current_thread,
+// its destructor detaches them when the thread exits
+static pthread_key_t attached_thread_key;
+static std::once_flag attached_thread_key_once;
+
+static void detach_current_thread(void *jvm)
 {
-    if (ud == NULL)
+    if (jvm)
+        reinterpret_cast<JavaVM *>(jvm)->DetachCurrentThread();
+}
+
+JNIEnv* rs_jni_attach_current_thread(JavaVM *jvm, jint version)
+{
+    JNIEnv *env = NULL;
+    int env_state = jvm->GetEnv((void **)&env, version);
+    if (env_state == JNI_OK)
+        return env;
+
+    if (env_state != JNI_EDETACHED)
     {
-        LRS_JNI_LOGE("rs_jni_cb callback data NULL");
-        return false;
+        LRS_JNI_LOGE("rs_jni_attach_current_thread fail to get Java VM: %d", env_state);
+        return NULL;
     }
 
-    if (ud->jvm == NULL)
+    std::call_once(attached_thread_key_once, [] {
+        pthread_key_create(&attached_thread_key, detach_current_thread);
+    });
+
+    if (jvm->AttachCurrentThread(&env, NULL) != JNI_OK)
     {
-        LRS_JNI_LOGE("rs_jni_cb jvm NULL");
-        return false;
+        LRS_JNI_LOGE("rs_jni_attach_current_thread failed to attach Java VM to current thread");
+        return NULL;
     }
+    pthread_setspecific(attached_thread_key, jvm);
+    return env;
+}
 
-    if (ud->frame_cb == NULL)
+bool rs_jni_cb(rs2::frame f, frame_callback_data* ud)
+{
+    if (ud == NULL)
     {
-        LRS_JNI_LOGE("rs_jni_cb frame callback NULL");
+        LRS_JNI_LOGE("rs_jni_cb callback data NULL");
         return false;
     }
 
-    if (ud->frameclass == NULL)
+    if (ud->jvm == NULL || ud->frame_cb == NULL || ud->frameclass == NULL ||
+        ud->on_frame == NULL || ud->frame_ctor == NULL)
     {
-        LRS_JNI_LOGE("rs_jni_cb frame class NULL");
+        LRS_JNI_LOGE("rs_jni_cb callback data not initialized");
         return false;
     }
 
-    JNIEnv *cb_thread_env = NULL;
-    int env_state = ud->jvm->GetEnv((void **)&cb_thread_env, ud->version);
+    // librealsense dispatch threads stay attached between frames
+    JNIEnv *cb_thread_env = rs_jni_attach_current_thread(ud->jvm, ud->version);
+    if (cb_thread_env == NULL)
+        return false;
 
-    bool attached = JNI_FALSE;
+    // create a Frame object
+    jobject frame = cb_thread_env->NewObject(ud->frameclass, ud->frame_ctor, (jlong) f.get());
 
-    if(env_state == JNI_EDETACHED)
-    {
-        if(ud->jvm->AttachCurrentThread(&cb_thread_env,NULL) != JNI_OK)
-        {
-            LRS_JNI_LOGE("rs_jni_cb failed to attach Java VM to current thread");
-            return false;
-        }
-        attached = JNI_TRUE;
-    }
-    else if (env_state == JNI_OK)
+    if(cb_thread_env->ExceptionCheck())
     {
-        attached = JNI_TRUE;
+        cb_thread_env->ExceptionDescribe();
+        cb_thread_env->ExceptionClear();
     }
-    else
-    {
-        LRS_JNI_LOGE("rs_jni_cb fail to get Java VM: %d", env_state);
+
+    if(frame == NULL){
+        LRS_JNI_LOGE("Failed create frame java object for user callback");
         return false;
     }
 
-    if(cb_thread_env){
-        jobject callback = ud->frame_cb;
-
-        jclass usercb = cb_thread_env->GetObjectClass(callback);
-        if(usercb == NULL){
-            LRS_JNI_LOGE("cannot find user callback class ...");
-            ud->jvm->DetachCurrentThread();
-            return false;
-        }
-
-        jmethodID methodid = cb_thread_env->GetMethodID(usercb, "onFrame", "(Lcom/intel/realsense/librealsense/Frame;)V");
-
-        if(cb_thread_env->ExceptionCheck())
-        {
-            cb_thread_env->ExceptionDescribe();
-            cb_thread_env->ExceptionClear();
-        }
-
-        if(methodid == NULL){
-            LRS_JNI_LOGE("cannot find method onFrame in user java callback");
-            ud->jvm->DetachCurrentThread();
-            return false;
-        }
+    // invoke the java callback with the frame
+    cb_thread_env->CallVoidMethod(ud->frame_cb, ud->on_frame, frame);
 
-        jclass frameclass = ud->frameclass;
-
-        // get the Frame class constructor
-        jmethodID frame_constructor = cb_thread_env->GetMethodID(frameclass, "<init>", "(J)V");
-
-        if(cb_thread_env->ExceptionCheck())
-        {
-            cb_thread_env->ExceptionDescribe();
-            cb_thread_env->ExceptionClear();
-        }
-
-        if(frame_constructor == NULL){
-            LRS_JNI_LOGE("cannot find frame java class constructor");
-            ud->jvm->DetachCurrentThread();
-            return false;
-        }
-
-        // create a Frame object
-        jobject frame = cb_thread_env->NewObject(frameclass, frame_constructor, (jlong) f.get());
-
-        if(cb_thread_env->ExceptionCheck())
-        {
-            cb_thread_env->ExceptionDescribe();
-            cb_thread_env->ExceptionClear();
-        }
-
-        if(frame == NULL){
-            LRS_JNI_LOGE("Failed create frame java object for user callback");
-            ud->jvm->DetachCurrentThread();
-            return false;
-        }
-
-        // invoke the java callback with the frame
-        cb_thread_env->CallVoidMethod(callback,methodid, frame);
-
-        if(cb_thread_env->ExceptionCheck())
-        {
-            cb_thread_env->ExceptionDescribe();
-            cb_thread_env->ExceptionClear();
-        }
-    }
-
-    if(attached){
-        ud->jvm->DetachCurrentThread();
-        attached = JNI_FALSE;
+    if(cb_thread_env->ExceptionCheck())
+    {
+        cb_thread_env->ExceptionDescribe();
+        cb_thread_env->ExceptionClear();
     }
 
-    cb_thread_env = NULL;
+    // the thread is not detached, so local references are not freed automatically
+    cb_thread_env->DeleteLocalRef(frame);
     return true;
 }
 
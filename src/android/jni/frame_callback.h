@@ -20,6 +20,8 @@ struct frame_callback_data
     jint version;          // Java VM version
     jobject frame_cb;      // Java user frame callback with OnFrame interface
     jclass frameclass;     // librealsense Java Frame class
+    jmethodID on_frame;    // user callback onFrame method, resolved once at registration
+    jmethodID frame_ctor;  // Frame(long) constructor, resolved once at registration
 };
 
 typedef struct frame_callback_data  frame_callback_data;
@@ -27,4 +29,8 @@ typedef struct frame_callback_data  frame_callback_data;
 bool rs_jni_callback_init(JNIEnv *env, jlong handle, jobject jcb, frame_callback_data* ud);
 bool rs_jni_cb(rs2::frame f, frame_callback_data* ud);
 void rs_jni_cleanup(JNIEnv *env, frame_callback_data* ud);
+
+// Returns the JNIEnv of the calling thread, attaching it to the JVM if needed.
+// Threads attached here stay attached and are detached automatically when they exit.
+JNIEnv* rs_jni_attach_current_thread(JavaVM *jvm, jint version);
 #endif
@@ -2,7 +2,9 @@
 // Copyright(c) 2019 Intel Corporation. All Rights Reserved.
 
 #include <jni.h>
+#include <vector>
 #include "error.h"
+#include "jni_common.h"
 #include "../../../include/librealsense2/rs.h"
 
 extern "C" JNIEXPORT void JNICALL
@@ -12,27 +14,66 @@ Java_com_intel_realsense_librealsense_FrameSet_nAddRef(JNIEnv *env, jclass type,
     handle_error(env, e);
 }
 
-extern "C" JNIEXPORT void JNICALL
-Java_com_intel_realsense_librealsense_FrameSet_nRelease(JNIEnv *env, jclass type,
-                                                        jlong handle) {
-    if(handle)
-    rs2_release_frame(reinterpret_cast<rs2_frame *>(handle));
-}
-
 extern "C" JNIEXPORT jlong JNICALL
 Java_com_intel_realsense_librealsense_FrameSet_nExtractFrame(JNIEnv *env, jclass type,
                                                              jlong handle, jint index) {
     rs2_error *e = NULL;
-    rs2_frame *rv = rs2_extract_frame(reinterpret_cast<rs2_frame *>(handle), index, &e);
+    auto frame = reinterpret_cast<rs2_frame *>(handle);
+    // a single frame is indexed as a set of one, see nBuildIndex
+    if (index == 0 && !rs2_is_frame_extendable_to(frame, RS2_EXTENSION_COMPOSITE_FRAME, &e) && !e) {
+        rs2_frame_add_ref(frame, &e);
+        handle_error(env, e);
+        return handle;
+    }
+    handle_error(env, e);
+    if (e)
+        return 0;
+    rs2_frame *rv = rs2_extract_frame(frame, index, &e);
     handle_error(env, e);
     return reinterpret_cast<jlong>(rv);
 }
 
 extern "C" JNIEXPORT jint JNICALL
-Java_com_intel_realsense_librealsense_FrameSet_nFrameCount(JNIEnv *env, jclass type,
-                                                           jlong handle) {
+Java_com_intel_realsense_librealsense_FrameSet_nBuildIndex(JNIEnv *env, jclass type, jlong handle,
+                                                           jintArray streams_, jlongArray profiles_) {
     rs2_error *e = NULL;
-    int rv = rs2_embedded_frames_count(reinterpret_cast<rs2_frame *>(handle), &e);
+    auto composite = reinterpret_cast<rs2_frame *>(handle);
+    // callbacks may deliver a single frame where a frameset is expected, index it as a set of one
+    bool is_composite = rs2_is_frame_extendable_to(composite, RS2_EXTENSION_COMPOSITE_FRAME, &e);
+    handle_error(env, e);
+    if (e)
+        return 0;
+    int count = is_composite ? rs2_embedded_frames_count(composite, &e) : 1;
     handle_error(env, e);
-    return rv;
-}
\ No newline at end of file
+    if (e)
+        return 0;
+
+    // one profile key per member, it starts with the stream type, format and stream index
+    jsize capacity = env->GetArrayLength(profiles_);
+    if (count > capacity)
+        return count;
+
+    std::vector<jint> streams(count * RS_JNI_PROFILE_KEY_SIZE);
+    std::vector<jlong> profiles(count);
+    for (int i = 0; i < count; i++) {
+        rs2_frame *f = is_composite ? rs2_extract_frame(composite, i, &e) : composite;
+        handle_error(env, e);
+        if (e)
+            return 0;
+        const rs2_stream_profile *profile = rs2_get_frame_stream_profile(f, &e);
+        if (is_composite)
+            rs2_release_frame(f);
+        handle_error(env, e);
+        if (e)
+            return 0;
+
+        rs_jni_get_profile_key(profile, &streams[i * RS_JNI_PROFILE_KEY_SIZE], &e);
+        handle_error(env, e);
+        if (e)
+            return 0;
+        profiles[i] = reinterpret_cast<jlong>(profile);
+    }
+    env->SetIntArrayRegion(streams_, 0, count * RS_JNI_PROFILE_KEY_SIZE, streams.data());
+    env->SetLongArrayRegion(profiles_, 0, count, profiles.data());
+    return count;
+}
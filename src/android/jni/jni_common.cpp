@@ -32,3 +32,24 @@ jlongArray rs_jni_convert_stream_profiles(JNIEnv *env, std::shared_ptr<rs2_strea
     }
     return rv;
 }
+
+void rs_jni_get_profile_key(const rs2_stream_profile *profile, jint *key, rs2_error **e)
+{
+    rs2_stream stream_type = RS2_STREAM_ANY;
+    rs2_format format = RS2_FORMAT_ANY;
+    int values[RS_JNI_PROFILE_KEY_SIZE] = { 0, 0, -1, -1, -1, 0, 0 };
+
+    rs2_get_stream_profile_data(profile, &stream_type, &format, &values[2], &values[3], &values[4], e);
+    if (*e)
+        return;
+    values[0] = stream_type;
+    values[1] = format;
+
+    int is_video = rs2_stream_profile_is(profile, RS2_EXTENSION_VIDEO_PROFILE, e);
+    if (!*e && is_video)
+        rs2_get_video_stream_resolution(profile, &values[5], &values[6], e);
+    if (*e)
+        return;
+    for (int i = 0; i < RS_JNI_PROFILE_KEY_SIZE; i++)
+        key[i] = values[i];
+}
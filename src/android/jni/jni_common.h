@@ -10,4 +10,11 @@
 
 jlongArray rs_jni_convert_stream_profiles(JNIEnv *env, std::shared_ptr<rs2_stream_profile_list> list);
 
+// number of ints filled by rs_jni_get_profile_key, must match StreamProfileCache.KEY_SIZE
+const int RS_JNI_PROFILE_KEY_SIZE = 7;
+
+// Fills what identifies a profile: stream type, format, index, unique id, frame rate, width and height.
+// The size is zero for profiles that are not video profiles.
+void rs_jni_get_profile_key(const rs2_stream_profile *profile, jint *key, rs2_error **e);
+
 #endif
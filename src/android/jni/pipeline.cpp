@@ -95,6 +95,26 @@ Java_com_intel_realsense_librealsense_Pipeline_nWaitForFrames(JNIEnv *env, jclas
     return reinterpret_cast<jlong>(rv);
 }
 
+extern "C" JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_Pipeline_nTryWaitForFrames(JNIEnv *env, jclass type,
+                                                                 jlong handle, jint timeout) {
+    rs2_error* e = NULL;
+    rs2_frame *rv = NULL;
+    // a timeout is reported through the return value, not as an error
+    int res = rs2_pipeline_try_wait_for_frames(reinterpret_cast<rs2_pipeline *>(handle), &rv, timeout, &e);
+    handle_error(env, e);
+    return res ? reinterpret_cast<jlong>(rv) : 0;
+}
+
+extern "C" JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_Pipeline_nPollForFrames(JNIEnv *env, jclass type, jlong handle) {
+    rs2_error* e = NULL;
+    rs2_frame *rv = NULL;
+    int res = rs2_pipeline_poll_for_frames(reinterpret_cast<rs2_pipeline *>(handle), &rv, &e);
+    handle_error(env, e);
+    return res ? reinterpret_cast<jlong>(rv) : 0;
+}
+
 extern "C" JNIEXPORT jlongArray JNICALL
 Java_com_intel_realsense_librealsense_Pipeline_nGetActiveStreams(JNIEnv *env, jclass type,
                                                        jlong handle) {
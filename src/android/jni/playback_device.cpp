@@ -0,0 +1,173 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2021 Intel Corporation. All Rights Reserved.
+
+#include <jni.h>
+#include "error.h"
+#include "jni_logging.h"
+#include "frame_callback.h"
+#include "../../../include/librealsense2/rs.h"
+#include "../../../include/librealsense2/h/rs_record_playback.h"
+
+// forwards status changes from the playback reading thread to the java StatusCallback,
+// librealsense owns the object and releases it when the callback is replaced or the device is destroyed
+class playback_status_callback : public rs2_playback_status_changed_callback
+{
+public:
+    playback_status_callback(JavaVM *jvm, jint version, jobject callback, jmethodID method) :
+            _jvm(jvm), _version(version), _callback(callback), _method(method) {}
+
+    void on_playback_status_changed(rs2_playback_status status) override
+    {
+        JNIEnv *env = rs_jni_attach_current_thread(_jvm, _version);
+        if (env == NULL)
+            return;
+        env->CallVoidMethod(_callback, _method, (jint)status);
+        if (env->ExceptionCheck())
+        {
+            env->ExceptionDescribe();
+            env->ExceptionClear();
+        }
+    }
+
+    void release() override
+    {
+        JNIEnv *env = rs_jni_attach_current_thread(_jvm, _version);
+        if (env)
+            env->DeleteGlobalRef(_callback);
+        delete this;
+    }
+
+private:
+    JavaVM *_jvm;
+    jint _version;
+    jobject _callback;
+    jmethodID _method;
+};
+
+extern "C"
+JNIEXPORT jstring JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nGetFilePath(JNIEnv *env, jclass type,
+                                                                  jlong handle) {
+    rs2_error *e = NULL;
+    const char *path = rs2_playback_device_get_file_path(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+    return env->NewStringUTF(path ? path : "");
+}
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nGetDuration(JNIEnv *env, jclass type,
+                                                                  jlong handle) {
+    rs2_error *e = NULL;
+    unsigned long long rv = rs2_playback_get_duration(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+    return (jlong)rv;
+}
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nGetPosition(JNIEnv *env, jclass type,
+                                                                  jlong handle) {
+    rs2_error *e = NULL;
+    unsigned long long rv = rs2_playback_get_position(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+    return (jlong)rv;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nSeek(JNIEnv *env, jclass type, jlong handle,
+                                                           jlong time) {
+    rs2_error *e = NULL;
+    rs2_playback_seek(reinterpret_cast<const rs2_device *>(handle), time, &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nPause(JNIEnv *env, jclass type,
+                                                            jlong handle) {
+    rs2_error *e = NULL;
+    rs2_playback_device_pause(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nResume(JNIEnv *env, jclass type,
+                                                             jlong handle) {
+    rs2_error *e = NULL;
+    rs2_playback_device_resume(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nStop(JNIEnv *env, jclass type,
+                                                           jlong handle) {
+    rs2_error *e = NULL;
+    rs2_playback_device_stop(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nSetRealTime(JNIEnv *env, jclass type,
+                                                                  jlong handle, jboolean real_time) {
+    rs2_error *e = NULL;
+    rs2_playback_device_set_real_time(reinterpret_cast<const rs2_device *>(handle), real_time, &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT jboolean JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nIsRealTime(JNIEnv *env, jclass type,
+                                                                 jlong handle) {
+    rs2_error *e = NULL;
+    int rv = rs2_playback_device_is_real_time(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+    return rv != 0;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nSetPlaybackSpeed(JNIEnv *env, jclass type,
+                                                                       jlong handle, jfloat speed) {
+    rs2_error *e = NULL;
+    rs2_playback_device_set_playback_speed(reinterpret_cast<const rs2_device *>(handle), speed, &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT jint JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nGetCurrentStatus(JNIEnv *env, jclass type,
+                                                                       jlong handle) {
+    rs2_error *e = NULL;
+    rs2_playback_status rv = rs2_playback_device_get_current_status(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+    return rv;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_PlaybackDevice_nSetStatusChangedCallback(JNIEnv *env, jclass type,
+                                                                               jlong handle,
+                                                                               jobject callback) {
+    JavaVM *jvm = NULL;
+    if (env->GetJavaVM(&jvm) != 0)
+    {
+        LRS_JNI_LOGE("Failed to get JVM in nSetStatusChangedCallback");
+        return;
+    }
+    jclass cls = env->GetObjectClass(callback);
+    jmethodID method = env->GetMethodID(cls, "onStatusChanged", "(I)V");
+    env->DeleteLocalRef(cls);
+    if (env->ExceptionCheck() || method == NULL)
+        return;
+
+    jobject ref = env->NewGlobalRef(callback);
+    rs2_error *e = NULL;
+    rs2_playback_device_set_status_changed_callback(reinterpret_cast<const rs2_device *>(handle),
+            new playback_status_callback(jvm, env->GetVersion(), ref, method), &e);
+    handle_error(env, e);
+}
@@ -2,10 +2,31 @@
 // Copyright(c) 2019 Intel Corporation. All Rights Reserved.
 
 #include <jni.h>
+#include <memory>
 #include "error.h"
 
 #include "../../../include/librealsense2/rs.h"
 
+#include "jni_logging.h"
+#include "frame_callback.h"
+
+// Java references of a callback registered through Filter.processAsync. The block owns its output callback and
+// destroys it when the callback is replaced or the block is deleted, so the references live exactly as long as
+// the callback that uses them, including an invocation still running when the callback is replaced.
+struct processing_callback
+{
+    frame_callback_data data = {0, NULL, 0, NULL, NULL, NULL, NULL};
+
+    ~processing_callback()
+    {
+        if (!data.jvm)
+            return;
+        JNIEnv *env = rs_jni_attach_current_thread(data.jvm, data.version);
+        if (env)
+            rs_jni_cleanup(env, &data);
+    }
+};
+
 extern "C" JNIEXPORT void JNICALL
 Java_com_intel_realsense_librealsense_ProcessingBlock_nDelete(JNIEnv *env, jclass type,
                                                               jlong handle) {
@@ -23,6 +44,32 @@ Java_com_intel_realsense_librealsense_ProcessingBlock_nInvoke(JNIEnv *env, jclas
     handle_error(env, e);
 }
 
+extern "C" JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Filter_nStartWithCallback(JNIEnv *env, jclass type,
+                                                                jlong handle, jobject jcb) {
+    auto holder = std::make_shared<processing_callback>();
+    if (rs_jni_callback_init(env, handle, jcb, &holder->data) != true) return;
+
+    auto cb = [holder](rs2::frame f) {
+        rs_jni_cb(f, &holder->data);
+    };
+
+    // the previous output callback, and the references it holds, are destroyed by the block
+    rs2_error *e = NULL;
+    rs2_start_processing(reinterpret_cast<rs2_processing_block *>(handle),
+                         new rs2::frame_callback<decltype(cb)>(cb), &e);
+    handle_error(env, e);
+}
+
+extern "C" JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_Filter_nStartWithQueue(JNIEnv *env, jclass type,
+                                                             jlong handle, jlong queueHandle) {
+    rs2_error *e = NULL;
+    rs2_start_processing_queue(reinterpret_cast<rs2_processing_block *>(handle),
+                               reinterpret_cast<rs2_frame_queue *>(queueHandle), &e);
+    handle_error(env, e);
+}
+
 extern "C"
 JNIEXPORT jlong JNICALL
 Java_com_intel_realsense_librealsense_Align_nCreate(JNIEnv *env, jclass type, jlong queueHandle,
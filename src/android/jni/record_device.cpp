@@ -0,0 +1,101 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2021 Intel Corporation. All Rights Reserved.
+
+#include <jni.h>
+#include "error.h"
+#include "../../../include/librealsense2/rs.h"
+#include "../../../include/librealsense2/h/rs_record_playback.h"
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_RecordDevice_nCreate(JNIEnv *env, jclass type,
+                                                           jlong device_handle, jstring file_,
+                                                           jboolean compression) {
+    const char *file = env->GetStringUTFChars(file_, 0);
+    rs2_error *e = NULL;
+    rs2_device *rv = rs2_create_record_device_ex(reinterpret_cast<const rs2_device *>(device_handle), file, compression, &e);
+    env->ReleaseStringUTFChars(file_, file);
+    handle_error(env, e);
+    return (jlong) rv;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_RecordDevice_nPause(JNIEnv *env, jclass type,
+                                                          jlong handle) {
+    rs2_error *e = NULL;
+    rs2_record_device_pause(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_RecordDevice_nResume(JNIEnv *env, jclass type,
+                                                           jlong handle) {
+    rs2_error *e = NULL;
+    rs2_record_device_resume(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_RecordDevice_nSwitchFile(JNIEnv *env, jclass type,
+                                                               jlong handle, jstring file_,
+                                                               jboolean compression) {
+    const char *file = env->GetStringUTFChars(file_, 0);
+    rs2_error *e = NULL;
+    rs2_record_device_switch_file(reinterpret_cast<const rs2_device *>(handle), file, compression, &e);
+    env->ReleaseStringUTFChars(file_, file);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT jstring JNICALL
+Java_com_intel_realsense_librealsense_RecordDevice_nGetFileName(JNIEnv *env, jclass type,
+                                                                jlong handle) {
+    rs2_error *e = NULL;
+    const char *name = rs2_record_device_filename(reinterpret_cast<const rs2_device *>(handle), &e);
+    handle_error(env, e);
+    return env->NewStringUTF(name ? name : "");
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_RecordDevice_nSetWriteBudget(JNIEnv *env, jclass type,
+                                                                   jlong handle, jlong max_pending_bytes,
+                                                                   jint policy) {
+    rs2_error *e = NULL;
+    rs2_record_device_set_write_budget(reinterpret_cast<const rs2_device *>(handle), max_pending_bytes,
+                                       static_cast<rs2_record_overflow_policy>(policy), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_RecordDevice_nGetWriteStats(JNIEnv *env, jclass type,
+                                                                  jlong handle, jobject stats) {
+    rs2_error *e = NULL;
+    rs2_record_write_stats rv;
+    rs2_record_device_get_write_stats(reinterpret_cast<const rs2_device *>(handle), &rv, &e);
+    handle_error(env, e);
+    if (e != NULL)
+        return;
+
+    jclass clazz = env->GetObjectClass(stats);
+
+    jfieldID framesPendingField = env->GetFieldID(clazz, "framesPending", "J");
+    jfieldID bytesPendingField = env->GetFieldID(clazz, "bytesPending", "J");
+    jfieldID maxBytesPendingField = env->GetFieldID(clazz, "maxBytesPending", "J");
+    jfieldID framesWrittenField = env->GetFieldID(clazz, "framesWritten", "J");
+    jfieldID bytesWrittenField = env->GetFieldID(clazz, "bytesWritten", "J");
+    jfieldID writeTimeNanosField = env->GetFieldID(clazz, "writeTimeNanos", "J");
+    jfieldID framesDroppedField = env->GetFieldID(clazz, "framesDropped", "J");
+
+    env->SetLongField(stats, framesPendingField, rv.frames_pending);
+    env->SetLongField(stats, bytesPendingField, rv.bytes_pending);
+    env->SetLongField(stats, maxBytesPendingField, rv.max_bytes_pending);
+    env->SetLongField(stats, framesWrittenField, rv.frames_written);
+    env->SetLongField(stats, bytesWrittenField, rv.bytes_written);
+    env->SetLongField(stats, writeTimeNanosField, rv.write_time_ns);
+    env->SetLongField(stats, framesDroppedField, rv.frames_dropped);
+}
@@ -0,0 +1,309 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2021 Intel Corporation. All Rights Reserved.
+
+#include <jni.h>
+#include <deque>
+#include <mutex>
+#include <unordered_map>
+#include "error.h"
+
+#include "../../../include/librealsense2/rs.h"
+#include "../../../include/librealsense2/h/rs_internal.h"
+
+#include "jni_logging.h"
+#include "frame_callback.h"
+
+// java buffer handed over to a software sensor, kept alive until librealsense releases the frame
+struct software_frame_buffer
+{
+    JavaVM *jvm;
+    jobject buffer;        // global reference to the direct ByteBuffer holding the frame data
+    jobject callback;      // global reference to the BufferReleasedCallback, may be NULL
+};
+
+// the software frame deleter receives only the data pointer, so pending buffers are looked up by address.
+// the same buffer may be submitted again before its previous frame is released, hence the queue per address.
+static std::mutex software_buffers_mutex;
+static std::unordered_map<void *, std::deque<software_frame_buffer>> software_buffers;
+
+static void release_software_frame(void *data)
+{
+    software_frame_buffer fb;
+    {
+        std::lock_guard<std::mutex> lock(software_buffers_mutex);
+        auto it = software_buffers.find(data);
+        if (it == software_buffers.end() || it->second.empty())
+        {
+            LRS_JNI_LOGE("release_software_frame unknown buffer");
+            return;
+        }
+        fb = it->second.front();
+        it->second.pop_front();
+        if (it->second.empty())
+            software_buffers.erase(it);
+    }
+
+    JNIEnv *env = rs_jni_attach_current_thread(fb.jvm, JNI_VERSION_1_6);
+    if (env == NULL)
+        return;
+
+    if (fb.callback != NULL)
+    {
+        jclass clazz = env->GetObjectClass(fb.callback);
+        jmethodID method = env->GetMethodID(clazz, "onBufferReleased", "(Ljava/nio/ByteBuffer;)V");
+        env->CallVoidMethod(fb.callback, method, fb.buffer);
+        if (env->ExceptionCheck())
+        {
+            env->ExceptionDescribe();
+            env->ExceptionClear();
+        }
+        env->DeleteLocalRef(clazz);
+        env->DeleteGlobalRef(fb.callback);
+    }
+    env->DeleteGlobalRef(fb.buffer);
+}
+
+// registers the buffer for release_software_frame, returns its address or NULL on failure
+static void *hold_software_frame(JNIEnv *env, jobject buffer, jobject callback)
+{
+    void *data = env->GetDirectBufferAddress(buffer);
+    if (data == NULL)
+    {
+        env->ThrowNew(env->FindClass("java/lang/IllegalArgumentException"), "frame data must be a direct buffer");
+        return NULL;
+    }
+
+    software_frame_buffer fb = {NULL, NULL, NULL};
+    env->GetJavaVM(&fb.jvm);
+    fb.buffer = env->NewGlobalRef(buffer);
+    if (callback != NULL)
+        fb.callback = env->NewGlobalRef(callback);
+
+    std::lock_guard<std::mutex> lock(software_buffers_mutex);
+    software_buffers[data].push_back(fb);
+    return data;
+}
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_SoftwareDevice_nCreate(JNIEnv *env, jclass type) {
+    rs2_error *e = NULL;
+    rs2_device *rv = rs2_create_software_device(&e);
+    handle_error(env, e);
+    return (jlong) rv;
+}
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_SoftwareDevice_nAddSensor(JNIEnv *env, jclass type, jlong handle,
+                                                                jstring name) {
+    const char *sensor_name = env->GetStringUTFChars(name, 0);
+    rs2_error *e = NULL;
+    rs2_sensor *rv = rs2_software_device_add_sensor(reinterpret_cast<rs2_device *>(handle), sensor_name, &e);
+    env->ReleaseStringUTFChars(name, sensor_name);
+    handle_error(env, e);
+    return (jlong) rv;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareDevice_nRegisterInfo(JNIEnv *env, jclass type, jlong handle,
+                                                                   jint info, jstring value) {
+    const char *val = env->GetStringUTFChars(value, 0);
+    rs2_error *e = NULL;
+    rs2_software_device_register_info(reinterpret_cast<rs2_device *>(handle),
+                                      static_cast<rs2_camera_info>(info), val, &e);
+    env->ReleaseStringUTFChars(value, val);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareDevice_nUpdateInfo(JNIEnv *env, jclass type, jlong handle,
+                                                                 jint info, jstring value) {
+    const char *val = env->GetStringUTFChars(value, 0);
+    rs2_error *e = NULL;
+    rs2_software_device_update_info(reinterpret_cast<rs2_device *>(handle),
+                                    static_cast<rs2_camera_info>(info), val, &e);
+    env->ReleaseStringUTFChars(value, val);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareDevice_nCreateMatcher(JNIEnv *env, jclass type, jlong handle,
+                                                                    jint matcher) {
+    rs2_error *e = NULL;
+    rs2_software_device_create_matcher(reinterpret_cast<rs2_device *>(handle),
+                                       static_cast<rs2_matchers>(matcher), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareDevice_nAddToContext(JNIEnv *env, jclass type, jlong handle,
+                                                                   jlong context_handle) {
+    rs2_error *e = NULL;
+    rs2_context_add_software_device(reinterpret_cast<rs2_context *>(context_handle),
+                                    reinterpret_cast<rs2_device *>(handle), &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_SoftwareSensor_nAddVideoStream(JNIEnv *env, jclass type, jlong handle,
+                                                                     jint stream_type, jint index, jint uid,
+                                                                     jint width, jint height, jint fps,
+                                                                     jint bpp, jint format, jobject intrinsic,
+                                                                     jboolean is_default) {
+    rs2_video_stream stream = {};
+    stream.type = static_cast<rs2_stream>(stream_type);
+    stream.index = index;
+    stream.uid = uid;
+    stream.width = width;
+    stream.height = height;
+    stream.fps = fps;
+    stream.bpp = bpp;
+    stream.fmt = static_cast<rs2_format>(format);
+    stream.intrinsics.width = width;
+    stream.intrinsics.height = height;
+
+    if (intrinsic != NULL)
+    {
+        jclass clazz = env->GetObjectClass(intrinsic);
+        stream.intrinsics.ppx = env->GetFloatField(intrinsic, env->GetFieldID(clazz, "mPpx", "F"));
+        stream.intrinsics.ppy = env->GetFloatField(intrinsic, env->GetFieldID(clazz, "mPpy", "F"));
+        stream.intrinsics.fx = env->GetFloatField(intrinsic, env->GetFieldID(clazz, "mFx", "F"));
+        stream.intrinsics.fy = env->GetFloatField(intrinsic, env->GetFieldID(clazz, "mFy", "F"));
+        stream.intrinsics.model = static_cast<rs2_distortion>(
+                env->GetIntField(intrinsic, env->GetFieldID(clazz, "mModelValue", "I")));
+        jfloatArray coeffs = (jfloatArray) env->GetObjectField(intrinsic, env->GetFieldID(clazz, "mCoeffs", "[F"));
+        if (coeffs != NULL && env->GetArrayLength(coeffs) >= 5)
+            env->GetFloatArrayRegion(coeffs, 0, 5, stream.intrinsics.coeffs);
+    }
+
+    rs2_error *e = NULL;
+    rs2_stream_profile *rv = rs2_software_sensor_add_video_stream_ex(reinterpret_cast<rs2_sensor *>(handle),
+                                                                     stream, is_default, &e);
+    handle_error(env, e);
+    return (jlong) rv;
+}
+
+extern "C"
+JNIEXPORT jlong JNICALL
+Java_com_intel_realsense_librealsense_SoftwareSensor_nAddMotionStream(JNIEnv *env, jclass type, jlong handle,
+                                                                      jint stream_type, jint index, jint uid,
+                                                                      jint fps, jint format, jobject intrinsic,
+                                                                      jboolean is_default) {
+    rs2_motion_stream stream = {};
+    stream.type = static_cast<rs2_stream>(stream_type);
+    stream.index = index;
+    stream.uid = uid;
+    stream.fps = fps;
+    stream.fmt = static_cast<rs2_format>(format);
+
+    if (intrinsic != NULL)
+    {
+        jclass clazz = env->GetObjectClass(intrinsic);
+        jobjectArray data = (jobjectArray) env->GetObjectField(intrinsic, env->GetFieldID(clazz, "mData", "[[F"));
+        for (int i = 0; data != NULL && i < 3; i++)
+        {
+            jfloatArray row = (jfloatArray) env->GetObjectArrayElement(data, i);
+            env->GetFloatArrayRegion(row, 0, 4, stream.intrinsics.data[i]);
+            env->DeleteLocalRef(row);
+        }
+        jfloatArray noise = (jfloatArray) env->GetObjectField(intrinsic, env->GetFieldID(clazz, "mNoiseVariances", "[F"));
+        if (noise != NULL)
+            env->GetFloatArrayRegion(noise, 0, 3, stream.intrinsics.noise_variances);
+        jfloatArray bias = (jfloatArray) env->GetObjectField(intrinsic, env->GetFieldID(clazz, "mBiasVariances", "[F"));
+        if (bias != NULL)
+            env->GetFloatArrayRegion(bias, 0, 3, stream.intrinsics.bias_variances);
+    }
+
+    rs2_error *e = NULL;
+    rs2_stream_profile *rv = rs2_software_sensor_add_motion_stream_ex(reinterpret_cast<rs2_sensor *>(handle),
+                                                                      stream, is_default, &e);
+    handle_error(env, e);
+    return (jlong) rv;
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareSensor_nOnVideoFrame(JNIEnv *env, jclass type, jlong handle,
+                                                                   jobject buffer, jint stride, jint bpp,
+                                                                   jdouble timestamp, jint domain,
+                                                                   jint frame_number, jlong profile,
+                                                                   jfloat depth_units, jobject callback) {
+    void *data = hold_software_frame(env, buffer, callback);
+    if (data == NULL)
+        return;
+
+    rs2_software_video_frame frame = {};
+    frame.pixels = data;
+    frame.deleter = release_software_frame;
+    frame.stride = stride;
+    frame.bpp = bpp;
+    frame.timestamp = timestamp;
+    frame.domain = static_cast<rs2_timestamp_domain>(domain);
+    frame.frame_number = frame_number;
+    frame.profile = reinterpret_cast<const rs2_stream_profile *>(profile);
+    frame.depth_units = depth_units;
+
+    // the deleter is invoked by librealsense on every path, including errors, so the buffer is always released
+    rs2_error *e = NULL;
+    rs2_software_sensor_on_video_frame(reinterpret_cast<rs2_sensor *>(handle), frame, &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareSensor_nOnMotionFrame(JNIEnv *env, jclass type, jlong handle,
+                                                                    jobject buffer, jdouble timestamp,
+                                                                    jint domain, jint frame_number,
+                                                                    jlong profile, jobject callback) {
+    void *data = hold_software_frame(env, buffer, callback);
+    if (data == NULL)
+        return;
+
+    rs2_software_motion_frame frame = {};
+    frame.data = data;
+    frame.deleter = release_software_frame;
+    frame.timestamp = timestamp;
+    frame.domain = static_cast<rs2_timestamp_domain>(domain);
+    frame.frame_number = frame_number;
+    frame.profile = reinterpret_cast<const rs2_stream_profile *>(profile);
+
+    rs2_error *e = NULL;
+    rs2_software_sensor_on_motion_frame(reinterpret_cast<rs2_sensor *>(handle), frame, &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareSensor_nSetMetadata(JNIEnv *env, jclass type, jlong handle,
+                                                                  jint metadata_type, jlong value) {
+    rs2_error *e = NULL;
+    rs2_software_sensor_set_metadata(reinterpret_cast<rs2_sensor *>(handle),
+                                     static_cast<rs2_frame_metadata_value>(metadata_type), value, &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareSensor_nAddReadOnlyOption(JNIEnv *env, jclass type, jlong handle,
+                                                                        jint option, jfloat value) {
+    rs2_error *e = NULL;
+    rs2_software_sensor_add_read_only_option(reinterpret_cast<rs2_sensor *>(handle),
+                                             static_cast<rs2_option>(option), value, &e);
+    handle_error(env, e);
+}
+
+extern "C"
+JNIEXPORT void JNICALL
+Java_com_intel_realsense_librealsense_SoftwareSensor_nUpdateReadOnlyOption(JNIEnv *env, jclass type, jlong handle,
+                                                                           jint option, jfloat value) {
+    rs2_error *e = NULL;
+    rs2_software_sensor_update_read_only_option(reinterpret_cast<rs2_sensor *>(handle),
+                                                static_cast<rs2_option>(option), value, &e);
+    handle_error(env, e);
+}
@@ -5,6 +5,7 @@
 #include <core/motion.h>
 #include <core/advanced_mode.h>
 #include "record_device.h"
+#include <algorithm>
 #include <src/platform/backend-device-group.h>
 
 using namespace librealsense;
@@ -12,8 +13,21 @@ using namespace librealsense;
 librealsense::record_device::record_device(std::shared_ptr<librealsense::device_interface> device,
                                       std::shared_ptr<librealsense::device_serializer::writer> serializer):
     m_write_thread([](){return std::make_shared<dispatcher>(std::numeric_limits<unsigned int>::max());}),
+    m_file_time_base(0),
+    m_header_written(false),
     m_is_recording(true),
-    m_record_total_pause_duration(0)
+    m_record_total_pause_duration(0),
+    m_max_pending_bytes(MAX_CACHED_DATA_SIZE),
+    m_overflow_policy(RS2_RECORD_OVERFLOW_POLICY_DROP_NEWEST),
+    m_pending_stopped(false),
+    m_budget_waiters(0),
+    m_frames_pending(0),
+    m_bytes_pending(0),
+    m_max_bytes_pending(0),
+    m_frames_written(0),
+    m_bytes_written(0),
+    m_write_time_ns(0),
+    m_frames_dropped(0)
 {
     if (device == nullptr)
     {
@@ -65,6 +79,9 @@ librealsense::record_device::~record_device()
     {
         s->disable_recording();
     }
+    // Under the BLOCK policy a sensor thread may wait for the write queue, stop() below drops the queue
+    // without releasing its budget, so waiters are released here and no new frame is accepted
+    stop_pending();
     if ((*m_write_thread)->flush() == false)
     {
         LOG_ERROR("Error - timeout waiting for flush, possible deadlock detected");
@@ -125,6 +142,13 @@ std::chrono::nanoseconds librealsense::record_device::get_capture_time() const
     return capture_time;
 }
 
+//Returns the time relative to the beginning of the current file, called on m_write_thread
+std::chrono::nanoseconds librealsense::record_device::to_file_time(std::chrono::nanoseconds capture_time) const
+{
+    // data captured just before a switch may be written to the new file, it is placed at its start
+    return std::max(capture_time - m_file_time_base, std::chrono::nanoseconds::zero());
+}
+
 void librealsense::record_device::write_data(size_t sensor_index, librealsense::frame_holder frame, std::function<void(std::string const&)> on_error)
 {
     //write_data is called from the sensors, when the live sensor raises a frame
@@ -138,27 +162,24 @@ void librealsense::record_device::write_data(size_t sensor_index, librealsense::
         initialize_recording();
     });
 
-    //TODO: restore: uint64_t data_size = frame.frame->get_frame_data_size();
-    uint64_t cached_data_size = m_cached_data_size; //TODO: restore: (+ data_size)
-    if (cached_data_size > MAX_CACHED_DATA_SIZE)
-    {
-        LOG_WARNING("Recorder reached maximum cache size, frame dropped");
-        on_error("Recorder reached maximum cache size, frame dropped");
+    uint64_t data_size = frame ? frame.frame->get_frame_data_size() : 0;
+    if (!reserve_pending(data_size))
         return;
-    }
 
-    m_cached_data_size = cached_data_size;
     auto capture_time = get_capture_time();
     //TODO: remove usage of shared pointer when frame_holder is copyable
     auto frame_holder_ptr = std::make_shared<frame_holder>();
     *frame_holder_ptr = std::move(frame);
-    (*m_write_thread)->invoke([this, frame_holder_ptr, sensor_index, capture_time/*, data_size*/, on_error](dispatcher::cancellable_timer t) {
+    (*m_write_thread)->invoke([this, frame_holder_ptr, sensor_index, capture_time, data_size, on_error](dispatcher::cancellable_timer t) {
         if (m_is_recording == false)
         {
+            frame_holder_ptr->reset();
+            release_pending(data_size);
             return; //Recording is paused
         }
-        std::call_once(m_first_frame_flag, [&]()
+        if (!m_header_written)
         {
+            m_header_written = true;
             try
             {
                 write_header();
@@ -168,23 +189,102 @@ void librealsense::record_device::write_data(size_t sensor_index, librealsense::
                 LOG_ERROR("Failed to write header. " << e.what());
                 on_error( std::string( "Failed to write header. " ) + e.what() );
             }
-        });
+        }
 
         try
         {
             const uint32_t device_index = 0;
             auto stream_type = frame_holder_ptr->frame->get_stream()->get_stream_type();
             auto stream_index = static_cast<uint32_t>(frame_holder_ptr->frame->get_stream()->get_stream_index());
-            m_ros_writer->write_frame({ device_index, static_cast<uint32_t>(sensor_index), stream_type, stream_index }, capture_time, std::move(*frame_holder_ptr));
-            //TODO: restore: std::lock_guard<std::mutex> locker(m_mutex);  m_cached_data_size -= data_size;
+            auto start = std::chrono::steady_clock::now();
+            m_ros_writer->write_frame({ device_index, static_cast<uint32_t>(sensor_index), stream_type, stream_index }, to_file_time(capture_time), std::move(*frame_holder_ptr));
+            m_write_time_ns += std::chrono::duration_cast<std::chrono::nanoseconds>(std::chrono::steady_clock::now() - start).count();
+            m_bytes_written += data_size;
+            m_frames_written++;
         }
         catch(std::exception& e)
         {
             on_error( std::string( "Failed to write frame. " ) + e.what() );
         }
+        release_pending(data_size);
     });
 }
 
+bool librealsense::record_device::reserve_pending(uint64_t data_size)
+{
+    std::unique_lock<std::mutex> lock(m_budget_mutex);
+    if (m_pending_stopped)
+        return false;
+    // an empty queue always takes the frame, so a budget smaller than a frame still records
+    auto fits = [&]() { return m_frames_pending == 0 || m_bytes_pending + data_size <= m_max_pending_bytes; };
+    if (!fits())
+    {
+        if (m_overflow_policy != RS2_RECORD_OVERFLOW_POLICY_BLOCK)
+        {
+            m_frames_dropped++;
+            LOG_WARNING("Recorder reached its write budget, frame dropped");
+            return false;
+        }
+        m_budget_waiters++;
+        m_budget_cv.wait(lock, [&]() { return m_pending_stopped || fits(); });
+        m_budget_waiters--;
+        if (m_pending_stopped)
+        {
+            m_budget_cv.notify_all();
+            return false;
+        }
+    }
+    m_frames_pending++;
+    m_bytes_pending += data_size;
+    m_max_bytes_pending = std::max(m_max_bytes_pending, m_bytes_pending);
+    return true;
+}
+
+void librealsense::record_device::release_pending(uint64_t data_size)
+{
+    {
+        std::lock_guard<std::mutex> lock(m_budget_mutex);
+        m_frames_pending--;
+        m_bytes_pending -= data_size;
+    }
+    m_budget_cv.notify_all();
+}
+
+void librealsense::record_device::stop_pending()
+{
+    std::unique_lock<std::mutex> lock(m_budget_mutex);
+    m_pending_stopped = true;
+    m_budget_cv.notify_all();
+    // the waiters still use the budget members, wait until they left
+    m_budget_cv.wait(lock, [&]() { return m_budget_waiters == 0; });
+}
+
+void librealsense::record_device::set_write_budget(uint64_t max_pending_bytes, rs2_record_overflow_policy policy)
+{
+    {
+        std::lock_guard<std::mutex> lock(m_budget_mutex);
+        m_max_pending_bytes = max_pending_bytes;
+        m_overflow_policy = policy;
+    }
+    m_budget_cv.notify_all();
+}
+
+rs2_record_write_stats librealsense::record_device::get_write_stats() const
+{
+    rs2_record_write_stats rv;
+    {
+        std::lock_guard<std::mutex> lock(m_budget_mutex);
+        rv.frames_pending = m_frames_pending;
+        rv.bytes_pending = m_bytes_pending;
+        rv.max_bytes_pending = m_max_bytes_pending;
+    }
+    rv.frames_written = m_frames_written;
+    rv.bytes_written = m_bytes_written;
+    rv.write_time_ns = m_write_time_ns;
+    rv.frames_dropped = m_frames_dropped;
+    return rv;
+}
+
 const std::string& librealsense::record_device::get_info(rs2_camera_info info) const
 {
     return m_device->get_info(info);
@@ -277,7 +377,7 @@ void librealsense::record_device::write_device_extension_changes(const T& ext)
         try
         {
             const uint32_t device_index = 0;
-            m_ros_writer->write_snapshot(device_index, capture_time, TypeToExtension<T>::value, ext_snapshot);
+            m_ros_writer->write_snapshot(device_index, to_file_time(capture_time), TypeToExtension<T>::value, ext_snapshot);
         }
         catch (const std::exception& e)
         {
@@ -297,7 +397,7 @@ void record_device::write_sensor_extension_snapshot(size_t sensor_index,
         try
         {
             const uint32_t device_index = 0;
-            m_ros_writer->write_snapshot({ device_index, static_cast<uint32_t>(sensor_index) }, capture_time, ext, snapshot);
+            m_ros_writer->write_snapshot({ device_index, static_cast<uint32_t>(sensor_index) }, to_file_time(capture_time), ext, snapshot);
         }
         catch (const std::exception& e)
         {
@@ -314,7 +414,7 @@ void librealsense::record_device::write_notification(size_t sensor_index, const
         try
         {
             const uint32_t device_index = 0;
-            m_ros_writer->write_notification({ device_index, static_cast<uint32_t>(sensor_index) }, capture_time, n);
+            m_ros_writer->write_notification({ device_index, static_cast<uint32_t>(sensor_index) }, to_file_time(capture_time), n);
         }
         catch (const std::exception& e)
         {
@@ -429,8 +529,63 @@ void librealsense::record_device::resume_recording()
     });
 }
 
+void librealsense::record_device::switch_writer(std::shared_ptr<device_serializer::writer> writer)
+{
+    if (writer == nullptr)
+    {
+        throw invalid_value_exception("serializer is null");
+    }
+
+    LOG_INFO("Record switch file called");
+    // outlives this call if the flush below times out
+    auto error = std::make_shared<std::exception_ptr>();
+    (*m_write_thread)->invoke([this, writer, error](dispatcher::cancellable_timer c)
+    {
+        // While paused the recording time keeps running until resume, the new file starts at the time of the pause
+        auto file_time_base = get_capture_time();
+        if (m_is_recording == false)
+        {
+            file_time_base -= std::chrono::high_resolution_clock::now() - m_time_of_pause;
+        }
+        m_file_time_base = std::max(file_time_base, std::chrono::nanoseconds::zero());
+
+        // The previous writer finalizes its file when released, after everything queued before the switch was written to it
+        std::shared_ptr<device_serializer::writer> previous;
+        {
+            std::lock_guard<std::mutex> lock(m_writer_mutex);
+            previous = m_ros_writer;
+            m_ros_writer = writer;
+        }
+        previous.reset();
+
+        // Until the first frame arrives the header is not written, the first frame writes it to the new file
+        if (m_header_written)
+        {
+            try
+            {
+                write_header();
+            }
+            catch (...)
+            {
+                *error = std::current_exception();
+            }
+        }
+        LOG_DEBUG("Record file switched to " << writer->get_file_name());
+    });
+    if ((*m_write_thread)->flush() == false)
+    {
+        throw io_exception("Timeout waiting for the recording file switch");
+    }
+    if (*error)
+    {
+        std::rethrow_exception(*error);
+    }
+    LOG_INFO("Record file switched");
+}
+
 const std::string& librealsense::record_device::get_filename() const
 {
+    std::lock_guard<std::mutex> lock(m_writer_mutex);
     return m_ros_writer->get_file_name();
 }
 std::shared_ptr< const device_info > record_device::get_device_info() const
@@ -446,7 +601,6 @@ void record_device::initialize_recording()
 {
     //Expected to be called once when recording to file actually starts
     m_capture_time_base = std::chrono::high_resolution_clock::now();
-    m_cached_data_size = 0;
     LOG_DEBUG( "Recording capture time base set to: " << m_capture_time_base.time_since_epoch().count() );
 
 }
@@ -11,6 +11,9 @@
 #include "record_sensor.h"
 #include <rsutils/concurrency/concurrency.h>
 #include <rsutils/lazy.h>
+#include <librealsense2/h/rs_record_playback.h>
+#include <atomic>
+#include <condition_variable>
 
 
 namespace librealsense
@@ -20,7 +23,7 @@ namespace librealsense
                           public info_container
     {
     public:
-        static const uint64_t MAX_CACHED_DATA_SIZE = 1920 * 1080 * 4 * 30; // ~1 sec of HD video @ 30 FPS
+        static const uint64_t MAX_CACHED_DATA_SIZE = 1920 * 1080 * 4 * 30; // ~1 sec of HD video @ 30 FPS, default write budget
 
         record_device(std::shared_ptr<device_interface> device, std::shared_ptr<device_serializer::writer> serializer);
         virtual ~record_device();
@@ -40,7 +43,13 @@ namespace librealsense
 
         void pause_recording();
         void resume_recording();
+        // Finishes the current file and continues the recording in the given writer, without stopping the sensors.
+        // The new file starts with the device description and its timestamps start at the time of the switch.
+        void switch_writer(std::shared_ptr<device_serializer::writer> writer);
+        // valid until the next call to switch_writer
         const std::string& get_filename() const;
+        void set_write_budget(uint64_t max_pending_bytes, rs2_record_overflow_policy policy);
+        rs2_record_write_stats get_write_stats() const;
         std::shared_ptr< const device_info > get_device_info() const override;
         std::pair<uint32_t, rs2_extrinsics> get_extrinsics(const stream_interface& stream) const override;
         bool is_valid() const override;
@@ -56,7 +65,11 @@ namespace librealsense
 
         void write_header();
         std::chrono::nanoseconds get_capture_time() const;
+        std::chrono::nanoseconds to_file_time(std::chrono::nanoseconds capture_time) const;
         void write_data(size_t sensor_index, frame_holder f, std::function<void(std::string const&)> on_error);
+        bool reserve_pending(uint64_t data_size);
+        void release_pending(uint64_t data_size);
+        void stop_pending();
         void write_sensor_extension_snapshot(size_t sensor_index, rs2_extension ext, std::shared_ptr<extension_snapshot> snapshot, std::function<void(std::string const&)> on_error);
         void write_notification(size_t sensor_index, const notification& n);
         std::vector<std::shared_ptr<record_sensor>> create_record_sensors(std::shared_ptr<device_interface> m_device);
@@ -66,7 +79,11 @@ namespace librealsense
         std::vector<std::shared_ptr<record_sensor>> m_sensors;
 
         rsutils::lazy< std::shared_ptr< dispatcher > > m_write_thread;
+        // replaced on m_write_thread only, m_writer_mutex guards the readers on other threads
         std::shared_ptr<device_serializer::writer> m_ros_writer;
+        mutable std::mutex m_writer_mutex;
+        std::chrono::nanoseconds m_file_time_base;
+        bool m_header_written;
 
         std::chrono::high_resolution_clock::time_point m_capture_time_base;
         std::chrono::high_resolution_clock::duration m_record_total_pause_duration;
@@ -74,8 +91,21 @@ namespace librealsense
 
         std::mutex m_mutex;
         bool m_is_recording;
-        std::once_flag m_first_frame_flag;
-        uint64_t m_cached_data_size;
+
+        // frames waiting in m_write_thread are bounded by the write budget
+        mutable std::mutex m_budget_mutex;
+        std::condition_variable m_budget_cv;
+        uint64_t m_max_pending_bytes;
+        rs2_record_overflow_policy m_overflow_policy;
+        bool m_pending_stopped;
+        int m_budget_waiters;
+        uint64_t m_frames_pending;
+        uint64_t m_bytes_pending;
+        uint64_t m_max_bytes_pending;
+        std::atomic<uint64_t> m_frames_written;
+        std::atomic<uint64_t> m_bytes_written;
+        std::atomic<uint64_t> m_write_time_ns;
+        std::atomic<uint64_t> m_frames_dropped;
         std::once_flag m_first_call_flag;
         void initialize_recording();
     };
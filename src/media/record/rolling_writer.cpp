@@ -0,0 +1,193 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2021 Intel Corporation. All Rights Reserved.
+
+#include "rolling_writer.h"
+#include "media/ros/ros_writer.h"
+#include <core/stream-profile-interface.h>
+
+#include <algorithm>
+#include <cstdio>
+#include <iomanip>
+#include <limits>
+#include <sstream>
+
+#ifndef _WIN32
+#include <fcntl.h>
+#include <unistd.h>
+#endif
+
+namespace librealsense
+{
+    using namespace device_serializer;
+
+    static void sync_file(const std::string& path)
+    {
+#ifndef _WIN32
+        int fd = ::open(path.c_str(), O_RDONLY);
+        if (fd < 0)
+        {
+            LOG_WARNING("Failed to open recording segment " << path << " for sync");
+            return;
+        }
+        if (::fsync(fd) != 0)
+            LOG_WARNING("Failed to sync recording segment " << path);
+        ::close(fd);
+#endif
+    }
+
+    rolling_writer::rolling_writer(const std::string& file, bool compress_while_record, const segment_options& options) :
+        m_file_name(file),
+        m_compress(compress_while_record),
+        m_options(options),
+        m_segment_index(0),
+        m_segment_base(0),
+        m_has_description(false),
+        m_finalizer(std::numeric_limits<unsigned int>::max())
+    {
+        const std::string extension = ".bag";
+        if (file.size() > extension.size() && file.compare(file.size() - extension.size(), extension.size(), extension) == 0)
+            m_file_stem = file.substr(0, file.size() - extension.size());
+        else
+            m_file_stem = file;
+
+        m_finalizer.start();
+        open_segment();
+    }
+
+    rolling_writer::~rolling_writer()
+    {
+        close_segment();
+        if (!m_finalizer.flush(std::chrono::seconds(30)))
+        {
+            LOG_ERROR("Timeout waiting for recording segments to be finalized");
+        }
+        m_finalizer.stop();
+    }
+
+    std::string rolling_writer::segment_path(uint32_t index) const
+    {
+        std::ostringstream ss;
+        ss << m_file_stem << "_" << std::setw(3) << std::setfill('0') << index << ".bag";
+        return ss.str();
+    }
+
+    void rolling_writer::open_segment()
+    {
+        auto path = segment_path(m_segment_index);
+        m_writer = std::make_shared<ros_writer>(path, m_compress);
+        m_finalizer.invoke([this, path](dispatcher::cancellable_timer)
+        {
+            m_segments.push_back(path);
+        }, true);
+        LOG_INFO("Recording to segment " << path);
+    }
+
+    void rolling_writer::close_segment()
+    {
+        if (!m_writer)
+            return;
+
+        // the bag index is written when the last reference to the writer is released, the holder makes
+        // sure this happens before the sync whichever copy of the action runs
+        auto path = m_writer->get_file_name();
+        auto holder = std::make_shared<std::shared_ptr<ros_writer>>(std::move(m_writer));
+        m_finalizer.invoke([this, holder, path](dispatcher::cancellable_timer)
+        {
+            holder->reset();
+            sync_file(path);
+
+            while (m_options.max_segments > 0 && m_segments.size() > m_options.max_segments)
+            {
+                auto oldest = m_segments.front();
+                m_segments.pop_front();
+                if (std::remove(oldest.c_str()) != 0)
+                    LOG_WARNING("Failed to remove recording segment " << oldest);
+                else
+                    LOG_INFO("Removed recording segment " << oldest);
+            }
+        }, true);
+    }
+
+    bool rolling_writer::should_roll(const nanoseconds& timestamp) const
+    {
+        if (m_options.max_segment_bytes > 0 && m_writer->get_bytes_written() >= m_options.max_segment_bytes)
+            return true;
+        if (m_options.max_segment_duration > nanoseconds::zero() && timestamp - m_segment_base >= m_options.max_segment_duration)
+            return true;
+        return false;
+    }
+
+    void rolling_writer::roll(const nanoseconds& timestamp)
+    {
+        close_segment();
+        m_segment_index++;
+        m_segment_base = timestamp;
+        open_segment();
+
+        // every segment carries the description and the current state of the device
+        if (m_has_description)
+            m_writer->write_device_description(m_description);
+        for (auto&& entry : m_snapshots)
+        {
+            auto index = std::get<0>(entry.first);
+            auto type = std::get<1>(entry.first);
+            auto device_index = entry.second.first;
+            if (index < 0)
+                m_writer->write_snapshot(device_index, nanoseconds::zero(), type, entry.second.second);
+            else
+                m_writer->write_snapshot({ device_index, static_cast<uint32_t>(index) }, nanoseconds::zero(), type, entry.second.second);
+        }
+    }
+
+    nanoseconds rolling_writer::to_segment_time(const nanoseconds& timestamp) const
+    {
+        if (timestamp == get_static_file_info_timestamp())
+            return timestamp;
+        return std::max(timestamp - m_segment_base, nanoseconds::zero());
+    }
+
+    rolling_writer::snapshot_key rolling_writer::make_key(int64_t index, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot)
+    {
+        // a sensor holds one snapshot per stream profile, keep all of them
+        auto profile = As<stream_profile_interface>(snapshot);
+        if (profile)
+            return snapshot_key(index, type, profile->get_stream_type(), profile->get_stream_index());
+        return snapshot_key(index, type, -1, -1);
+    }
+
+    void rolling_writer::write_device_description(const device_snapshot& device_description)
+    {
+        m_description = device_description;
+        m_has_description = true;
+        m_writer->write_device_description(device_description);
+    }
+
+    void rolling_writer::write_frame(const stream_identifier& stream_id, const nanoseconds& timestamp, frame_holder&& frame)
+    {
+        if (should_roll(timestamp))
+            roll(timestamp);
+        m_writer->write_frame(stream_id, to_segment_time(timestamp), std::move(frame));
+    }
+
+    void rolling_writer::write_snapshot(uint32_t device_index, const nanoseconds& timestamp, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot)
+    {
+        m_snapshots[make_key(-1, type, snapshot)] = { device_index, snapshot };
+        m_writer->write_snapshot(device_index, to_segment_time(timestamp), type, snapshot);
+    }
+
+    void rolling_writer::write_snapshot(const sensor_identifier& sensor_id, const nanoseconds& timestamp, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot)
+    {
+        m_snapshots[make_key(sensor_id.sensor_index, type, snapshot)] = { sensor_id.device_index, snapshot };
+        m_writer->write_snapshot(sensor_id, to_segment_time(timestamp), type, snapshot);
+    }
+
+    void rolling_writer::write_notification(const sensor_identifier& sensor_id, const nanoseconds& timestamp, const notification& n)
+    {
+        m_writer->write_notification(sensor_id, to_segment_time(timestamp), n);
+    }
+
+    const std::string& rolling_writer::get_file_name() const
+    {
+        return m_file_name;
+    }
+}
@@ -0,0 +1,73 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2021 Intel Corporation. All Rights Reserved.
+
+#pragma once
+
+#include <core/serialization.h>
+#include <rsutils/concurrency/concurrency.h>
+
+#include <deque>
+#include <map>
+#include <tuple>
+
+namespace librealsense
+{
+    class ros_writer;
+
+    struct segment_options
+    {
+        uint64_t max_segment_bytes = 0;                                      // 0 means no size limit
+        device_serializer::nanoseconds max_segment_duration{ 0 };            // 0 means no duration limit
+        uint32_t max_segments = 0;                                           // finished segments to keep, 0 keeps all
+    };
+
+    // Writes a recording as a series of <name>_NNN.bag files. A segment is closed once it reaches the
+    // configured size or duration, and the next one starts with a copy of the device description and
+    // the latest sensor snapshots so every segment can be played on its own.
+    // Closed segments are finalized, synced to storage and pruned on a background thread,
+    // so the recording thread never waits for the disk on a rollover.
+    class rolling_writer : public device_serializer::writer
+    {
+    public:
+        rolling_writer(const std::string& file, bool compress_while_record, const segment_options& options);
+        ~rolling_writer() override;
+
+        void write_device_description(const device_snapshot& device_description) override;
+        void write_frame(const device_serializer::stream_identifier& stream_id, const device_serializer::nanoseconds& timestamp, frame_holder&& frame) override;
+        void write_snapshot(uint32_t device_index, const device_serializer::nanoseconds& timestamp, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot) override;
+        void write_snapshot(const device_serializer::sensor_identifier& sensor_id, const device_serializer::nanoseconds& timestamp, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot) override;
+        void write_notification(const device_serializer::sensor_identifier& sensor_id, const device_serializer::nanoseconds& timestamp, const notification& n) override;
+
+        // The name the segment names are derived from, e.g. "capture.bag" for "capture_000.bag"
+        const std::string& get_file_name() const override;
+
+    private:
+        // device index or sensor index (-1 for device snapshots), extension, stream type and stream index
+        using snapshot_key = std::tuple<int64_t, rs2_extension, int, int>;
+
+        std::string segment_path(uint32_t index) const;
+        bool should_roll(const device_serializer::nanoseconds& timestamp) const;
+        void roll(const device_serializer::nanoseconds& timestamp);
+        void open_segment();
+        void close_segment();
+        device_serializer::nanoseconds to_segment_time(const device_serializer::nanoseconds& timestamp) const;
+        static snapshot_key make_key(int64_t index, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot);
+
+        std::string m_file_name;
+        std::string m_file_stem;
+        bool m_compress;
+        segment_options m_options;
+
+        std::shared_ptr<ros_writer> m_writer;
+        uint32_t m_segment_index;
+        device_serializer::nanoseconds m_segment_base;
+
+        bool m_has_description;
+        device_snapshot m_description;
+        std::map<snapshot_key, std::pair<uint32_t, std::shared_ptr<extension_snapshot>>> m_snapshots;
+
+        // touched by the finalizer thread only, after construction
+        std::deque<std::string> m_segments;
+        dispatcher m_finalizer;
+    };
+}
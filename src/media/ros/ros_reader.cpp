@@ -144,6 +144,91 @@ namespace librealsense
         }
         return result;
     }
+    ros_file_info ros_reader::read_file_info(const std::string& file, bool read_thumbnail)
+    {
+        ros_file_info info;
+        try
+        {
+            // only the index and connection records are read, plus the messages of the info topics and, for the
+            // thumbnail, one frame
+            rosbag::Bag bag;
+            bag.open(file, rosbag::BagMode::Read);
+            auto version = read_file_version(bag);
+            if (version == legacy_file_format::file_version())
+                throw invalid_value_exception("Legacy file format is not supported");
+
+            info.duration = get_file_duration(bag, version);
+
+            rosbag::View stream_infos_view(bag, RegexTopicQuery(R"RRR(/device_\d+/sensor_\d+/(\w)+_(\d)+/info)RRR"));
+            for (auto infos_view : stream_infos_view)
+            {
+                if (infos_view.isType<realsense_msgs::StreamInfo>() == false)
+                    continue;
+
+                ros_file_info::stream_info stream{};
+                stream.id = ros_topic::get_stream_identifier(infos_view.getTopic());
+                auto stream_info_msg = instantiate_msg<realsense_msgs::StreamInfo>(infos_view);
+                stream.fps = stream_info_msg->fps;
+                stream.format = RS2_FORMAT_ANY;
+                convert(stream_info_msg->encoding, stream.format);
+
+                rosbag::View video_stream_infos_view(bag, rosbag::TopicQuery(ros_topic::video_stream_info_topic(stream.id)));
+                if (video_stream_infos_view.size() > 0)
+                {
+                    auto video_stream_msg = instantiate_msg<sensor_msgs::CameraInfo>(*video_stream_infos_view.begin());
+                    stream.width = video_stream_msg->width;
+                    stream.height = video_stream_msg->height;
+                }
+
+                rosbag::View frames_view(bag, StreamQuery(stream.id));
+                stream.frame_count = frames_view.size();
+                if (stream.frame_count > 0)
+                {
+                    stream.first_frame_time = nanoseconds(frames_view.getBeginTime().toNSec());
+                    stream.last_frame_time = nanoseconds(frames_view.getEndTime().toNSec());
+                }
+                info.streams.push_back(stream);
+            }
+
+            if (!read_thumbnail)
+                return info;
+
+            int best_rank = 0;
+            for (size_t i = 0; i < info.streams.size(); i++)
+            {
+                auto&& stream = info.streams[i];
+                if (stream.frame_count == 0 || stream.width == 0)
+                    continue;
+                int rank = stream.id.stream_type == RS2_STREAM_COLOR ? 3 : stream.id.stream_type == RS2_STREAM_DEPTH ? 2 : 1;
+                if (rank > best_rank)
+                {
+                    best_rank = rank;
+                    info.thumbnail_stream = static_cast<int>(i);
+                }
+            }
+
+            if (info.thumbnail_stream >= 0)
+            {
+                auto&& stream = info.streams[info.thumbnail_stream];
+                rosbag::View thumbnail_view(bag, rosbag::TopicQuery(ros_topic::frame_data_topic(stream.id)));
+                if (thumbnail_view.size() > 0)
+                {
+                    auto image = instantiate_msg<sensor_msgs::Image>(*thumbnail_view.begin());
+                    info.thumbnail = image->data;
+                }
+                else
+                {
+                    info.thumbnail_stream = -1;
+                }
+            }
+        }
+        catch (const std::exception& e)
+        {
+            throw io_exception( rsutils::string::from() << "Failed to read file info: " << e.what() );
+        }
+        return info;
+    }
+
     nanoseconds ros_reader::query_duration() const
     {
         return m_total_duration;
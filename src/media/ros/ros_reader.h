@@ -21,9 +21,32 @@ namespace librealsense
     class processing_block_interface;
     class recommended_proccesing_blocks_snapshot;
 
+    // Summary of a recording that is read from the bag index, without decoding the frames
+    struct ros_file_info
+    {
+        struct stream_info
+        {
+            device_serializer::stream_identifier id;
+            rs2_format format;
+            uint32_t fps;
+            uint32_t width;
+            uint32_t height;
+            uint64_t frame_count;
+            nanoseconds first_frame_time;
+            nanoseconds last_frame_time;
+        };
+
+        nanoseconds duration;
+        std::vector<stream_info> streams;
+        int thumbnail_stream = -1; // index into streams of the stream the thumbnail was taken from
+        std::vector<uint8_t> thumbnail;
+    };
+
     class ros_reader: public device_serializer::reader
     {
     public:
+        static ros_file_info read_file_info(const std::string& file, bool read_thumbnail);
+
         ros_reader(const std::string& file, const std::shared_ptr<context>& ctx);
         device_snapshot query_device_description(const nanoseconds& time) override;
         std::shared_ptr<serialized_data> read_next_data() override;
@@ -21,10 +21,11 @@ namespace librealsense
 {
     using namespace device_serializer;
 
-    ros_writer::ros_writer(const std::string& file, bool compress_while_record) : m_file_path(file)
+    ros_writer::ros_writer(const std::string& file, bool compress_while_record) : m_file_path(file), m_bytes_written(0)
     {
         LOG_INFO("Compression while record is set to " << (compress_while_record ? "ON" : "OFF"));
         m_bag.open(file, rosbag::BagMode::Write);
+        m_bag.setChunkThreshold(CHUNK_THRESHOLD);
         if (compress_while_record)
         {
             m_bag.setCompression(rosbag::CompressionType::LZ4);
@@ -84,6 +85,11 @@ namespace librealsense
         return m_file_path;
     }
 
+    uint64_t ros_writer::get_bytes_written() const
+    {
+        return m_bytes_written;
+    }
+
     void ros_writer::write_file_version()
     {
         std_msgs::UInt32 msg;
@@ -17,19 +17,27 @@ namespace librealsense
     class ros_writer: public writer
     {
     public:
+        // messages are buffered into chunks of this size before they are written (and compressed) as one block,
+        // larger than the rosbag default so a 848x480 depth + color frame pair does not span several writes
+        static const uint32_t CHUNK_THRESHOLD = 4 * 1024 * 1024;
+
         explicit ros_writer(const std::string& file, bool compress_while_record);
         void write_device_description(const librealsense::device_snapshot& device_description) override;
         void write_frame(const stream_identifier& stream_id, const nanoseconds& timestamp, frame_holder&& frame) override;
         void write_snapshot(uint32_t device_index, const nanoseconds& timestamp, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot) override;
         void write_snapshot(const sensor_identifier& sensor_id, const nanoseconds& timestamp, rs2_extension type, const std::shared_ptr<extension_snapshot>& snapshot) override;
         const std::string& get_file_name() const override;
+        void write_notification(const sensor_identifier& sensor_id, const nanoseconds& timestamp, const notification& n) override;
+        // message bytes written to the bag so far, including the data still buffered in the open chunk.
+        // The bag only updates its own size when a message is added and knows nothing of the chunk buffer,
+        // so the writer counts the serialized messages itself. Compression is not taken into account.
+        uint64_t get_bytes_written() const;
 
     private:
         void write_file_version();
         void write_frame_metadata(const stream_identifier& stream_id, const nanoseconds& timestamp, frame_interface* frame);
         void write_extrinsics(const stream_identifier& stream_id, frame_interface* frame);
         realsense_msgs::Notification to_notification_msg(const notification& n);
-        void write_notification(const sensor_identifier& sensor_id, const nanoseconds& timestamp, const notification& n) override;
         void write_additional_frame_messages(const stream_identifier& stream_id, const nanoseconds& timestamp, frame_interface* frame);
         void write_video_frame(const stream_identifier& stream_id, const nanoseconds& timestamp, frame_holder&& frame);
         void write_motion_frame(const stream_identifier& stream_id, const nanoseconds& timestamp, frame_holder&& frame);
@@ -68,6 +76,7 @@ namespace librealsense
             try
             {
                 m_bag.write(topic, to_rostime(time), msg);
+                m_bytes_written += rs2rosinternal::serialization::serializationLength(msg);
                 LOG_DEBUG("Recorded: \"" << topic << "\" . TS: " << time.count());
             }
             catch (rosbag::BagIOException& e)
@@ -81,6 +90,7 @@ namespace librealsense
         std::map<stream_identifier, geometry_msgs::Transform> m_extrinsics_msgs;
         std::string m_file_path;
         rosbag::Bag m_bag;
+        uint64_t m_bytes_written;
         std::map<uint32_t, std::set<rs2_option>> m_written_options_descriptions;
     };
 }
@@ -55,7 +55,7 @@ namespace librealsense
             _playback_loop = repeat_playback;
         }
 
-        void config::enable_record_to_file(const std::string& file)
+        void config::enable_record_to_file(const std::string& file, const segment_options& segments)
         {
             std::lock_guard<std::mutex> lock(_mtx);
             if (!_device_request.filename.empty())
@@ -64,6 +64,7 @@ namespace librealsense
             }
             _resolved_profile.reset();
             _device_request.record_output = file;
+            _device_request.record_segments = segments;
         }
 
         std::shared_ptr<profile> config::get_cached_resolved_profile()
@@ -154,7 +155,7 @@ namespace librealsense
                     profiles.insert(profiles.end(), p.begin(), p.end());
                 }
                 filtered_config = filter_stream_requests(profiles);
-                return std::make_shared<profile>(dev, filtered_config, _device_request.record_output);
+                return std::make_shared<profile>(dev, filtered_config, _device_request.record_output, _device_request.record_segments);
             }
 
             //If the user did not request anything, give it the default, on playback all recorded streams are marked as default.
@@ -162,7 +163,7 @@ namespace librealsense
             {
                 auto default_profiles = get_default_configuration(dev);
                 filtered_config = filter_stream_requests(default_profiles);
-                return std::make_shared<profile>(dev, filtered_config, _device_request.record_output);
+                return std::make_shared<profile>(dev, filtered_config, _device_request.record_output, _device_request.record_segments);
             }
 
             //Enabled requested streams
@@ -182,7 +183,7 @@ namespace librealsense
                 if (disable_stream) continue;
                 config.enable_stream(r.stream, r.index, r.width, r.height, r.format, r.fps);
             }
-            return std::make_shared<profile>(dev, config, _device_request.record_output);
+            return std::make_shared<profile>(dev, config, _device_request.record_output, _device_request.record_segments);
         }
 
         std::shared_ptr<profile> config::resolve(std::shared_ptr<pipeline> pipe, const std::chrono::milliseconds& timeout)
@@ -7,6 +7,7 @@
 #include <utility>
 
 #include "resolver.h"
+#include "media/record/rolling_writer.h"
 
 namespace librealsense
 {
@@ -23,7 +24,7 @@ namespace librealsense
             void enable_all_stream();
             void enable_device(const std::string& serial);
             void enable_device_from_file(const std::string& file, bool repeat_playback);
-            void enable_record_to_file(const std::string& file);
+            void enable_record_to_file(const std::string& file, const segment_options& segments = {});
             void disable_stream(rs2_stream stream, int index = -1);
             void disable_all_streams();
             std::shared_ptr<profile> resolve(std::shared_ptr<pipeline> pipe, const std::chrono::milliseconds& timeout = std::chrono::milliseconds(0));
@@ -48,6 +49,7 @@ namespace librealsense
                 std::string serial;
                 std::string filename;
                 std::string record_output;
+                segment_options record_segments;
             };
             std::shared_ptr<device_interface> get_or_add_playback_device(std::shared_ptr<context> ctx, const std::string& file);
             std::shared_ptr<device_interface> resolve_device_requests(std::shared_ptr<pipeline> pipe, const std::chrono::milliseconds& timeout);
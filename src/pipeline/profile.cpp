@@ -11,7 +11,8 @@ namespace librealsense
     {
         profile::profile(std::shared_ptr<device_interface> dev,
             util::config config,
-            const std::string& to_file) :
+            const std::string& to_file,
+            const segment_options& segments) :
             _dev(dev), _to_file(to_file)
         {
             if (!to_file.empty())
@@ -19,7 +20,12 @@ namespace librealsense
                 if (!dev)
                     throw librealsense::invalid_value_exception("Failed to create a profile, device is null");
 
-                _dev = std::make_shared<record_device>(dev, std::make_shared<ros_writer>(to_file, dev->compress_while_record()));
+                std::shared_ptr<device_serializer::writer> writer;
+                if (segments.max_segment_bytes > 0 || segments.max_segment_duration > device_serializer::nanoseconds::zero())
+                    writer = std::make_shared<rolling_writer>(to_file, dev->compress_while_record(), segments);
+                else
+                    writer = std::make_shared<ros_writer>(to_file, dev->compress_while_record());
+                _dev = std::make_shared<record_device>(dev, writer);
             }
             _multistream = config.resolve(_dev.get());
         }
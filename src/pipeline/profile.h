@@ -4,6 +4,7 @@
 #pragma once
 
 #include "resolver.h"
+#include "media/record/rolling_writer.h"
 
 namespace librealsense
 {
@@ -12,7 +13,8 @@ namespace librealsense
         class profile
         {
         public:
-            profile(std::shared_ptr<device_interface> dev, util::config config, const std::string& file = "");
+            profile(std::shared_ptr<device_interface> dev, util::config config, const std::string& file = "",
+                    const segment_options& segments = {});
             std::shared_ptr<device_interface> get_device();
             stream_profiles get_active_streams() const;
             util::config::multistream _multistream;
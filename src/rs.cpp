@@ -224,6 +224,11 @@ struct rs2_firmware_log_parsed_message
     std::shared_ptr<librealsense::fw_logs::fw_log_data> firmware_log_parsed;
 };
 
+struct rs2_bag_info
+{
+    librealsense::ros_file_info info;
+};
+
 struct rs2_error
 {
     std::string message;
@@ -2056,6 +2061,68 @@ void rs2_playback_device_stop(const rs2_device* device, rs2_error** error) BEGIN
 }
 HANDLE_EXCEPTIONS_AND_RETURN(, device)
 
+rs2_bag_info* rs2_create_bag_info(const char* file, int read_thumbnail, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(file);
+    return new rs2_bag_info{ librealsense::ros_reader::read_file_info(file, read_thumbnail != 0) };
+}
+HANDLE_EXCEPTIONS_AND_RETURN(nullptr, file, read_thumbnail)
+
+void rs2_delete_bag_info(rs2_bag_info* info) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(info);
+    delete info;
+}
+NOEXCEPT_RETURN(, info)
+
+unsigned long long rs2_bag_info_get_duration(const rs2_bag_info* info, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(info);
+    return info->info.duration.count();
+}
+HANDLE_EXCEPTIONS_AND_RETURN(0, info)
+
+int rs2_bag_info_get_streams_count(const rs2_bag_info* info, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(info);
+    return static_cast<int>(info->info.streams.size());
+}
+HANDLE_EXCEPTIONS_AND_RETURN(0, info)
+
+void rs2_bag_info_get_stream(const rs2_bag_info* info, int index, rs2_bag_stream_info* stream, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(info);
+    VALIDATE_NOT_NULL(stream);
+    VALIDATE_RANGE(index, 0, (int)info->info.streams.size() - 1);
+    auto&& s = info->info.streams[index];
+    stream->stream = s.id.stream_type;
+    stream->index = static_cast<int>(s.id.stream_index);
+    stream->format = s.format;
+    stream->width = static_cast<int>(s.width);
+    stream->height = static_cast<int>(s.height);
+    stream->fps = static_cast<int>(s.fps);
+    stream->frame_count = s.frame_count;
+    stream->first_frame_ns = s.first_frame_time.count();
+    stream->last_frame_ns = s.last_frame_time.count();
+}
+HANDLE_EXCEPTIONS_AND_RETURN(, info, index, stream)
+
+int rs2_bag_info_get_thumbnail_stream(const rs2_bag_info* info, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(info);
+    return info->info.thumbnail_stream;
+}
+HANDLE_EXCEPTIONS_AND_RETURN(-1, info)
+
+const void* rs2_bag_info_get_thumbnail_data(const rs2_bag_info* info, int* size, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(info);
+    VALIDATE_NOT_NULL(size);
+    *size = static_cast<int>(info->info.thumbnail.size());
+    return info->info.thumbnail.empty() ? nullptr : info->info.thumbnail.data();
+}
+HANDLE_EXCEPTIONS_AND_RETURN(nullptr, info, size)
+
 rs2_device* rs2_create_record_device(const rs2_device* device, const char* file, rs2_error** error) BEGIN_API_CALL
 {
     VALIDATE_NOT_NULL(device);
@@ -2093,6 +2160,15 @@ void rs2_record_device_resume(const rs2_device* device, rs2_error** error) BEGIN
 }
 HANDLE_EXCEPTIONS_AND_RETURN(, device)
 
+void rs2_record_device_switch_file(const rs2_device* device, const char* file, int compression_enabled, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(device);
+    VALIDATE_NOT_NULL(file);
+    auto record_device = VALIDATE_INTERFACE(device->device, librealsense::record_device);
+    record_device->switch_writer(std::make_shared<ros_writer>(file, compression_enabled != 0));
+}
+HANDLE_EXCEPTIONS_AND_RETURN(, device, file, compression_enabled)
+
 const char* rs2_record_device_filename(const rs2_device* device, rs2_error** error) BEGIN_API_CALL
 {
     VALIDATE_NOT_NULL(device);
@@ -2101,6 +2177,24 @@ const char* rs2_record_device_filename(const rs2_device* device, rs2_error** err
 }
 HANDLE_EXCEPTIONS_AND_RETURN(nullptr, device)
 
+void rs2_record_device_set_write_budget(const rs2_device* device, unsigned long long max_pending_bytes, rs2_record_overflow_policy policy, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(device);
+    VALIDATE_RANGE(policy, 0, RS2_RECORD_OVERFLOW_POLICY_COUNT - 1);
+    auto record_device = VALIDATE_INTERFACE(device->device, librealsense::record_device);
+    record_device->set_write_budget(max_pending_bytes, policy);
+}
+HANDLE_EXCEPTIONS_AND_RETURN(, device, max_pending_bytes, policy)
+
+void rs2_record_device_get_write_stats(const rs2_device* device, rs2_record_write_stats* stats, rs2_error** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(device);
+    VALIDATE_NOT_NULL(stats);
+    auto record_device = VALIDATE_INTERFACE(device->device, librealsense::record_device);
+    *stats = record_device->get_write_stats();
+}
+HANDLE_EXCEPTIONS_AND_RETURN(, device, stats)
+
 
 rs2_frame* rs2_allocate_synthetic_video_frame(rs2_source* source, const rs2_stream_profile* new_stream, rs2_frame* original,
     int new_bpp, int new_width, int new_height, int new_stride, rs2_extension frame_type, rs2_error** error) BEGIN_API_CALL
@@ -2395,6 +2489,20 @@ void rs2_config_enable_record_to_file(rs2_config* config, const char* file, rs2_
 }
 HANDLE_EXCEPTIONS_AND_RETURN(, config, file)
 
+void rs2_config_enable_record_to_file_segmented(rs2_config* config, const char* file, unsigned long long max_segment_bytes,
+    unsigned long long max_segment_duration_ms, unsigned int max_segments, rs2_error ** error) BEGIN_API_CALL
+{
+    VALIDATE_NOT_NULL(config);
+    VALIDATE_NOT_NULL(file);
+
+    segment_options segments;
+    segments.max_segment_bytes = max_segment_bytes;
+    segments.max_segment_duration = std::chrono::milliseconds(max_segment_duration_ms);
+    segments.max_segments = max_segments;
+    config->config->enable_record_to_file(file, segments);
+}
+HANDLE_EXCEPTIONS_AND_RETURN(, config, file, max_segment_bytes, max_segment_duration_ms, max_segments)
+
 void rs2_config_disable_stream(rs2_config* config, rs2_stream stream, rs2_error ** error) BEGIN_API_CALL
 {
     VALIDATE_NOT_NULL(config);
@@ -0,0 +1,118 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2026 Intel Corporation. All Rights Reserved.
+
+#pragma once
+
+#include <unit-tests/test.h>
+#include <librealsense2/rs.hpp>
+#include <librealsense2/hpp/rs_internal.hpp>
+
+#include <chrono>
+#include <cstdio>
+#include <fstream>
+#include <future>
+#include <mutex>
+#include <random>
+#include <string>
+#include <vector>
+
+
+// A software depth camera for recording tests, no device is required.
+// The pixels are noise, so compression does not shrink the recorded frames.
+class sw_depth_camera
+{
+public:
+    rs2::software_device device;
+    rs2::software_sensor sensor;
+    rs2::stream_profile profile;
+
+    sw_depth_camera( int width, int height, std::string const & serial = "123456" )
+        : sensor( device.add_sensor( "Depth" ) )
+        , _width( width )
+        , _pixels( width * height * 2 )
+    {
+        device.register_info( RS2_CAMERA_INFO_NAME, "Software Depth Camera" );
+        device.register_info( RS2_CAMERA_INFO_SERIAL_NUMBER, serial );
+        sensor.add_read_only_option( RS2_OPTION_DEPTH_UNITS, 0.001f );
+
+        rs2_intrinsics intrinsics = { width, height, width / 2.f, height / 2.f,
+                                      float( width ), float( height ),
+                                      RS2_DISTORTION_BROWN_CONRADY, { 0, 0, 0, 0, 0 } };
+        profile = sensor.add_video_stream( { RS2_STREAM_DEPTH, 0, 0, width, height, 30, 2, RS2_FORMAT_Z16, intrinsics },
+                                           true );
+
+        std::mt19937 rng( 0 );
+        for( auto & p : _pixels )
+            p = uint8_t( rng() );
+    }
+
+    size_t frame_size() const { return _pixels.size(); }
+    int frames_published() const { return _frame_number; }
+
+    // Frames are numbered from 1. The pixels are shared by all frames and outlive them.
+    void publish()
+    {
+        ++_frame_number;
+        sensor.on_video_frame( { _pixels.data(),
+                                 []( void * ) {},
+                                 _width * 2,
+                                 2,
+                                 double( _frame_number ),
+                                 RS2_TIMESTAMP_DOMAIN_HARDWARE_CLOCK,
+                                 _frame_number,
+                                 profile.get(),
+                                 0.001f } );
+    }
+
+private:
+    int _width;
+    std::vector< uint8_t > _pixels;
+    int _frame_number = 0;
+};
+
+
+inline bool file_exists( std::string const & path )
+{
+    return std::ifstream( path ).good();
+}
+
+
+// Plays a recording on its own, as fast as possible, and returns the numbers of its frames.
+// Fails if the file cannot be opened, e.g. when it was not finalized.
+inline std::vector< unsigned long long > play_frame_numbers( std::string const & file )
+{
+    rs2::context ctx( "{\"dds\":false}" );
+    rs2::playback playback = ctx.load_device( file );
+    playback.set_real_time( false );
+
+    std::promise< void > stopped;
+    auto done = stopped.get_future();
+    bool started = false;
+    std::mutex m;
+    playback.set_status_changed_callback( [&]( rs2_playback_status status ) {
+        std::lock_guard< std::mutex > lock( m );
+        if( status == RS2_PLAYBACK_STATUS_PLAYING )
+            started = true;
+        else if( status == RS2_PLAYBACK_STATUS_STOPPED && started )
+        {
+            started = false;
+            stopped.set_value();
+        }
+    } );
+
+    std::vector< unsigned long long > numbers;
+    auto sensors = playback.query_sensors();
+    REQUIRE( sensors.size() == 1 );
+    sensors[0].open( sensors[0].get_stream_profiles() );
+    sensors[0].start( [&]( rs2::frame f ) {
+        std::lock_guard< std::mutex > lock( m );
+        numbers.push_back( f.get_frame_number() );
+    } );
+    REQUIRE( done.wait_for( std::chrono::seconds( 10 ) ) == std::future_status::ready );
+    sensors[0].stop();
+    sensors[0].close();
+    ctx.unload_device( file );
+
+    std::lock_guard< std::mutex > lock( m );
+    return numbers;
+}
@@ -0,0 +1,127 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2026 Intel Corporation. All Rights Reserved.
+
+#include "sw-recording.h"
+
+#include <iomanip>
+#include <sstream>
+#include <thread>
+
+using namespace rs2;
+
+
+static std::string const SERIAL = "rolling-writer";
+
+static std::string segment_path( std::string const & stem, int index )
+{
+    std::ostringstream ss;
+    ss << stem << "_" << std::setw( 3 ) << std::setfill( '0' ) << index << ".bag";
+    return ss.str();
+}
+
+// Records the camera through a pipeline with a segmented recording, publish() is called once per frame.
+// The pipeline, and the writer with it, is released before returning.
+template< class T >
+static void record_segmented( sw_depth_camera & cam, std::string const & file, unsigned long long max_bytes,
+                              unsigned long long max_duration_ms, unsigned int max_segments, int frames, T publish )
+{
+    context ctx( "{\"dds\":false}" );
+    cam.device.add_to( ctx );
+
+    config cfg;
+    cfg.enable_device( SERIAL );
+    cfg.enable_record_to_file( file, max_bytes, max_duration_ms, max_segments );
+    pipeline pipe( ctx );
+    pipe.start( cfg, []( frame ) {} );
+    for( int i = 0; i < frames; ++i )
+        publish();
+    pipe.stop();
+}
+
+// Returns the indices of the segments found on disk, checks that each one plays back on its own
+// and that together they hold consecutive frames ending with the last one published.
+static std::vector< int > check_segments( std::string const & stem, int frames_published,
+                                          std::vector< unsigned long long > & all )
+{
+    std::vector< int > found;
+    for( int i = 0; i < 1000; ++i )
+    {
+        auto path = segment_path( stem, i );
+        if( ! file_exists( path ) )
+            continue;
+        found.push_back( i );
+
+        INFO( path );
+        auto numbers = play_frame_numbers( path );
+        CHECK( ! numbers.empty() );
+        for( size_t j = 1; j < numbers.size(); ++j )
+            CHECK( numbers[j] == numbers[j - 1] + 1 );
+        all.insert( all.end(), numbers.begin(), numbers.end() );
+    }
+    REQUIRE( ! all.empty() );
+    for( size_t j = 1; j < all.size(); ++j )
+        CHECK( all[j] == all[j - 1] + 1 );
+    // the segment written last is finalized when the writer is destroyed
+    CHECK( all.back() == (unsigned long long)frames_published );
+    return found;
+}
+
+static void remove_segments( std::string const & stem )
+{
+    for( int i = 0; i < 1000; ++i )
+        std::remove( segment_path( stem, i ).c_str() );
+}
+
+
+TEST_CASE( "segments roll by size and only the newest are kept", "[record]" )
+{
+    // VGA frames of noise do not compress, so a few frames fill a segment. The writer counts every
+    // message as it is added, chunks still buffered included, so a segment holds about three frames
+    std::string const stem = "test-rolling-writer-size";
+    unsigned int const max_segments = 3;
+    int const frames = 30;
+    sw_depth_camera cam( 640, 480, SERIAL );
+    remove_segments( stem );
+
+    record_segmented( cam, stem + ".bag", 3 * cam.frame_size(), 0, max_segments, frames, [&]() { cam.publish(); } );
+
+    std::vector< unsigned long long > numbers;
+    auto found = check_segments( stem, cam.frames_published(), numbers );
+    REQUIRE( ! found.empty() );
+    int last = found.back();
+    CAPTURE( last );
+    // several rolls happened, older segments were deleted and the newest ones kept
+    CHECK( last >= int( max_segments ) + 1 );
+    REQUIRE( found.size() == max_segments );
+    for( unsigned int i = 0; i < max_segments; ++i )
+        CHECK( found[i] == last - int( max_segments ) + 1 + int( i ) );
+    CHECK( ! file_exists( segment_path( stem, 0 ) ) );
+    CHECK( ! file_exists( stem + ".bag" ) );
+
+    remove_segments( stem );
+}
+
+TEST_CASE( "segments roll by duration and all are kept", "[record]" )
+{
+    std::string const stem = "test-rolling-writer-duration";
+    int const frames = 20;
+    sw_depth_camera cam( 64, 48, SERIAL );
+    remove_segments( stem );
+
+    // 20 frames 25ms apart make about 500ms of recording, so 100ms segments roll several times
+    record_segmented( cam, stem + ".bag", 0, 100, 0, frames, [&]() {
+        cam.publish();
+        std::this_thread::sleep_for( std::chrono::milliseconds( 25 ) );
+    } );
+
+    std::vector< unsigned long long > numbers;
+    auto found = check_segments( stem, cam.frames_published(), numbers );
+    CAPTURE( found.size() );
+    CHECK( found.size() >= 3 );
+    CHECK( numbers.size() == frames );
+    // with no retention limit nothing is deleted
+    for( size_t i = 0; i < found.size(); ++i )
+        CHECK( found[i] == int( i ) );
+
+    remove_segments( stem );
+}
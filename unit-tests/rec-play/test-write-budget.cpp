@@ -0,0 +1,79 @@
+// License: Apache 2.0. See LICENSE file in root directory.
+// Copyright(c) 2026 Intel Corporation. All Rights Reserved.
+
+#include "sw-recording.h"
+
+#include <thread>
+
+using namespace rs2;
+
+
+// Frames are injected back to back on the test thread, much faster than a VGA depth frame is written,
+// so a single frame budget is exhausted most of the time
+static int const WIDTH = 640;
+static int const HEIGHT = 480;
+static int const FRAMES = 100;
+
+// Waits until the writer emptied its queue, the counters are final then
+static rs2_record_write_stats drain( recorder const & rec )
+{
+    auto deadline = std::chrono::steady_clock::now() + std::chrono::seconds( 10 );
+    auto stats = rec.write_stats();
+    while( stats.frames_pending > 0 && std::chrono::steady_clock::now() < deadline )
+    {
+        std::this_thread::sleep_for( std::chrono::milliseconds( 10 ) );
+        stats = rec.write_stats();
+    }
+    REQUIRE( stats.frames_pending == 0 );
+    return stats;
+}
+
+static rs2_record_write_stats record_burst( std::string const & file, rs2_record_overflow_policy policy, sw_depth_camera & cam )
+{
+    recorder rec( file, cam.device );
+    rec.set_write_budget( 1, policy );
+    cam.sensor.open( cam.profile );
+    cam.sensor.start( []( frame ) {} );
+    for( int i = 0; i < FRAMES; ++i )
+        cam.publish();
+    auto stats = drain( rec );
+    cam.sensor.stop();
+    cam.sensor.close();
+    return stats;
+    // the recorder is destroyed here and finalizes the file
+}
+
+
+TEST_CASE( "DROP_NEWEST skips frames while the write budget is exhausted", "[record]" )
+{
+    std::string const file = "test-write-budget-drop-newest.bag";
+    sw_depth_camera cam( WIDTH, HEIGHT );
+
+    auto stats = record_burst( file, RS2_RECORD_OVERFLOW_POLICY_DROP_NEWEST, cam );
+    CHECK( stats.frames_dropped > 0 );
+    CHECK( stats.frames_written + stats.frames_dropped == FRAMES );
+    // an empty queue always takes a frame, so a budget smaller than a frame still records one at a time
+    CHECK( stats.max_bytes_pending == cam.frame_size() );
+    CHECK( stats.bytes_written == stats.frames_written * cam.frame_size() );
+
+    auto numbers = play_frame_numbers( file );
+    CHECK( numbers.size() == stats.frames_written );
+    std::remove( file.c_str() );
+}
+
+TEST_CASE( "BLOCK holds the sensor until every frame is written", "[record]" )
+{
+    std::string const file = "test-write-budget-block.bag";
+    sw_depth_camera cam( WIDTH, HEIGHT );
+
+    auto stats = record_burst( file, RS2_RECORD_OVERFLOW_POLICY_BLOCK, cam );
+    CHECK( stats.frames_dropped == 0 );
+    CHECK( stats.frames_written == FRAMES );
+    CHECK( stats.max_bytes_pending == cam.frame_size() );
+
+    auto numbers = play_frame_numbers( file );
+    REQUIRE( numbers.size() == FRAMES );
+    for( int i = 0; i < FRAMES; ++i )
+        CHECK( numbers[i] == i + 1 );
+    std::remove( file.c_str() );
+}
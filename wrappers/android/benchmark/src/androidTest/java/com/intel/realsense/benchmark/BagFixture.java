@@ -0,0 +1,85 @@
+package com.intel.realsense.benchmark;
+
+import android.os.Bundle;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.intel.realsense.librealsense.Config;
+import com.intel.realsense.librealsense.Extension;
+import com.intel.realsense.librealsense.Frame;
+import com.intel.realsense.librealsense.FrameSet;
+import com.intel.realsense.librealsense.Pipeline;
+import com.intel.realsense.librealsense.RsContext;
+import com.intel.realsense.librealsense.StreamType;
+
+import java.io.File;
+
+import static org.junit.Assume.assumeTrue;
+
+// Provides frames recorded in a .bag file so the benchmarks run without a camera attached.
+// The file is selected with the "bagFile" instrumentation argument, e.g.
+// ./gradlew :benchmark:connectedReleaseAndroidTest -Pandroid.testInstrumentationRunnerArguments.bagFile=/sdcard/Download/d435.bag
+class BagFixture implements AutoCloseable {
+    private static final String BAG_FILE_ARGUMENT = "bagFile";
+    private static final String DEFAULT_BAG_FILE = "/sdcard/Download/benchmark.bag";
+    private static final int WARMUP_FRAMES = 10;
+
+    private FrameSet mFrameSet;
+
+    static String getBagFile() {
+        Bundle args = InstrumentationRegistry.getArguments();
+        String path = args.getString(BAG_FILE_ARGUMENT, DEFAULT_BAG_FILE);
+        assumeTrue("recording not found: " + path, new File(path).exists());
+        return path;
+    }
+
+    static void initContext() {
+        RsContext.init(InstrumentationRegistry.getInstrumentation().getTargetContext());
+    }
+
+    // Pulls a single frameset out of the recording and keeps it for the lifetime of the fixture.
+    static BagFixture load() throws Exception {
+        initContext();
+        BagFixture rv = new BagFixture();
+        try(Pipeline pipeline = new Pipeline(); Config config = new Config()) {
+            config.enableDeviceFromFile(getBagFile());
+            pipeline.start(config).close();
+            try {
+                for(int i = 0; i < WARMUP_FRAMES; i++) {
+                    try(FrameSet frames = pipeline.waitForFrames(5000)) {}
+                }
+                // the clone holds its own reference, the frameset it was made from goes back to the pipeline
+                try(FrameSet frames = pipeline.waitForFrames(5000)) {
+                    rv.mFrameSet = frames.clone();
+                }
+            } finally {
+                pipeline.stop();
+            }
+        }
+        return rv;
+    }
+
+    FrameSet getFrameSet() {
+        return mFrameSet;
+    }
+
+    // The returned frame is owned by the caller.
+    Frame getFrame(StreamType type) {
+        Frame rv = mFrameSet.first(type);
+        assumeTrue("recording has no " + type + " stream", rv != null);
+        return rv;
+    }
+
+    Frame getDepthFrame() {
+        Frame rv = getFrame(StreamType.DEPTH);
+        assumeTrue(rv.is(Extension.DEPTH_FRAME));
+        return rv;
+    }
+
+    @Override
+    public void close() {
+        if(mFrameSet != null)
+            mFrameSet.close();
+        mFrameSet = null;
+    }
+}
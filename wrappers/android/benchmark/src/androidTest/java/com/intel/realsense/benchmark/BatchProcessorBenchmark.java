@@ -0,0 +1,64 @@
+package com.intel.realsense.benchmark;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.intel.realsense.librealsense.BatchProcessor;
+import com.intel.realsense.librealsense.DecimationFilter;
+import com.intel.realsense.librealsense.FilterInterface;
+import com.intel.realsense.librealsense.SpatialFilter;
+import com.intel.realsense.librealsense.TemporalFilter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+// Compares a batch of recordings processed one at a time with the same batch spread across the cores.
+// A whole batch is a single measurement, so this reports throughput instead of using the benchmark rule.
+@RunWith(AndroidJUnit4.class)
+public class BatchProcessorBenchmark {
+    private static final String TAG = "librs benchmark";
+    private static final int FILES = 4;
+
+    private List<String> mPaths;
+
+    @Before
+    public void setUp() {
+        BagFixture.initContext();
+        mPaths = new ArrayList<>(Collections.nCopies(FILES, BagFixture.getBagFile()));
+    }
+
+    private static List<FilterInterface> createChain(String path) {
+        return Arrays.<FilterInterface>asList(new DecimationFilter(), new SpatialFilter(), new TemporalFilter());
+    }
+
+    private void run(String name, BatchProcessor processor) throws Exception {
+        BatchProcessor.Report report = processor.process(mPaths, BatchProcessorBenchmark::createChain, null);
+        assertEquals(0, report.getFailedCount());
+        Log.i(TAG, String.format("%s (%d workers): %.1f framesets/s, %.1f MB/s, %.1f s",
+                name, report.getConcurrency(), report.getFrameSetsPerSecond(),
+                report.getBytesPerSecond() / (1024 * 1024), report.getWallNanos() / 1e9));
+    }
+
+    @Test
+    public void serial() throws Exception {
+        try(BatchProcessor processor = new BatchProcessor(1)) {
+            run("BatchProcessor serial", processor);
+        }
+    }
+
+    @Test
+    public void parallel() throws Exception {
+        try(BatchProcessor processor = new BatchProcessor()) {
+            run("BatchProcessor parallel", processor);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.intel.realsense.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.intel.realsense.librealsense.FrameCallback;
+import com.intel.realsense.librealsense.Intrinsic;
+import com.intel.realsense.librealsense.MotionIntrinsic;
+import com.intel.realsense.librealsense.MotionStreamProfile;
+import com.intel.realsense.librealsense.SoftwareDevice;
+import com.intel.realsense.librealsense.SoftwareSensor;
+import com.intel.realsense.librealsense.StreamFormat;
+import com.intel.realsense.librealsense.StreamType;
+import com.intel.realsense.librealsense.TimestampDomain;
+import com.intel.realsense.librealsense.VideoStreamProfile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+// Measures the Java side of the frame callback dispatch per frame. The software sensor invokes the callback
+// synchronously on the injecting Java thread, which is already attached, so the native thread path is not
+// exercised here, CallbackDispatchBenchmark measures that one. No camera or recording is required.
+@RunWith(AndroidJUnit4.class)
+public class CallbackBenchmark {
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private final AtomicInteger mReceived = new AtomicInteger();
+    private final FrameCallback mCounter = f -> mReceived.incrementAndGet();
+
+    @Test
+    public void videoFrameCallback() {
+        try(SoftwareDevice device = new SoftwareDevice()) {
+            SoftwareSensor sensor = device.addSensor("Sensor");
+            VideoStreamProfile profile = sensor.addVideoStream(StreamType.DEPTH, 0, 0, 64, 48, 30, 2,
+                    StreamFormat.Z16, new Intrinsic(), true);
+            ByteBuffer pixels = ByteBuffer.allocateDirect(64 * 48 * 2).order(ByteOrder.nativeOrder());
+            sensor.openSensor(profile);
+            sensor.start(mCounter);
+
+            int frameNumber = 0;
+            BenchmarkState state = mBenchmarkRule.getState();
+            while(state.keepRunning()) {
+                frameNumber++;
+                // returns after the callback ran on this thread
+                sensor.onVideoFrame(pixels, 64 * 2, 2, frameNumber, TimestampDomain.HARDWARE_CLOCK,
+                        frameNumber, profile, null);
+            }
+            sensor.stop();
+            sensor.closeSensor();
+            assertEquals(frameNumber, mReceived.get());
+        }
+    }
+
+    @Test
+    public void motionFrameCallback() {
+        try(SoftwareDevice device = new SoftwareDevice()) {
+            SoftwareSensor sensor = device.addSensor("Sensor");
+            MotionStreamProfile profile = sensor.addMotionStream(StreamType.GYRO, 0, 0, 400,
+                    StreamFormat.MOTION_XYZ32F, new MotionIntrinsic(), true);
+            ByteBuffer data = ByteBuffer.allocateDirect(3 * 4).order(ByteOrder.nativeOrder());
+            sensor.openSensor(profile);
+            sensor.start(mCounter);
+
+            int frameNumber = 0;
+            BenchmarkState state = mBenchmarkRule.getState();
+            while(state.keepRunning()) {
+                frameNumber++;
+                sensor.onMotionFrame(data, frameNumber, TimestampDomain.HARDWARE_CLOCK, frameNumber, profile, null);
+            }
+            sensor.stop();
+            sensor.closeSensor();
+            assertEquals(frameNumber, mReceived.get());
+        }
+    }
+}
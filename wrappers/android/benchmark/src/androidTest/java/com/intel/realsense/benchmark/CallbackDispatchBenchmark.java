@@ -0,0 +1,91 @@
+package com.intel.realsense.benchmark;
+
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.intel.realsense.librealsense.Config;
+import com.intel.realsense.librealsense.Frame;
+import com.intel.realsense.librealsense.Pipeline;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertTrue;
+
+// Measures what a frame callback costs the native thread that delivers it, the path where a librealsense
+// thread has to be attached to the JVM. Frames come from the playback of a looping recording in real time,
+// so the wall time per frame is set by the recording and the benchmark rule would only report the frame rate.
+// Instead every callback reads the CPU time of its own thread: the difference between two callbacks on the
+// same thread is what that thread spent on one frame, syncing it, attaching to the JVM and calling into Java.
+// Only Config.enableDeviceFromFile and Pipeline.start(Config, FrameCallback) are used, so the benchmark runs
+// unchanged before and after a change to frame_callback.cpp and the two reports can be compared.
+@RunWith(AndroidJUnit4.class)
+public class CallbackDispatchBenchmark {
+    private static final String TAG = "librs benchmark";
+    // the first frames include opening the streams
+    private static final int WARMUP_FRAMES = 30;
+    private static final int FRAMES = 600;
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private static class ThreadCpu {
+        long mLastNanos = -1;
+    }
+
+    private final ThreadLocal<ThreadCpu> mThreadCpu = new ThreadLocal<ThreadCpu>() {
+        @Override
+        protected ThreadCpu initialValue() {
+            return new ThreadCpu();
+        }
+    };
+    private final AtomicInteger mSeen = new AtomicInteger();
+    private final AtomicInteger mMeasured = new AtomicInteger();
+    private final AtomicLong mCpuNanos = new AtomicLong();
+    private final CountDownLatch mDone = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        BagFixture.initContext();
+    }
+
+    private void onFrame(Frame frame) {
+        long now = Debug.threadCpuTimeNanos();
+        ThreadCpu cpu = mThreadCpu.get();
+        long last = cpu.mLastNanos;
+        cpu.mLastNanos = now;
+        // the first callback of a thread has nothing to compare with
+        if(mSeen.incrementAndGet() <= WARMUP_FRAMES || last < 0)
+            return;
+        int measured = mMeasured.incrementAndGet();
+        if(measured > FRAMES)
+            return;
+        mCpuNanos.addAndGet(now - last);
+        if(measured == FRAMES)
+            mDone.countDown();
+    }
+
+    @Test
+    public void playbackCallback() throws Exception {
+        String file = BagFixture.getBagFile();
+        try(Pipeline pipeline = new Pipeline(); Config config = new Config()) {
+            config.enableDeviceFromFile(file);
+            pipeline.start(config, this::onFrame).close();
+            try {
+                assertTrue("the recording did not deliver " + FRAMES + " frames",
+                        mDone.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } finally {
+                // no callback runs once the pipeline stopped, the sum is final
+                pipeline.stop();
+            }
+        }
+        Log.i(TAG, String.format("FrameCallback(native thread): %.1f us CPU per frame on the delivering thread, %d frames",
+                mCpuNanos.get() / 1e3 / FRAMES, FRAMES));
+    }
+}
@@ -0,0 +1,112 @@
+package com.intel.realsense.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.intel.realsense.librealsense.Align;
+import com.intel.realsense.librealsense.Colorizer;
+import com.intel.realsense.librealsense.DecimationFilter;
+import com.intel.realsense.librealsense.DisparityTransformFilter;
+import com.intel.realsense.librealsense.Filter;
+import com.intel.realsense.librealsense.Frame;
+import com.intel.realsense.librealsense.HdrMerge;
+import com.intel.realsense.librealsense.HoleFillingFilter;
+import com.intel.realsense.librealsense.Pointcloud;
+import com.intel.realsense.librealsense.SequenceIdFilter;
+import com.intel.realsense.librealsense.SpatialFilter;
+import com.intel.realsense.librealsense.StreamType;
+import com.intel.realsense.librealsense.TemporalFilter;
+import com.intel.realsense.librealsense.ThresholdFilter;
+import com.intel.realsense.librealsense.YuyDecoder;
+import com.intel.realsense.librealsense.ZeroOrderInvalidationFilter;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Measures Filter.process for every processing block exposed by processing.cpp.
+@RunWith(Parameterized.class)
+public class FilterBenchmark {
+    enum Input {
+        DEPTH,
+        COLOR,
+        FRAMESET
+    }
+
+    interface FilterFactory {
+        Filter create();
+    }
+
+    private static BagFixture mFixture;
+
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameter(0)
+    public String mName;
+    @Parameterized.Parameter(1)
+    public Input mInput;
+    @Parameterized.Parameter(2)
+    public FilterFactory mFactory;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> filters() {
+        return Arrays.asList(new Object[][]{
+                {"Align", Input.FRAMESET, (FilterFactory) () -> new Align(StreamType.COLOR)},
+                {"Colorizer", Input.DEPTH, (FilterFactory) Colorizer::new},
+                {"DecimationFilter", Input.DEPTH, (FilterFactory) DecimationFilter::new},
+                {"DisparityTransformFilter", Input.DEPTH, (FilterFactory) () -> new DisparityTransformFilter(true)},
+                {"HoleFillingFilter", Input.DEPTH, (FilterFactory) HoleFillingFilter::new},
+                {"Pointcloud", Input.DEPTH, (FilterFactory) Pointcloud::new},
+                {"SpatialFilter", Input.DEPTH, (FilterFactory) SpatialFilter::new},
+                {"TemporalFilter", Input.DEPTH, (FilterFactory) TemporalFilter::new},
+                {"ThresholdFilter", Input.DEPTH, (FilterFactory) ThresholdFilter::new},
+                {"ZeroOrderInvalidationFilter", Input.FRAMESET, (FilterFactory) ZeroOrderInvalidationFilter::new},
+                {"YuyDecoder", Input.COLOR, (FilterFactory) YuyDecoder::new},
+                {"HdrMerge", Input.FRAMESET, (FilterFactory) HdrMerge::new},
+                {"SequenceIdFilter", Input.FRAMESET, (FilterFactory) SequenceIdFilter::new},
+        });
+    }
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        mFixture = BagFixture.load();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if(mFixture != null)
+            mFixture.close();
+    }
+
+    private Frame createInput() {
+        switch (mInput) {
+            case DEPTH: return mFixture.getDepthFrame();
+            case COLOR: return mFixture.getFrame(StreamType.COLOR);
+            default: return mFixture.getFrameSet().clone();
+        }
+    }
+
+    @Test
+    public void process() {
+        try(Frame input = createInput(); Filter filter = mFactory.create()) {
+            Throughput throughput = new Throughput(mName + ".process");
+            long bytes = input.getDataSize();
+            BenchmarkState state = mBenchmarkRule.getState();
+            throughput.start();
+            while(state.keepRunning()) {
+                Frame output = filter.process(input);
+                if(output != input)
+                    output.close();
+                throughput.record(bytes);
+            }
+            throughput.report();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.intel.realsense.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.intel.realsense.librealsense.Frame;
+import com.intel.realsense.librealsense.FrameSet;
+import com.intel.realsense.librealsense.Pointcloud;
+import com.intel.realsense.librealsense.Points;
+import com.intel.realsense.librealsense.StreamFormat;
+import com.intel.realsense.librealsense.StreamType;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import static org.junit.Assume.assumeTrue;
+
+// Measures the per frame JNI accessors used by streaming applications.
+@RunWith(AndroidJUnit4.class)
+public class FrameBenchmark {
+    private static BagFixture mFixture;
+
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        mFixture = BagFixture.load();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if(mFixture != null)
+            mFixture.close();
+    }
+
+    @Test
+    public void getData() {
+        try(Frame depth = mFixture.getDepthFrame()) {
+            byte[] data = new byte[depth.getDataSize()];
+            Throughput throughput = new Throughput("Frame.getData");
+            BenchmarkState state = mBenchmarkRule.getState();
+            throughput.start();
+            while(state.keepRunning()) {
+                depth.getData(data);
+                throughput.record(data.length);
+            }
+            throughput.report();
+        }
+    }
+
+    @Test
+    public void getDataBuffer() {
+        try(Frame depth = mFixture.getDepthFrame()) {
+            Throughput throughput = new Throughput("Frame.getDataBuffer");
+            BenchmarkState state = mBenchmarkRule.getState();
+            throughput.start();
+            while(state.keepRunning()) {
+                ByteBuffer buffer = depth.getDataBuffer();
+                throughput.record(buffer.remaining());
+            }
+            throughput.report();
+        }
+    }
+
+    @Test
+    public void getProfile() {
+        try(Frame depth = mFixture.getDepthFrame()) {
+            BenchmarkState state = mBenchmarkRule.getState();
+            while(state.keepRunning()) {
+                depth.getProfile();
+            }
+        }
+    }
+
+    @Test
+    public void frameSetFirst() {
+        FrameSet frames = mFixture.getFrameSet();
+        Frame reuse = null;
+        BenchmarkState state = mBenchmarkRule.getState();
+        while(state.keepRunning()) {
+            reuse = frames.first(StreamType.DEPTH, StreamFormat.Z16, reuse);
+            if(reuse != null)
+                reuse.close();
+        }
+    }
+
+    @Test
+    public void frameSetFirstAllocating() {
+        FrameSet frames = mFixture.getFrameSet();
+        BenchmarkState state = mBenchmarkRule.getState();
+        while(state.keepRunning()) {
+            Frame f = frames.first(StreamType.DEPTH);
+            if(f != null)
+                f.close();
+        }
+    }
+
+    private static Frame computePoints() {
+        try(Frame depth = mFixture.getDepthFrame(); Pointcloud pointcloud = new Pointcloud()) {
+            Frame rv = pointcloud.process(depth);
+            assumeTrue("pointcloud produced no output", rv != depth);
+            return rv;
+        }
+    }
+
+    @Test
+    public void getVertices() {
+        try(Frame result = computePoints()) {
+            Points points = Points.wrap(result, null);
+            float[] vertices = new float[points.getCount() * 3];
+            Throughput throughput = new Throughput("Points.getVertices");
+            BenchmarkState state = mBenchmarkRule.getState();
+            throughput.start();
+            while(state.keepRunning()) {
+                points.getData(vertices);
+                throughput.record(vertices.length * 4L);
+            }
+            throughput.report();
+        }
+    }
+
+    @Test
+    public void getVerticesDirectBuffer() {
+        try(Frame result = computePoints()) {
+            Points points = Points.wrap(result, null);
+            FloatBuffer vertices = ByteBuffer.allocateDirect(points.getCount() * 3 * 4)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+            Throughput throughput = new Throughput("Points.getVertices(FloatBuffer)");
+            BenchmarkState state = mBenchmarkRule.getState();
+            throughput.start();
+            while(state.keepRunning()) {
+                vertices.clear();
+                points.getVertices(vertices);
+                throughput.record(vertices.capacity() * 4L);
+            }
+            throughput.report();
+        }
+    }
+}
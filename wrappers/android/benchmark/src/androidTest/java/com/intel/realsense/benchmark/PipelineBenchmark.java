@@ -0,0 +1,105 @@
+package com.intel.realsense.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.intel.realsense.librealsense.Config;
+import com.intel.realsense.librealsense.Device;
+import com.intel.realsense.librealsense.Extension;
+import com.intel.realsense.librealsense.FrameSet;
+import com.intel.realsense.librealsense.Pipeline;
+import com.intel.realsense.librealsense.PipelineProfile;
+import com.intel.realsense.librealsense.PlaybackDevice;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Measures Pipeline.waitForFrames fed from a recording. Real time playback is paced by the recorded
+// timestamps, so ops/s is bound by the recording frame rate and the allocation count is the main signal.
+// The non real time variant reads the file as fast as frames are consumed.
+@RunWith(AndroidJUnit4.class)
+public class PipelineBenchmark {
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private Pipeline mPipeline;
+    private Config mConfig;
+    private Device mDevice;
+    private PlaybackDevice mPlayback;
+    private long mFrameSetBytes;
+
+    @Before
+    public void setUp() throws Exception {
+        BagFixture.initContext();
+        mPipeline = new Pipeline();
+        mConfig = new Config();
+        mConfig.enableDeviceFromFile(BagFixture.getBagFile());
+        try(PipelineProfile pp = mPipeline.start(mConfig)) {
+            mDevice = pp.getDevice();
+            mPlayback = mDevice.as(Extension.PLAYBACK);
+        }
+
+        // stream sizes are fixed for a recording, measure them once outside of the benchmark loop
+        try(FrameSet frames = mPipeline.waitForFrames(5000)) {
+            frames.foreach(f -> mFrameSetBytes += f.getDataSize());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if(mPipeline != null) {
+            mPipeline.stop();
+            mPipeline.close();
+        }
+        if(mDevice != null)
+            mDevice.close();
+        if(mConfig != null)
+            mConfig.close();
+    }
+
+    @Test
+    public void waitForFrames() throws Exception {
+        Throughput throughput = new Throughput("Pipeline.waitForFrames");
+        BenchmarkState state = mBenchmarkRule.getState();
+        throughput.start();
+        while(state.keepRunning()) {
+            try(FrameSet frames = mPipeline.waitForFrames(5000)) {
+                throughput.record(mFrameSetBytes);
+            }
+        }
+        throughput.report();
+    }
+
+    @Test
+    public void waitForFramesReusingFrameSet() throws Exception {
+        Throughput throughput = new Throughput("Pipeline.waitForFrames(reuse)");
+        FrameSet frames = null;
+        BenchmarkState state = mBenchmarkRule.getState();
+        throughput.start();
+        while(state.keepRunning()) {
+            frames = mPipeline.waitForFrames(5000, frames);
+            throughput.record(mFrameSetBytes);
+            frames.close();
+        }
+        throughput.report();
+    }
+
+    @Test
+    public void waitForFramesNonRealTime() throws Exception {
+        mPlayback.setRealTime(false);
+        Throughput throughput = new Throughput("Pipeline.waitForFrames(non real time)");
+        FrameSet frames = null;
+        BenchmarkState state = mBenchmarkRule.getState();
+        throughput.start();
+        while(state.keepRunning()) {
+            frames = mPipeline.waitForFrames(5000, frames);
+            throughput.record(mFrameSetBytes);
+            frames.close();
+        }
+        throughput.report();
+    }
+}
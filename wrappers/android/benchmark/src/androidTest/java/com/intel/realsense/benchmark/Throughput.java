@@ -0,0 +1,38 @@
+package com.intel.realsense.benchmark;
+
+import android.util.Log;
+
+// Complements the time and allocation counts reported by androidx.benchmark with ops/s and bytes/s,
+// derived from the wall time of the whole measurement loop.
+class Throughput {
+    private static final String TAG = "librs benchmark";
+
+    private final String mName;
+    private long mStartNanos;
+    private long mOps;
+    private long mBytes;
+
+    Throughput(String name) {
+        mName = name;
+    }
+
+    void start() {
+        mOps = 0;
+        mBytes = 0;
+        mStartNanos = System.nanoTime();
+    }
+
+    void record(long bytes) {
+        mOps++;
+        mBytes += bytes;
+    }
+
+    void report() {
+        long elapsed = System.nanoTime() - mStartNanos;
+        if(elapsed <= 0 || mOps == 0)
+            return;
+        double seconds = elapsed / 1e9;
+        Log.i(TAG, String.format("%s: %.1f ops/s, %.1f MB/s, %d bytes/op",
+                mName, mOps / seconds, mBytes / seconds / (1024 * 1024), mBytes / mOps));
+    }
+}
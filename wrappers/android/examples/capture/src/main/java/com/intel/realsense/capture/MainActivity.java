@@ -4,7 +4,6 @@ import android.Manifest;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
-import android.os.Handler;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.appcompat.app.AppCompatActivity;
@@ -15,7 +14,6 @@ import android.view.View;
 import android.widget.TextView;
 
 import com.intel.realsense.librealsense.Colorizer;
-import com.intel.realsense.librealsense.Config;
 import com.intel.realsense.librealsense.DeviceList;
 import com.intel.realsense.librealsense.DeviceListener;
 import com.intel.realsense.librealsense.Extension;
@@ -23,11 +21,11 @@ import com.intel.realsense.librealsense.Frame;
 import com.intel.realsense.librealsense.FrameSet;
 import com.intel.realsense.librealsense.GLRsSurfaceView;
 import com.intel.realsense.librealsense.MotionFrame;
-import com.intel.realsense.librealsense.Pipeline;
 import com.intel.realsense.librealsense.PipelineProfile;
 import com.intel.realsense.librealsense.RsContext;
 import com.intel.realsense.librealsense.StreamFormat;
 import com.intel.realsense.librealsense.StreamType;
+import com.intel.realsense.librealsense.StreamingEngine;
 
 public class MainActivity extends AppCompatActivity {
     private static final String TAG = "librs capture example";
@@ -38,10 +36,9 @@ public class MainActivity extends AppCompatActivity {
     private Context mAppContext;
     private TextView mBackGroundText;
     private GLRsSurfaceView mGLSurfaceView;
-    private boolean mIsStreaming = false;
-    private final Handler mHandler = new Handler();
 
-    private Pipeline mPipeline;
+    // waits for frames on its own thread, the frames are processed on the consumer thread instead of the UI thread
+    private StreamingEngine mEngine;
     private Colorizer mColorizer;
     private RsContext mRsContext;
 
@@ -99,8 +96,8 @@ public class MainActivity extends AppCompatActivity {
         if(mRsContext != null)
             mRsContext.close();
         stop();
+        mEngine.close();
         mColorizer.close();
-        mPipeline.close();
     }
 
     private void init(){
@@ -112,7 +109,8 @@ public class MainActivity extends AppCompatActivity {
         mRsContext = new RsContext();
         mRsContext.setDevicesChangedCallback(mListener);
 
-        mPipeline = new Pipeline();
+        mEngine = new StreamingEngine(mEngineListener);
+        mEngine.addConsumer("capture", this::onFrameSet);
         mColorizer = new Colorizer();
 
         try(DeviceList dl = mRsContext.queryDevices()){
@@ -176,83 +174,81 @@ public class MainActivity extends AppCompatActivity {
 
 
 
-    Runnable mStreaming = new Runnable() {
+    private StreamingEngine.Listener mEngineListener = new StreamingEngine.Listener() {
         @Override
-        public void run() {
-            try {
-                try(FrameSet frames = mPipeline.waitForFrames()) {
-                    try(FrameSet processed = frames.applyFilter(mColorizer)) {
-                        mGLSurfaceView.upload(processed);
-                    }
-                    Frame colorFrame = frames.first(StreamType.COLOR);
-
-                    try (Frame gyroFrame = frames.first(StreamType.GYRO)) {
-                        if (gyroFrame != null && gyroFrame.is(Extension.MOTION_FRAME)) {
-                            MotionFrame motion = gyroFrame.as(Extension.MOTION_FRAME);
-                            Float3 gyroData = motion.getMotionData(); // 提取三轴角速度
-                            double angularVelocity = Math.sqrt(
-                                    Math.pow(gyroData.x, 2) +
-                                            Math.pow(gyroData.y, 2) +
-                                            Math.pow(gyroData.z, 2)
-                            );
-                            double accelX = gyroData.x;
-                            double accelY = gyroData.y;
-                            double accelZ = gyroData.z;
-                            double tiltAngle = Math.toDegrees(Math.acos(accelZ / Math.sqrt(accelX * accelX + accelY * accelY + accelZ * accelZ)));
-
-                            if (angularVelocity > 5.0f) {
-                                runOnUiThread(() -> showCustomDialog("ATTENTION",
-                                        "The rotation of camera is too fast!\nAngular Velocity: " + angularVelocity));
-                            }
-                        }
-                    }
-
-                    try (Frame accelFrame = frames.first(StreamType.ACCEL)) {
-                        if (accelFrame != null && accelFrame.is(Extension.MOTION_FRAME)) {
-                            MotionFrame motion = accelFrame.as(Extension.MOTION_FRAME);
-                            Float3 accelData = motion.getMotionData(); // 提取三轴加速度
-                            double accelerationMagnitude = Math.sqrt(
-                                    Math.pow(accelData.x, 2) +
-                                            Math.pow(accelData.y, 2) +
-                                            Math.pow(accelData.z, 2)
-                            );
-
-                            // 如果线速度超过阈值，触发警告
-                            if (accelerationMagnitude > 12.0f) {
-                                runOnUiThread(() -> showCustomDialog("ATTENTION",
-                                        "The movement of camera is too fast!\nAcceleration: " + accelerationMagnitude));
-                            }
-                        }
-                    }
+        public void onStateChanged(StreamingEngine.State state) {
+            Log.d(TAG, "streaming state: " + state);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            Log.e(TAG, "streaming, error: " + e.getMessage());
+        }
+    };
+
+    // called on the consumer thread, the frameset is closed by the engine when this returns
+    private void onFrameSet(FrameSet frames) {
+        try(FrameSet processed = frames.applyFilter(mColorizer)) {
+            mGLSurfaceView.upload(processed);
+        }
+        Frame colorFrame = frames.first(StreamType.COLOR);
+
+        try (Frame gyroFrame = frames.first(StreamType.GYRO)) {
+            if (gyroFrame != null && gyroFrame.is(Extension.MOTION_FRAME)) {
+                MotionFrame motion = gyroFrame.as(Extension.MOTION_FRAME);
+                Float3 gyroData = motion.getMotionData(); // 提取三轴角速度
+                double angularVelocity = Math.sqrt(
+                        Math.pow(gyroData.x, 2) +
+                                Math.pow(gyroData.y, 2) +
+                                Math.pow(gyroData.z, 2)
+                );
+                double accelX = gyroData.x;
+                double accelY = gyroData.y;
+                double accelZ = gyroData.z;
+                double tiltAngle = Math.toDegrees(Math.acos(accelZ / Math.sqrt(accelX * accelX + accelY * accelY + accelZ * accelZ)));
+
+                if (angularVelocity > 5.0f) {
+                    runOnUiThread(() -> showCustomDialog("ATTENTION",
+                            "The rotation of camera is too fast!\nAngular Velocity: " + angularVelocity));
                 }
-                mHandler.post(mStreaming);
             }
-            catch (Exception e) {
-                Log.e(TAG, "streaming, error: " + e.getMessage());
+        }
+
+        try (Frame accelFrame = frames.first(StreamType.ACCEL)) {
+            if (accelFrame != null && accelFrame.is(Extension.MOTION_FRAME)) {
+                MotionFrame motion = accelFrame.as(Extension.MOTION_FRAME);
+                Float3 accelData = motion.getMotionData(); // 提取三轴加速度
+                double accelerationMagnitude = Math.sqrt(
+                        Math.pow(accelData.x, 2) +
+                                Math.pow(accelData.y, 2) +
+                                Math.pow(accelData.z, 2)
+                );
+
+                // 如果线速度超过阈值，触发警告
+                if (accelerationMagnitude > 12.0f) {
+                    runOnUiThread(() -> showCustomDialog("ATTENTION",
+                            "The movement of camera is too fast!\nAcceleration: " + accelerationMagnitude));
+                }
             }
         }
-    };
+    }
 
     private void configAndStart() throws Exception {
-        try(Config config  = new Config())
-        {
+        try(PipelineProfile pp = mEngine.start(config -> {
             config.enableStream(StreamType.DEPTH, 640, 480);
             config.enableStream(StreamType.COLOR, 640, 480);
             config.enableStream(StreamType.GYRO, StreamFormat.MOTION_XYZ32F);
             config.enableStream(StreamType.ACCEL, StreamFormat.MOTION_XYZ32F);
-            try(PipelineProfile pp = mPipeline.start(config)){}
-        }
+        })){}
     }
 
     private synchronized void start() {
-        if(mIsStreaming)
+        if(mEngine.getState() != StreamingEngine.State.STOPPED)
             return;
         try{
             Log.d(TAG, "try start streaming");
             mGLSurfaceView.clear();
             configAndStart();
-            mIsStreaming = true;
-            mHandler.post(mStreaming);
             Log.d(TAG, "streaming started successfully");
         } catch (Exception e) {
             Log.d(TAG, "failed to start streaming");
@@ -260,13 +256,11 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private synchronized void stop() {
-        if(!mIsStreaming)
+        if(mEngine.getState() == StreamingEngine.State.STOPPED)
             return;
         try {
             Log.d(TAG, "try stop streaming");
-            mIsStreaming = false;
-            mHandler.removeCallbacks(mStreaming);
-            mPipeline.stop();
+            mEngine.stop();
             mGLSurfaceView.clear();
             Log.d(TAG, "streaming stopped successfully");
         } catch (Exception e) {
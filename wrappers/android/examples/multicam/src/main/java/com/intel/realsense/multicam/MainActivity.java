@@ -4,7 +4,6 @@ import android.Manifest;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
-import android.os.Handler;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.appcompat.app.AppCompatActivity;
@@ -13,15 +12,15 @@ import android.view.View;
 
 import com.intel.realsense.librealsense.CameraInfo;
 import com.intel.realsense.librealsense.Colorizer;
-import com.intel.realsense.librealsense.Config;
+import com.intel.realsense.librealsense.Device;
 import com.intel.realsense.librealsense.DeviceList;
 import com.intel.realsense.librealsense.DeviceListener;
 import com.intel.realsense.librealsense.FrameSet;
 import com.intel.realsense.librealsense.GLRsSurfaceView;
-import com.intel.realsense.librealsense.Pipeline;
 import com.intel.realsense.librealsense.PipelineProfile;
 import com.intel.realsense.librealsense.RsContext;
 import com.intel.realsense.librealsense.StreamType;
+import com.intel.realsense.librealsense.StreamingEngine;
 
 import java.util.ArrayList;
 
@@ -33,10 +32,10 @@ public class MainActivity extends AppCompatActivity {
 
     private Context mAppContext;
     private GLRsSurfaceView mGLSurfaceView;
-    private final Handler mHandler = new Handler();
 
     private DeviceList deviceList;
-    private ArrayList<Pipeline> mPipelines;
+    // one engine per camera, each waits for its frames on its own thread instead of the UI thread
+    private ArrayList<StreamingEngine> mEngines;
     private ArrayList<Colorizer> mColorizers;
     private RsContext mRsContext;
 
@@ -105,7 +104,7 @@ public class MainActivity extends AppCompatActivity {
         //Register to notifications regarding RealSense devices attach/detach events via the DeviceListener.
         mRsContext = new RsContext();
         mRsContext.setDevicesChangedCallback(mListener);
-        mPipelines = new ArrayList<>();
+        mEngines = new ArrayList<>();
         mColorizers = new ArrayList<>();
 
         start();
@@ -123,35 +122,29 @@ public class MainActivity extends AppCompatActivity {
         }
     };
 
-    Runnable mStreaming = new Runnable() {
+    private StreamingEngine.Listener mEngineListener = new StreamingEngine.Listener() {
         @Override
-        public void run() {
-            try {
-                for(int i = 0; i < mPipelines.size(); i++) {
-                    try (FrameSet frames = mPipelines.get(i).waitForFrames()) {
-                        try (FrameSet processed = frames.applyFilter(mColorizers.get(i))) {
-                            mGLSurfaceView.upload(processed);
-                        }
-                    }
-                }
-                if (mPipelines.size() > 0)
-                    mHandler.post(mStreaming);
-            }
-            catch (Exception e) {
-                Log.e(TAG, "streaming, error: " + e.getMessage());
-            }
+        public void onStateChanged(StreamingEngine.State state) {
+            Log.d(TAG, "streaming state: " + state);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            Log.e(TAG, "streaming, error: " + e.getMessage());
         }
     };
 
     private void configAndStart() throws Exception {
-        for(int i = 0; i < mPipelines.size(); i++) {
-            try (Config config = new Config()) {
-                config.enableDevice(deviceList.createDevice(i).getInfo(CameraInfo.SERIAL_NUMBER));
-                config.enableStream(StreamType.DEPTH, 640, 480);
-                Pipeline pipe = mPipelines.get(i);
-                // try statement needed here to release resources allocated by the Pipeline:start() method
-                try (PipelineProfile pp = pipe.start(config)) {}
+        for(int i = 0; i < mEngines.size(); i++) {
+            final String serial;
+            try (Device device = deviceList.createDevice(i)) {
+                serial = device.getInfo(CameraInfo.SERIAL_NUMBER);
             }
+            // try statement needed here to release resources allocated by the StreamingEngine:start() method
+            try (PipelineProfile pp = mEngines.get(i).start(config -> {
+                config.enableDevice(serial);
+                config.enableStream(StreamType.DEPTH, 640, 480);
+            })) {}
         }
     }
 
@@ -166,15 +159,22 @@ public class MainActivity extends AppCompatActivity {
         if( devCount > 0) {
             for (int i = 0; i < devCount; i++)
             {
-                mPipelines.add(new Pipeline());
-                mColorizers.add(new Colorizer());
+                final Colorizer colorizer = new Colorizer();
+                StreamingEngine engine = new StreamingEngine(mEngineListener);
+                // called on the consumer thread of this camera, the frameset is closed by the engine
+                engine.addConsumer("camera " + i, frames -> {
+                    try (FrameSet processed = frames.applyFilter(colorizer)) {
+                        mGLSurfaceView.upload(processed);
+                    }
+                });
+                mEngines.add(engine);
+                mColorizers.add(colorizer);
             }
         }
 
         try{
             Log.d(TAG, "try start streaming");
             configAndStart();
-            mHandler.post(mStreaming);
             mGLSurfaceView.clear();
             Log.d(TAG, "streaming started successfully");
         } catch (Exception e) {
@@ -187,21 +187,16 @@ public class MainActivity extends AppCompatActivity {
         try {
             Log.d(TAG, "try stop streaming");
 
-            mHandler.removeCallbacks(mStreaming);
-
-            for(Pipeline pipe : mPipelines)
-                pipe.stop();
-
-            //Release pipelines
-            for (Pipeline pipeline : mPipelines) {
-                pipeline.close();
+            //Stop streaming and release the engines
+            for (StreamingEngine engine : mEngines) {
+                engine.close();
             }
             //Release colorizers
             for (Colorizer colorizer : mColorizers) {
                 colorizer.close();
             }
 
-            mPipelines.clear();
+            mEngines.clear();
             mColorizers.clear();
             mGLSurfaceView.clear();
             Log.d(TAG, "streaming stopped successfully");
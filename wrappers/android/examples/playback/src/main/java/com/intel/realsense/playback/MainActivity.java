@@ -12,11 +12,10 @@ import androidx.appcompat.app.AppCompatActivity;
 import android.util.Log;
 
 import com.intel.realsense.librealsense.Colorizer;
-import com.intel.realsense.librealsense.Config;
 import com.intel.realsense.librealsense.FrameSet;
-import com.intel.realsense.librealsense.Pipeline;
 import com.intel.realsense.librealsense.GLRsSurfaceView;
 import com.intel.realsense.librealsense.PipelineProfile;
+import com.intel.realsense.librealsense.StreamingEngine;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -24,6 +23,9 @@ public class MainActivity extends AppCompatActivity {
     private static final int READ_REQUEST_CODE = 0;
     private Uri mUri;
     private GLRsSurfaceView mGLSurfaceView;
+    // plays the file on its own thread, the frames are colorized on the consumer thread
+    private StreamingEngine mEngine;
+    private Colorizer mColorizer;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -68,19 +70,24 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         super.onPause();
-        mStreaming.interrupt();
-        if(mStreaming.isAlive()) {
-            try {
-                mStreaming.join(1000);
-                mGLSurfaceView.clear();
-            } catch (InterruptedException e) {
-                Log.e(TAG, e.getMessage());
-            }
-        }
+        if(mEngine == null)
+            return;
+        mEngine.close();
+        mEngine = null;
+        mColorizer.close();
+        mGLSurfaceView.clear();
     }
 
     private void init(){
-        mStreaming.start();
+        final String filePath = getExternalFilesDir(null).getAbsolutePath() + "/" + mUri.getPath().split(":")[1];
+        mColorizer = new Colorizer();
+        mEngine = new StreamingEngine(mEngineListener);
+        mEngine.addConsumer("playback", this::onFrameSet);
+        // try statement needed here to release resources allocated by the StreamingEngine:start() method
+        try (PipelineProfile pp = mEngine.start(config -> config.enableDeviceFromFile(filePath))) {
+        } catch (Exception e) {
+            Log.e(TAG, "streaming, error: " + e.getMessage());
+        }
     }
 
     @Override
@@ -93,31 +100,22 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    Thread mStreaming = new Thread() {
+    private StreamingEngine.Listener mEngineListener = new StreamingEngine.Listener() {
         @Override
-        public void run() {
-            String filePath = getExternalFilesDir(null).getAbsolutePath() + "/" + mUri.getPath().split(":")[1];
-            try(Colorizer colorizer = new Colorizer()) {
-                try (Config config = new Config()) {
-                    config.enableDeviceFromFile(filePath);
-                    try (Pipeline pipeline = new Pipeline()) {
-                        try {
-                            // try statement needed here to release resources allocated by the Pipeline:start() method
-                            try (PipelineProfile pp = pipeline.start(config)) {}
-                            while (!mStreaming.isInterrupted()) {
-                                try (FrameSet frames = pipeline.waitForFrames()) {
-                                    try (FrameSet processed = frames.applyFilter(colorizer)) {
-                                        mGLSurfaceView.upload(processed);
-                                    }
-                                }
-                            }
-                            pipeline.stop();
-                        } catch (Exception e) {
-                            Log.e(TAG, "streaming, error: " + e.getMessage());
-                        }
-                    }
-                }
-            }
+        public void onStateChanged(StreamingEngine.State state) {
+            Log.d(TAG, "streaming state: " + state);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            Log.e(TAG, "streaming, error: " + e.getMessage());
         }
     };
+
+    // called on the consumer thread, the frameset is closed by the engine when this returns
+    private void onFrameSet(FrameSet frames) {
+        try (FrameSet processed = frames.applyFilter(mColorizer)) {
+            mGLSurfaceView.upload(processed);
+        }
+    }
 }
@@ -4,7 +4,6 @@ import android.Manifest;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
-import android.os.Handler;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.appcompat.app.AppCompatActivity;
@@ -14,23 +13,26 @@ import android.widget.TextView;
 
 import com.intel.realsense.librealsense.Align;
 import com.intel.realsense.librealsense.Colorizer;
-import com.intel.realsense.librealsense.Config;
 import com.intel.realsense.librealsense.DecimationFilter;
 import com.intel.realsense.librealsense.DeviceList;
 import com.intel.realsense.librealsense.DeviceListener;
+import com.intel.realsense.librealsense.Extension;
+import com.intel.realsense.librealsense.FilterPipeline;
 import com.intel.realsense.librealsense.Frame;
+import com.intel.realsense.librealsense.FrameCallback;
 import com.intel.realsense.librealsense.FrameReleaser;
 import com.intel.realsense.librealsense.FrameSet;
 import com.intel.realsense.librealsense.GLRsSurfaceView;
 import com.intel.realsense.librealsense.HoleFillingFilter;
 import com.intel.realsense.librealsense.Option;
-import com.intel.realsense.librealsense.Pipeline;
+import com.intel.realsense.librealsense.OverflowPolicy;
 import com.intel.realsense.librealsense.PipelineProfile;
 import com.intel.realsense.librealsense.Pointcloud;
 import com.intel.realsense.librealsense.RsContext;
 import com.intel.realsense.librealsense.SpatialFilter;
 import com.intel.realsense.librealsense.StreamFormat;
 import com.intel.realsense.librealsense.StreamType;
+import com.intel.realsense.librealsense.StreamingEngine;
 import com.intel.realsense.librealsense.TemporalFilter;
 import com.intel.realsense.librealsense.ThresholdFilter;
 
@@ -44,10 +46,9 @@ public class MainActivity extends AppCompatActivity {
     private TextView mBackGroundText;
     private GLRsSurfaceView mGLSurfaceViewOrg;
     private GLRsSurfaceView mGLSurfaceViewProcessed;
-    private boolean mIsStreaming = false;
-    private final Handler mHandler = new Handler();
 
-    private Pipeline mPipeline;
+    // waits for frames on its own thread, the frames are processed on the consumer thread instead of the UI thread
+    private StreamingEngine mEngine;
 
     //filters
     private Align mAlign;
@@ -59,6 +60,7 @@ public class MainActivity extends AppCompatActivity {
     private TemporalFilter mTemporalFilter;
     private ThresholdFilter mThresholdFilter;
     private SpatialFilter mSpatialFilter;
+    private FilterPipeline mFilterPipeline;
 
     private RsContext mRsContext;
 
@@ -127,7 +129,7 @@ public class MainActivity extends AppCompatActivity {
         if(mRsContext != null)
             mRsContext.close();
         stop();
-        mPipeline.close();
+        mEngine.close();
     }
 
     private void init(){
@@ -139,7 +141,8 @@ public class MainActivity extends AppCompatActivity {
         mRsContext = new RsContext();
         mRsContext.setDevicesChangedCallback(mListener);
 
-        mPipeline = new Pipeline();
+        mEngine = new StreamingEngine(mEngineListener);
+        mEngine.addConsumer("process", this::onFrameSet);
 
         //init filters
         mAlign = new Align(StreamType.COLOR);
@@ -158,6 +161,13 @@ public class MainActivity extends AppCompatActivity {
 
         mDecimationFilter.setValue(Option.FILTER_MAGNITUDE, 8);
 
+        //run the processing chain as a pipeline, each stage on its own worker thread
+        mFilterPipeline = new FilterPipeline(2, OverflowPolicy.DROP_OLDEST)
+                .addStage(mDecimationFilter, mHoleFillingFilter)
+                .addStage(mTemporalFilter)
+                .addStage(mSpatialFilter, mThresholdFilter)
+                .addStage(mColorizerProcessed, mAlign);
+
         try(DeviceList dl = mRsContext.queryDevices()){
             if(dl.getDeviceCount() > 0) {
                 showConnectLabel(false);
@@ -188,75 +198,81 @@ public class MainActivity extends AppCompatActivity {
         }
     };
 
-    Runnable mStreaming = new Runnable() {
+    private FrameCallback mProcessedHandler = new FrameCallback() {
         @Override
-        public void run() {
-            try {
-                try(FrameReleaser fr = new FrameReleaser()){
-                    FrameSet frames = mPipeline.waitForFrames().releaseWith(fr);
-                    FrameSet orgSet = frames.applyFilter(mColorizerOrg).releaseWith(fr);
-                    FrameSet processedSet = frames.applyFilter(mDecimationFilter).releaseWith(fr).
-                            applyFilter(mHoleFillingFilter).releaseWith(fr).
-                            applyFilter(mTemporalFilter).releaseWith(fr).
-                            applyFilter(mSpatialFilter).releaseWith(fr).
-                            applyFilter(mThresholdFilter).releaseWith(fr).
-                            applyFilter(mColorizerProcessed).releaseWith(fr).
-                            applyFilter(mAlign).releaseWith(fr);
-                    try(Frame org = orgSet.first(StreamType.DEPTH, StreamFormat.RGB8).releaseWith(fr)){
-                        try(Frame processed = processedSet.first(StreamType.DEPTH, StreamFormat.RGB8).releaseWith(fr)){
-                            mGLSurfaceViewOrg.upload(org);
-                            mGLSurfaceViewProcessed.upload(processed);
-                        }
-                    }
-                }
-                mHandler.post(mStreaming);
-            }
-            catch (Exception e) {
-                Log.e(TAG, "streaming, error: " + e.getMessage());
+        public void onFrame(Frame f) {
+            FrameSet processedSet = f.as(Extension.FRAMESET);
+            try(Frame processed = processedSet.first(StreamType.DEPTH, StreamFormat.RGB8)){
+                if(processed != null)
+                    mGLSurfaceViewProcessed.upload(processed);
             }
         }
     };
 
+    private StreamingEngine.Listener mEngineListener = new StreamingEngine.Listener() {
+        @Override
+        public void onStateChanged(StreamingEngine.State state) {
+            Log.d(TAG, "streaming state: " + state);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            Log.e(TAG, "streaming, error: " + e.getMessage());
+            // the engine already stopped, nothing feeds the filters any more
+            mFilterPipeline.stop();
+        }
+    };
+
+    // called on the consumer thread, the frameset is closed by the engine when this returns
+    private void onFrameSet(FrameSet frames) {
+        try(FrameReleaser fr = new FrameReleaser()){
+            mFilterPipeline.submit(frames);
+            FrameSet orgSet = frames.applyFilter(mColorizerOrg).releaseWith(fr);
+            try(Frame org = orgSet.first(StreamType.DEPTH, StreamFormat.RGB8).releaseWith(fr)){
+                mGLSurfaceViewOrg.upload(org);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void configAndStart() throws Exception {
-        try(Config config  = new Config())
-        {
+        // try statement needed here to release resources allocated by the StreamingEngine:start() method
+        try(PipelineProfile pp = mEngine.start(config -> {
             config.enableStream(StreamType.DEPTH, 640, 480);
             config.enableStream(StreamType.COLOR, 640, 480);
-            // try statement needed here to release resources allocated by the Pipeline:start() method
-            try(PipelineProfile pp = mPipeline.start(config)){}
-        }
+        })){}
     }
 
     private synchronized void start() {
-        if(mIsStreaming)
+        if(mEngine.getState() != StreamingEngine.State.STOPPED)
             return;
         try{
             Log.d(TAG, "try start streaming");
             mGLSurfaceViewOrg.clear();
             mGLSurfaceViewProcessed.clear();
+            // the filter pipeline must run before the first frameset is submitted
+            mFilterPipeline.start(mProcessedHandler);
             configAndStart();
-            mIsStreaming = true;
-            mHandler.post(mStreaming);
             Log.d(TAG, "streaming started successfully");
         } catch (Exception e) {
+            mFilterPipeline.stop();
             Log.d(TAG, "failed to start streaming");
         }
     }
 
     private synchronized void stop() {
-        if(!mIsStreaming)
+        if(mEngine.getState() == StreamingEngine.State.STOPPED)
             return;
         try {
             Log.d(TAG, "try stop streaming");
-            mIsStreaming = false;
-            mHandler.removeCallbacks(mStreaming);
-            mPipeline.stop();
+            mEngine.stop();
+            mFilterPipeline.stop();
             Log.d(TAG, "streaming stopped successfully");
             mGLSurfaceViewOrg.clear();
             mGLSurfaceViewProcessed.clear();
         }  catch (Exception e) {
             Log.d(TAG, "failed to stop streaming");
-            mPipeline = null;
             mColorizerOrg.close();
             mColorizerProcessed.close();
         }
@@ -12,16 +12,25 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.intel.realsense.librealsense.BagFileInfo;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ClipListActivity extends AppCompatActivity {
 
     private List<String> clipList = new ArrayList<>();
+    // 列表显示的文字：文件名，读取完成后附加时长和各个流的信息
+    private List<String> clipLabels = new ArrayList<>();
     private ArrayAdapter<String> clipAdapter;
+    // 在后台线程读取 .bag 索引，不阻塞 UI 线程
+    private final ExecutorService clipDescriber = Executors.newSingleThreadExecutor();
     private String currentJobName;
     private String currentTaskName;
     private static final String PREF_NAME = "JobPrefs";
@@ -45,8 +54,9 @@ public class ClipListActivity extends AppCompatActivity {
         loadClips();
 
         // 初始化 ListView 的适配器
-        clipAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, clipList);
+        clipAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, clipLabels);
         clipListView.setAdapter(clipAdapter);
+        refreshLabels();
 
         // 点击录制按钮，跳转到 MainActivity 进行视频录制
         recordClipFab.setOnClickListener(v -> {
@@ -80,6 +90,56 @@ public class ClipListActivity extends AppCompatActivity {
         clipList.addAll(clips);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        clipDescriber.shutdownNow();
+    }
+
+    /**
+     * 先显示文件名，再在后台逐个读取 Clip 的摘要
+     */
+    private void refreshLabels() {
+        clipLabels.clear();
+        for (String path : clipList)
+            clipLabels.add(new File(path).getName());
+        clipAdapter.notifyDataSetChanged();
+        for (int i = 0; i < clipList.size(); i++)
+            describeAsync(i, clipList.get(i));
+    }
+
+    private void describeAsync(int position, String path) {
+        clipDescriber.execute(() -> {
+            String label = new File(path).getName() + describe(path);
+            runOnUiThread(() -> {
+                // 列表在读取期间可能已经改变
+                if (position >= clipList.size() || !clipList.get(position).equals(path))
+                    return;
+                clipLabels.set(position, label);
+                clipAdapter.notifyDataSetChanged();
+            });
+        });
+    }
+
+    /**
+     * 只读取文件索引，列表不显示缩略图，所以不解码任何帧
+     */
+    private static String describe(String path) {
+        try {
+            BagFileInfo info = BagFileInfo.open(path, false);
+            StringBuilder sb = new StringBuilder(String.format(Locale.US, "\n%.1f s", info.getDurationNanos() / 1e9));
+            for (BagFileInfo.StreamInfo stream : info.getStreams()) {
+                sb.append(", ").append(stream.getType().name());
+                if (stream.getWidth() > 0)
+                    sb.append(' ').append(stream.getWidth()).append('x').append(stream.getHeight());
+                sb.append(String.format(Locale.US, " %d frames", stream.getFrameCount()));
+            }
+            return sb.toString();
+        } catch (RuntimeException e) {
+            return "";
+        }
+    }
+
     /**
      * 保存当前 Task 的视频列表
      */
@@ -115,7 +175,7 @@ public class ClipListActivity extends AppCompatActivity {
         clipList.remove(position);
         saveClips(); // 更新保存
         runOnUiThread(() -> {
-            clipAdapter.notifyDataSetChanged(); // 刷新列表
+            refreshLabels(); // 刷新列表
             Toast.makeText(this, "Clip deleted: " + clipName, Toast.LENGTH_SHORT).show();
         });
     }
@@ -131,7 +191,7 @@ public class ClipListActivity extends AppCompatActivity {
             if (clipPath != null) {
                 clipList.add(clipPath);
                 saveClips(); // 保存视频路径
-                clipAdapter.notifyDataSetChanged(); // 更新列表
+                refreshLabels(); // 更新列表
                 Toast.makeText(this, "Clip added: " + clipPath, Toast.LENGTH_SHORT).show();
             } else {
                 Toast.makeText(this, "No clip path received!", Toast.LENGTH_SHORT).show();
@@ -7,7 +7,6 @@ import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.os.Environment;
-import android.os.Handler;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
@@ -33,6 +32,8 @@ import java.io.File;
 import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
     private static final String TAG = "librs recording example";
@@ -46,9 +47,14 @@ public class MainActivity extends AppCompatActivity {
     private TextView mBackGroundText;
     private GLRsSurfaceView mGLSurfaceView;
     private boolean mIsStreaming = false;
-    private final Handler mHandler = new Handler();
+    // frames are processed here instead of on the librealsense threads, so pose detection can't stall the sensors
+    private final ExecutorService mFrameExecutor = Executors.newSingleThreadExecutor();
 
     private Pipeline mPipeline;
+    // the recorder of the running pipeline, pausing it ends a clip without restarting the sensors
+    private Device mDevice;
+    // records from the start of streaming, paused while no clip is recorded
+    private RecordDevice mRecorder;
     private Colorizer mColorizer;
     private RsContext mRsContext;
 
@@ -95,6 +101,7 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        mFrameExecutor.shutdown();
         mGLSurfaceView.close();
     }
 
@@ -123,7 +130,7 @@ public class MainActivity extends AppCompatActivity {
         try (DeviceList dl = mRsContext.queryDevices()) {
             if (dl.getDeviceCount() > 0) {
                 showConnectLabel(false);
-                start(false);
+                start();
             }
         }
     }
@@ -203,62 +210,58 @@ public class MainActivity extends AppCompatActivity {
         }
     } //1210
 
-    Runnable mStreaming = new Runnable() {
-        @Override
-        public void run() {
-            try {
-                try (FrameSet frames = mPipeline.waitForFrames()) {
-                    mGLSurfaceView.upload(frames);
-
-                    Frame colorFrame = frames.first(StreamType.COLOR);
-                    if (colorFrame != null) {
-                        detectPose(colorFrame);
-                    }
-                    try (Frame gyroFrame = frames.first(StreamType.GYRO)) {
-                        if (gyroFrame != null && gyroFrame.is(Extension.MOTION_FRAME)) {
-                            MotionFrame motion = gyroFrame.as(Extension.MOTION_FRAME);
-                            Float3 gyroData = motion.getMotionData(); // 提取三轴角速度
-                            double angularVelocity = Math.sqrt(
-                                    Math.pow(gyroData.x, 2) +
-                                            Math.pow(gyroData.y, 2) +
-                                            Math.pow(gyroData.z, 2)
-                            );
-                            double accelX = gyroData.x;
-                            double accelY = gyroData.y;
-                            double accelZ = gyroData.z;
-                            double tiltAngle = Math.toDegrees(Math.acos(accelZ / Math.sqrt(accelX * accelX + accelY * accelY + accelZ * accelZ)));
-
-                            if (angularVelocity > 5.0f) {
-                                runOnUiThread(() -> showCustomDialog("ATTENTION",
-                                        "The rotation of camera is too fast!\nAngular Velocity: " + angularVelocity));
-                            }
-                        }
+    private void onFrameSet(FrameSet frames) {
+        try {
+            mGLSurfaceView.upload(frames);
+
+            try (Frame colorFrame = frames.first(StreamType.COLOR)) {
+                if (colorFrame != null) {
+                    detectPose(colorFrame);
+                }
+            }
+
+            try (Frame gyroFrame = frames.first(StreamType.GYRO)) {
+                if (gyroFrame != null && gyroFrame.is(Extension.MOTION_FRAME)) {
+                    MotionFrame motion = gyroFrame.as(Extension.MOTION_FRAME);
+                    Float3 gyroData = motion.getMotionData(); // 提取三轴角速度
+                    double angularVelocity = Math.sqrt(
+                            Math.pow(gyroData.x, 2) +
+                                    Math.pow(gyroData.y, 2) +
+                                    Math.pow(gyroData.z, 2)
+                    );
+                    double accelX = gyroData.x;
+                    double accelY = gyroData.y;
+                    double accelZ = gyroData.z;
+                    double tiltAngle = Math.toDegrees(Math.acos(accelZ / Math.sqrt(accelX * accelX + accelY * accelY + accelZ * accelZ)));
+
+                    if (angularVelocity > 5.0f) {
+                        runOnUiThread(() -> showCustomDialog("ATTENTION",
+                                "The rotation of camera is too fast!\nAngular Velocity: " + angularVelocity));
                     }
+                }
+            }
 
-                    try (Frame accelFrame = frames.first(StreamType.ACCEL)) {
-                        if (accelFrame != null && accelFrame.is(Extension.MOTION_FRAME)) {
-                            MotionFrame motion = accelFrame.as(Extension.MOTION_FRAME);
-                            Float3 accelData = motion.getMotionData(); // 提取三轴加速度
-                            double accelerationMagnitude = Math.sqrt(
-                                    Math.pow(accelData.x, 2) +
-                                            Math.pow(accelData.y, 2) +
-                                            Math.pow(accelData.z, 2)
-                            );
-
-                            // 如果线速度超过阈值，触发警告
-                            if (accelerationMagnitude > 12.0f) {
-                                runOnUiThread(() -> showCustomDialog("ATTENTION",
-                                        "The movement of camera is too fast!\nAcceleration: " + accelerationMagnitude));
-                            }
-                        }
+            try (Frame accelFrame = frames.first(StreamType.ACCEL)) {
+                if (accelFrame != null && accelFrame.is(Extension.MOTION_FRAME)) {
+                    MotionFrame motion = accelFrame.as(Extension.MOTION_FRAME);
+                    Float3 accelData = motion.getMotionData(); // 提取三轴加速度
+                    double accelerationMagnitude = Math.sqrt(
+                            Math.pow(accelData.x, 2) +
+                                    Math.pow(accelData.y, 2) +
+                                    Math.pow(accelData.z, 2)
+                    );
+
+                    // 如果线速度超过阈值，触发警告
+                    if (accelerationMagnitude > 12.0f) {
+                        runOnUiThread(() -> showCustomDialog("ATTENTION",
+                                "The movement of camera is too fast!\nAcceleration: " + accelerationMagnitude));
                     }
                 }
-                mHandler.post(mStreaming);
-            } catch (Exception e) {
-                Log.e(TAG, "Streaming error: " + e.getMessage());
             }
+        } catch (Exception e) {
+            Log.e(TAG, "Streaming error: " + e.getMessage());
         }
-    };
+    }
 
     private void detectPose(Frame colorFrame) {
         try {
@@ -296,28 +299,57 @@ public class MainActivity extends AppCompatActivity {
         return file.getAbsolutePath();
     }
 
-    private void toggleRecording() {
-        stop();
-        start(mStartRecordFab.getVisibility() == View.VISIBLE);
+    // the recorder takes the frames between the start of streaming and the first clip, they are discarded
+    private String getPreviewFilePath() {
+        return new File(getCacheDir(), "preview.bag").getAbsolutePath();
+    }
+
+    private void deletePreviewFile(String path) {
+        if (path.equals(getPreviewFilePath()) && !new File(path).delete())
+            Log.w(TAG, "failed to delete " + path);
+    }
+
+    private synchronized void toggleRecording() {
+        if (mRecorder == null) return;
+        boolean record = mStartRecordFab.getVisibility() == View.VISIBLE;
+        try {
+            if (record) {
+                // every clip goes to a new file, the recorder is paused so the clip starts with the first frame
+                // after resume. The pipeline keeps streaming.
+                String previous = mRecorder.getFileName();
+                mRecorder.switchFile(getFilePath());
+                mRecorder.resume();
+                deletePreviewFile(previous);
+            } else {
+                // the clip ends here, its file is finalized by the next switch or when streaming stops
+                mRecorder.pause();
+                Log.i(TAG, "recorded to " + mRecorder.getFileName());
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to " + (record ? "start" : "stop") + " the clip: " + e.getMessage());
+            return;
+        }
         runOnUiThread(() -> {
             mStartRecordFab.setVisibility(mStartRecordFab.getVisibility() == View.GONE ? View.VISIBLE : View.GONE);
             mStopRecordFab.setVisibility(mStopRecordFab.getVisibility() == View.GONE ? View.VISIBLE : View.GONE);
         });
     }
 
-    private synchronized void start(boolean record) {
+    private synchronized void start() {
         if (mIsStreaming) return;
-        try {
+        try (Config config = new Config()) {
             mGLSurfaceView.clear();
-            Config config = new Config();
             config.enableStream(StreamType.DEPTH, width, height);
             config.enableStream(StreamType.COLOR, width, height);
             config.enableStream(StreamType.GYRO, StreamFormat.MOTION_XYZ32F);
             config.enableStream(StreamType.ACCEL, StreamFormat.MOTION_XYZ32F);
-            if (record) config.enableRecordToFile(getFilePath());
-            mPipeline.start(config);
+            config.enableRecordToFile(getPreviewFilePath());
+            try (PipelineProfile pp = mPipeline.startWithFrameSets(config, mFrameExecutor, 2, OverflowPolicy.DROP_OLDEST, this::onFrameSet)) {
+                mDevice = pp.getDevice();
+                mRecorder = mDevice.as(Extension.RECORD);
+                mRecorder.pause();
+            }
             mIsStreaming = true;
-            mHandler.post(mStreaming);
         } catch (Exception e) {
             Log.e(TAG, "Failed to start streaming: " + e.getMessage());
         }
@@ -327,8 +359,24 @@ public class MainActivity extends AppCompatActivity {
         if (!mIsStreaming) return;
         try {
             mIsStreaming = false;
-            mHandler.removeCallbacks(mStreaming);
+            if (mRecorder != null) {
+                RecordDevice.WriteStats stats = mRecorder.getWriteStats();
+                Log.i(TAG, "recorded frames: " + stats.framesWritten + ", dropped: " + stats.framesDropped
+                        + ", peak pending bytes: " + stats.maxBytesPending
+                        + ", write rate: " + (long) stats.getWriteBytesPerSecond() + " B/s");
+            }
             mPipeline.stop();
+            if (mRecorder != null) {
+                String last = mRecorder.getFileName();
+                mRecorder.close();
+                mRecorder = null;
+                deletePreviewFile(last);
+            }
+            if (mDevice != null) {
+                mDevice.close();
+                mDevice = null;
+            }
+            Log.i(TAG, "dropped framesets: " + mPipeline.getDroppedFrameSets());
             mGLSurfaceView.clear();
         } catch (Exception e) {
             Log.e(TAG, "Failed to stop streaming: " + e.getMessage());
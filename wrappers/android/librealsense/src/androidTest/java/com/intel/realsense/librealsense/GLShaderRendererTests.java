@@ -0,0 +1,148 @@
+package com.intel.realsense.librealsense;
+
+import android.opengl.EGL14;
+import android.opengl.EGLConfig;
+import android.opengl.EGLContext;
+import android.opengl.EGLDisplay;
+import android.opengl.EGLSurface;
+import android.opengl.GLES20;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Instrumented test, which will execute on an Android device, no camera is required.
+ * Draws into an offscreen pbuffer, so it also runs on emulators with a software rasterizer.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class GLShaderRendererTests {
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 48;
+    private static final int TOLERANCE = 8;
+
+    private EGLDisplay mDisplay = EGL14.EGL_NO_DISPLAY;
+    private EGLContext mContext = EGL14.EGL_NO_CONTEXT;
+    private EGLSurface mSurface = EGL14.EGL_NO_SURFACE;
+
+    @Before
+    public void setUp() {
+        mDisplay = EGL14.eglGetDisplay(EGL14.EGL_DEFAULT_DISPLAY);
+        int[] version = new int[2];
+        assumeTrue(EGL14.eglInitialize(mDisplay, version, 0, version, 1));
+
+        int[] attributes = {
+                EGL14.EGL_RENDERABLE_TYPE, EGL14.EGL_OPENGL_ES2_BIT,
+                EGL14.EGL_SURFACE_TYPE, EGL14.EGL_PBUFFER_BIT,
+                EGL14.EGL_RED_SIZE, 8,
+                EGL14.EGL_GREEN_SIZE, 8,
+                EGL14.EGL_BLUE_SIZE, 8,
+                EGL14.EGL_ALPHA_SIZE, 8,
+                EGL14.EGL_NONE
+        };
+        EGLConfig[] configs = new EGLConfig[1];
+        int[] count = new int[1];
+        assumeTrue(EGL14.eglChooseConfig(mDisplay, attributes, 0, configs, 0, 1, count, 0) && count[0] > 0);
+
+        int[] contextAttributes = { EGL14.EGL_CONTEXT_CLIENT_VERSION, 2, EGL14.EGL_NONE };
+        mContext = EGL14.eglCreateContext(mDisplay, configs[0], EGL14.EGL_NO_CONTEXT, contextAttributes, 0);
+        int[] surfaceAttributes = { EGL14.EGL_WIDTH, WIDTH, EGL14.EGL_HEIGHT, HEIGHT, EGL14.EGL_NONE };
+        mSurface = EGL14.eglCreatePbufferSurface(mDisplay, configs[0], surfaceAttributes, 0);
+        assumeTrue(mContext != EGL14.EGL_NO_CONTEXT && mSurface != EGL14.EGL_NO_SURFACE);
+        assertTrue(EGL14.eglMakeCurrent(mDisplay, mSurface, mSurface, mContext));
+    }
+
+    @After
+    public void tearDown() {
+        if(mDisplay == EGL14.EGL_NO_DISPLAY)
+            return;
+        EGL14.eglMakeCurrent(mDisplay, EGL14.EGL_NO_SURFACE, EGL14.EGL_NO_SURFACE, EGL14.EGL_NO_CONTEXT);
+        if(mSurface != EGL14.EGL_NO_SURFACE)
+            EGL14.eglDestroySurface(mDisplay, mSurface);
+        if(mContext != EGL14.EGL_NO_CONTEXT)
+            EGL14.eglDestroyContext(mDisplay, mContext);
+        EGL14.eglTerminate(mDisplay);
+    }
+
+    private static ByteBuffer fill(byte[] pattern) {
+        ByteBuffer rv = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 2).order(ByteOrder.nativeOrder());
+        while(rv.hasRemaining())
+            rv.put(pattern);
+        rv.position(0);
+        return rv;
+    }
+
+    // Injects a single frame through a software device, draws it and returns the color at the center of the surface.
+    private int[] render(StreamType type, StreamFormat format, ByteBuffer pixels) throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        ByteBuffer rgba = ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder());
+
+        try(SoftwareDevice device = new SoftwareDevice(); GLShaderRenderer renderer = new GLShaderRenderer()) {
+            renderer.setDepthRange(0.f, 2.f);
+            SoftwareSensor sensor = device.addSensor("Sensor");
+            sensor.addReadOnlyOption(Option.DEPTH_UNITS, 0.001f);
+            VideoStreamProfile profile = sensor.addVideoStream(type, 0, 0, WIDTH, HEIGHT,
+                    30, 2, format, new Intrinsic(), true);
+
+            sensor.openSensor(profile);
+            sensor.start(f -> {
+                renderer.upload(f);
+                received.countDown();
+            });
+            sensor.onVideoFrame(pixels, WIDTH * 2, 2, 0, TimestampDomain.HARDWARE_CLOCK, 1,
+                    profile, buffer -> {});
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+
+            renderer.onSurfaceCreated(null, null);
+            renderer.onSurfaceChanged(null, WIDTH, HEIGHT);
+            renderer.onDrawFrame(null);
+            GLES20.glReadPixels(WIDTH / 2, HEIGHT / 2, 1, 1, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, rgba);
+            assertEquals(GLES20.GL_NO_ERROR, GLES20.glGetError());
+
+            sensor.stop();
+            sensor.closeSensor();
+        }
+        return new int[]{ rgba.get(0) & 0xff, rgba.get(1) & 0xff, rgba.get(2) & 0xff };
+    }
+
+    private static void assertColor(int r, int g, int b, int[] actual) {
+        String message = String.format("expected (%d, %d, %d) but was (%d, %d, %d)", r, g, b, actual[0], actual[1], actual[2]);
+        assertTrue(message, Math.abs(actual[0] - r) <= TOLERANCE);
+        assertTrue(message, Math.abs(actual[1] - g) <= TOLERANCE);
+        assertTrue(message, Math.abs(actual[2] - b) <= TOLERANCE);
+    }
+
+    @Test
+    public void depthIsColorizedByTheShader() throws Exception {
+        // 1000 units of 1mm in a 0-2m range is the middle of the colormap
+        int[] color = render(StreamType.DEPTH, StreamFormat.Z16, fill(new byte[]{ (byte) 0xe8, 0x03 }));
+        assertColor(254, 254, 1, color);
+    }
+
+    @Test
+    public void missingDepthIsBlack() throws Exception {
+        int[] color = render(StreamType.DEPTH, StreamFormat.Z16, fill(new byte[]{ 0, 0 }));
+        assertColor(0, 0, 0, color);
+    }
+
+    @Test
+    public void yuyvIsConvertedByTheShader() throws Exception {
+        // Y0 U Y1 V of BT.601 red and gray
+        assertColor(255, 0, 0, render(StreamType.COLOR, StreamFormat.YUYV, fill(new byte[]{ 81, 90, 81, (byte) 240 })));
+        assertColor(191, 191, 191, render(StreamType.COLOR, StreamFormat.YUYV, fill(new byte[]{ (byte) 180, (byte) 128, (byte) 180, (byte) 128 })));
+    }
+}
@@ -0,0 +1,68 @@
+package com.intel.realsense.librealsense;
+
+import android.os.Debug;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Instrumented test, which will execute on an Android device with a RealSense camera attached.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class JniFrameViewTests {
+    private static final int WARMUP_FRAMES = 30;
+    private static final int MEASURED_FRAMES = 100;
+
+    private static boolean hasDevice() {
+        try(RsContext ctx = new RsContext(); DeviceList devices = ctx.queryDevices()) {
+            return devices.getDeviceCount() > 0;
+        }
+    }
+
+    @Test
+    public void steadyStateStreamingDoesNotAllocate() throws Exception {
+        assumeTrue(hasDevice());
+
+        try(Pipeline pipeline = new Pipeline(); Config config = new Config()) {
+            config.enableStream(StreamType.DEPTH, StreamFormat.Z16);
+            pipeline.start(config).close();
+            try {
+                FrameSet frames = null;
+                Frame frame = null;
+                DepthFrame depth = null;
+
+                for(int i = 0; i < WARMUP_FRAMES; i++) {
+                    frames = pipeline.waitForFrames(5000, frames);
+                    frame = frames.first(StreamType.DEPTH, StreamFormat.Z16, frame);
+                    depth = DepthFrame.wrap(frame, depth);
+                    depth.getDistance(depth.getWidth() / 2, depth.getHeight() / 2);
+                    frame.close();
+                    frames.close();
+                }
+
+                Debug.resetThreadAllocCount();
+                Debug.startAllocCounting();
+                for(int i = 0; i < MEASURED_FRAMES; i++) {
+                    frames = pipeline.waitForFrames(5000, frames);
+                    frame = frames.first(StreamType.DEPTH, StreamFormat.Z16, frame);
+                    depth = DepthFrame.wrap(frame, depth);
+                    depth.getDistance(depth.getWidth() / 2, depth.getHeight() / 2);
+                    frame.close();
+                    frames.close();
+                }
+                Debug.stopAllocCounting();
+
+                assertEquals(0, Debug.getThreadAllocCount());
+            } finally {
+                pipeline.stop();
+            }
+        }
+    }
+}
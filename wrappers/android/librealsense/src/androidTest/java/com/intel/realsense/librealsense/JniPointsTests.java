@@ -0,0 +1,136 @@
+package com.intel.realsense.librealsense;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Instrumented test, which will execute on an Android device, no camera is required.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class JniPointsTests {
+    private static final int WIDTH = 16;
+    private static final int HEIGHT = 12;
+
+    private Pointcloud mPointcloud;
+    private Frame mOutput;
+    private Points mPoints;
+
+    // Builds a point cloud from a depth frame injected through a software device.
+    @Before
+    public void setUp() throws Exception {
+        ByteBuffer pixels = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 2).order(ByteOrder.nativeOrder());
+        for(int i = 0; i < WIDTH * HEIGHT; i++)
+            pixels.putShort((short) 1000);
+
+        AtomicReference<Frame> depth = new AtomicReference<>();
+        CountDownLatch received = new CountDownLatch(1);
+        try(SoftwareDevice device = new SoftwareDevice()) {
+            SoftwareSensor sensor = device.addSensor("Depth");
+            sensor.addReadOnlyOption(Option.DEPTH_UNITS, 0.001f);
+            Intrinsic intrinsic = new Intrinsic(WIDTH, HEIGHT, WIDTH / 2f, HEIGHT / 2f, 10, 10, 0, new float[5]);
+            VideoStreamProfile profile = sensor.addVideoStream(StreamType.DEPTH, 0, 0, WIDTH, HEIGHT,
+                    30, 2, StreamFormat.Z16, intrinsic, true);
+
+            sensor.openSensor(profile);
+            sensor.start(f -> {
+                depth.set(f.clone());
+                received.countDown();
+            });
+            sensor.onVideoFrame(pixels, WIDTH * 2, 2, 0, TimestampDomain.HARDWARE_CLOCK, 1,
+                    profile, buffer -> {});
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            sensor.stop();
+            sensor.closeSensor();
+        }
+
+        mPointcloud = new Pointcloud();
+        try(Frame d = depth.get()) {
+            mOutput = mPointcloud.process(d);
+            assertTrue(mOutput != d);
+        }
+        assertTrue(mOutput.is(Extension.POINTS));
+        mPoints = mOutput.as(Extension.POINTS);
+        assertEquals(WIDTH * HEIGHT, mPoints.getCount());
+    }
+
+    @After
+    public void tearDown() {
+        if(mOutput != null)
+            mOutput.close();
+        if(mPointcloud != null)
+            mPointcloud.close();
+    }
+
+    private static FloatBuffer floats(int count, ByteOrder order) {
+        return ByteBuffer.allocateDirect(count * 4).order(order).asFloatBuffer();
+    }
+
+    private static ByteOrder foreignOrder() {
+        return ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    @Test
+    public void verticesAreCopiedIntoNativeOrderBuffers() {
+        FloatBuffer dst = floats(WIDTH * HEIGHT * 3, ByteOrder.nativeOrder());
+        mPoints.getVertices(dst);
+        assertEquals(dst.capacity(), dst.position());
+        // every pixel is 1m away
+        assertEquals(1.f, dst.get(2), 1e-3f);
+    }
+
+    @Test
+    public void foreignByteOrderIsRejected() {
+        FloatBuffer vertices = floats(WIDTH * HEIGHT * 3, foreignOrder());
+        try {
+            mPoints.getVertices(vertices);
+            fail("a buffer in the wrong byte order was accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, vertices.position());
+        }
+
+        FloatBuffer coordinates = floats(WIDTH * HEIGHT * 2, foreignOrder());
+        try {
+            mPoints.getTextureCoordinates(coordinates);
+            fail("a buffer in the wrong byte order was accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, coordinates.position());
+        }
+    }
+
+    @Test
+    public void readOnlyBuffersAreRejected() {
+        FloatBuffer vertices = floats(WIDTH * HEIGHT * 3, ByteOrder.nativeOrder()).asReadOnlyBuffer();
+        try {
+            mPoints.getVertices(vertices);
+            fail("a read-only buffer was written");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, vertices.position());
+        }
+
+        ByteBuffer colors = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 4).asReadOnlyBuffer();
+        try {
+            mPoints.mapDepthColors(2.f, colors);
+            fail("a read-only buffer was written");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.intel.realsense.librealsense;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented test, which will execute on an Android device, no camera is required.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class JniSoftwareDeviceTests {
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 48;
+
+    @Test
+    public void injectedFrameIsDeliveredAndReleased() throws Exception {
+        ByteBuffer pixels = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 2).order(ByteOrder.nativeOrder());
+        for(int i = 0; i < WIDTH * HEIGHT; i++)
+            pixels.putShort((short) 1000);
+
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicInteger receivedNumber = new AtomicInteger(-1);
+        AtomicInteger receivedSize = new AtomicInteger(-1);
+
+        try(SoftwareDevice device = new SoftwareDevice()) {
+            SoftwareSensor sensor = device.addSensor("Depth");
+            sensor.addReadOnlyOption(Option.DEPTH_UNITS, 0.001f);
+            VideoStreamProfile profile = sensor.addVideoStream(StreamType.DEPTH, 0, 0, WIDTH, HEIGHT,
+                    30, 2, StreamFormat.Z16, new Intrinsic(), true);
+
+            sensor.openSensor(profile);
+            sensor.start(f -> {
+                receivedNumber.set(f.getNumber());
+                receivedSize.set(f.getDataSize());
+            });
+            sensor.onVideoFrame(pixels, WIDTH * 2, 2, 0, TimestampDomain.HARDWARE_CLOCK, 7,
+                    profile, buffer -> released.countDown());
+
+            assertTrue(released.await(5, TimeUnit.SECONDS));
+            sensor.stop();
+            sensor.closeSensor();
+        }
+
+        assertEquals(7, receivedNumber.get());
+        assertEquals(WIDTH * HEIGHT * 2, receivedSize.get());
+    }
+}
@@ -0,0 +1,174 @@
+package com.intel.realsense.librealsense;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Summary of a recording read from the bag index, for listing clips without creating a playback device.
+// Only the index and the stream info records are read, plus the first frame of one video stream as the thumbnail
+// when it is requested.
+public class BagFileInfo {
+    private static final StreamType[] sStreamTypes = StreamType.values();
+    private static final StreamFormat[] sStreamFormats = StreamFormat.values();
+    private static final int CACHE_SIZE = 64;
+
+    // a file that failed to open is cached as well, so a broken file is not read again until it changes
+    private static class CacheEntry {
+        private final long mLastModified;
+        private final long mLength;
+        private final BagFileInfo mInfo;
+        private final RuntimeException mError;
+
+        CacheEntry(long lastModified, long length, BagFileInfo info, RuntimeException error) {
+            mLastModified = lastModified;
+            mLength = length;
+            mInfo = info;
+            mError = error;
+        }
+    }
+
+    private static final Map<String, CacheEntry> sCache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public static class StreamInfo {
+        private int mType;
+        private int mIndex;
+        private int mFormat;
+        private int mWidth;
+        private int mHeight;
+        private int mFps;
+        private long mFrameCount;
+        private long mFirstFrameNanos;
+        private long mLastFrameNanos;
+
+        public StreamType getType() { return sStreamTypes[mType]; }
+        public int getIndex() { return mIndex; }
+        public StreamFormat getFormat() { return sStreamFormats[mFormat]; }
+        // 0 for motion and pose streams
+        public int getWidth() { return mWidth; }
+        public int getHeight() { return mHeight; }
+        public int getFps() { return mFps; }
+        public long getFrameCount() { return mFrameCount; }
+        // relative to the start of the recording
+        public long getFirstFrameNanos() { return mFirstFrameNanos; }
+        public long getLastFrameNanos() { return mLastFrameNanos; }
+    }
+
+    // The first recorded frame of a video stream, in the format of that stream.
+    public static class Thumbnail {
+        private final StreamInfo mStream;
+        private final byte[] mData;
+
+        Thumbnail(StreamInfo stream, byte[] data) {
+            mStream = stream;
+            mData = data;
+        }
+
+        public StreamInfo getStream() { return mStream; }
+        public int getWidth() { return mStream.getWidth(); }
+        public int getHeight() { return mStream.getHeight(); }
+        public StreamFormat getFormat() { return mStream.getFormat(); }
+        public byte[] getData() { return mData; }
+    }
+
+    private final String mPath;
+    private final long mDurationNanos;
+    private final List<StreamInfo> mStreams;
+    private final boolean mThumbnailRead;
+    private final Thumbnail mThumbnail;
+
+    private BagFileInfo(String path, boolean readThumbnail) {
+        mPath = path;
+        mThumbnailRead = readThumbnail;
+        long handle = nCreate(path, readThumbnail);
+        try {
+            mDurationNanos = nGetDuration(handle);
+            int count = nGetStreamsCount(handle);
+            List<StreamInfo> streams = new ArrayList<>(count);
+            for(int i = 0; i < count; i++) {
+                StreamInfo stream = new StreamInfo();
+                nGetStream(handle, i, stream);
+                streams.add(stream);
+            }
+            mStreams = Collections.unmodifiableList(streams);
+            int thumbnailStream = nGetThumbnailStream(handle);
+            mThumbnail = thumbnailStream < 0 ? null :
+                    new Thumbnail(streams.get(thumbnailStream), nGetThumbnailData(handle));
+        } finally {
+            nDelete(handle);
+        }
+    }
+
+    public static BagFileInfo open(String path) {
+        return open(path, true);
+    }
+
+    // Results, and failures, are cached until the file is modified, so listing a folder again does not touch
+    // the files. Without a thumbnail only the index is read, a list that shows no thumbnails should skip it.
+    // Reading a large recording can take a while, call this off the UI thread.
+    public static BagFileInfo open(String path, boolean withThumbnail) {
+        File file = new File(path);
+        long lastModified = file.lastModified();
+        long length = file.length();
+        synchronized (sCache) {
+            CacheEntry cached = sCache.get(path);
+            if(cached != null && cached.mLastModified == lastModified && cached.mLength == length) {
+                if(cached.mError != null)
+                    throw cached.mError;
+                if(cached.mInfo.mThumbnailRead || !withThumbnail)
+                    return cached.mInfo;
+            }
+        }
+        BagFileInfo rv = null;
+        RuntimeException error = null;
+        try {
+            rv = new BagFileInfo(path, withThumbnail);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        synchronized (sCache) {
+            sCache.put(path, new CacheEntry(lastModified, length, rv, error));
+        }
+        if(error != null)
+            throw error;
+        return rv;
+    }
+
+    public static void clearCache() {
+        synchronized (sCache) {
+            sCache.clear();
+        }
+    }
+
+    public String getPath() { return mPath; }
+    public long getDurationNanos() { return mDurationNanos; }
+    public List<StreamInfo> getStreams() { return mStreams; }
+    // null when the recording has no video frames or it was opened without a thumbnail
+    public Thumbnail getThumbnail() { return mThumbnail; }
+
+    public long getFrameCount() {
+        long rv = 0;
+        for(StreamInfo stream : mStreams)
+            rv += stream.getFrameCount();
+        return rv;
+    }
+
+    static {
+        System.loadLibrary("realsense2");
+    }
+
+    private static native long nCreate(String path, boolean readThumbnail);
+    private static native void nDelete(long handle);
+    private static native long nGetDuration(long handle);
+    private static native int nGetStreamsCount(long handle);
+    private static native void nGetStream(long handle, int index, StreamInfo info);
+    private static native int nGetThumbnailStream(long handle);
+    private static native byte[] nGetThumbnailData(long handle);
+}
@@ -0,0 +1,281 @@
+package com.intel.realsense.librealsense;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the same filter chain over a list of recordings. Every file is played in non real time mode by its own
+// worker with its own pipeline and chain, so offline jobs scale with the cores instead of one clip at a time.
+public class BatchProcessor implements AutoCloseable {
+    private static final String TAG = "librs BatchProcessor";
+    private static final int WAIT_TIMEOUT_MILLISECONDS = 100;
+    // rough native footprint of one playing file: the frame pool of the playback device plus the filter outputs
+    public static final long DEFAULT_MEMORY_PER_FILE = 256L * 1024 * 1024;
+
+    public interface ChainFactory {
+        // Called on the worker of each file. Filters that are AutoCloseable are closed when the file is done.
+        List<FilterInterface> create(String path) throws Exception;
+    }
+
+    public interface Sink {
+        // Called on the worker of the file with the output of the chain, valid for the call duration only.
+        void onFrameSet(String path, FrameSet frames);
+    }
+
+    public static class FileResult {
+        private final String mPath;
+        private long mFrameSets;
+        private long mBytes;
+        private long mRecordingNanos;
+        private long mProcessingNanos;
+        private Exception mError;
+
+        FileResult(String path) {
+            mPath = path;
+        }
+
+        public String getPath() { return mPath; }
+        public long getFrameSetCount() { return mFrameSets; }
+        // size of the frames read from the file, before filtering
+        public long getBytes() { return mBytes; }
+        public long getRecordingNanos() { return mRecordingNanos; }
+        public long getProcessingNanos() { return mProcessingNanos; }
+        // null when the file was processed to the end
+        public Exception getError() { return mError; }
+
+        public double getFrameSetsPerSecond() {
+            return mProcessingNanos == 0 ? 0 : mFrameSets * 1e9 / mProcessingNanos;
+        }
+
+        // recorded time processed per wall clock time, above 1 is faster than real time
+        public double getSpeedFactor() {
+            return mProcessingNanos == 0 ? 0 : (double) mRecordingNanos / mProcessingNanos;
+        }
+    }
+
+    public static class Report {
+        private final List<FileResult> mResults;
+        private final long mWallNanos;
+        private final int mConcurrency;
+
+        Report(List<FileResult> results, long wallNanos, int concurrency) {
+            mResults = Collections.unmodifiableList(results);
+            mWallNanos = wallNanos;
+            mConcurrency = concurrency;
+        }
+
+        // in the order of the input paths
+        public List<FileResult> getResults() { return mResults; }
+        public long getWallNanos() { return mWallNanos; }
+        public int getConcurrency() { return mConcurrency; }
+
+        public long getFrameSetCount() {
+            long rv = 0;
+            for(FileResult r : mResults)
+                rv += r.mFrameSets;
+            return rv;
+        }
+
+        public long getBytes() {
+            long rv = 0;
+            for(FileResult r : mResults)
+                rv += r.mBytes;
+            return rv;
+        }
+
+        public int getFailedCount() {
+            int rv = 0;
+            for(FileResult r : mResults)
+                if(r.mError != null)
+                    rv++;
+            return rv;
+        }
+
+        public double getFrameSetsPerSecond() {
+            return mWallNanos == 0 ? 0 : getFrameSetCount() * 1e9 / mWallNanos;
+        }
+
+        public double getBytesPerSecond() {
+            return mWallNanos == 0 ? 0 : getBytes() * 1e9 / mWallNanos;
+        }
+    }
+
+    private final int mConcurrency;
+    private volatile boolean mCancelled = false;
+    private ExecutorService mExecutor;
+
+    public BatchProcessor() {
+        this(getDefaultConcurrency(DEFAULT_MEMORY_PER_FILE));
+    }
+
+    public BatchProcessor(int concurrency) {
+        if(concurrency < 1)
+            throw new IllegalArgumentException("concurrency must be positive");
+        mConcurrency = concurrency;
+    }
+
+    // One file per core, as long as the available memory can hold that many playing files.
+    public static int getDefaultConcurrency(long memoryPerFile) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long available = getAvailableMemory();
+        if(available <= 0 || memoryPerFile <= 0)
+            return cores;
+        return (int) Math.max(1, Math.min(cores, available / memoryPerFile));
+    }
+
+    private static long getAvailableMemory() {
+        try(BufferedReader reader = new BufferedReader(new FileReader("/proc/meminfo"))) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(!line.startsWith("MemAvailable:"))
+                    continue;
+                String[] parts = line.trim().split("\\s+");
+                return Long.parseLong(parts[1]) * 1024;
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "failed to read available memory: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    public int getConcurrency() {
+        return mConcurrency;
+    }
+
+    // Blocks until all files were processed or the batch was cancelled. A failing file does not stop the batch,
+    // its error is reported in its result.
+    public Report process(List<String> paths, ChainFactory factory, Sink sink) throws InterruptedException {
+        int concurrency = Math.max(1, Math.min(mConcurrency, paths.size()));
+        AtomicInteger threadIndex = new AtomicInteger();
+        synchronized (this) {
+            if(mExecutor != null)
+                throw new IllegalStateException("a batch is already running");
+            mCancelled = false;
+            mExecutor = Executors.newFixedThreadPool(concurrency,
+                    r -> new Thread(r, "BatchProcessor-" + threadIndex.getAndIncrement()));
+        }
+
+        long start = System.nanoTime();
+        List<FileResult> results = new ArrayList<>(paths.size());
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(paths.size());
+            for(String path : paths)
+                futures.add(mExecutor.submit(() -> processFile(path, factory, sink)));
+            for(Future<FileResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // processFile reports its failures in the result
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        } finally {
+            synchronized (this) {
+                mExecutor.shutdownNow();
+                mExecutor = null;
+            }
+        }
+        return new Report(results, System.nanoTime() - start, concurrency);
+    }
+
+    // Stops the running batch, files in progress end early and files not started yet are skipped.
+    public void cancel() {
+        mCancelled = true;
+    }
+
+    private FileResult processFile(String path, ChainFactory factory, Sink sink) {
+        FileResult rv = new FileResult(path);
+        if(mCancelled)
+            return rv;
+
+        long start = System.nanoTime();
+        List<FilterInterface> filters = null;
+        try(Pipeline pipeline = new Pipeline(); Config config = new Config()) {
+            filters = factory.create(path);
+            config.enableDeviceFromFile(path, false);
+            try(PipelineProfile profile = pipeline.start(config); Device device = profile.getDevice()) {
+                try {
+                    PlaybackDevice playback = device.as(Extension.PLAYBACK);
+                    // frames are read as fast as the chain consumes them instead of at the recorded rate
+                    playback.setRealTime(false);
+                    rv.mRecordingNanos = playback.getDuration();
+                    process(pipeline, playback, filters, sink, rv);
+                } finally {
+                    pipeline.stop();
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "failed to process " + path + ": " + e.getMessage());
+            rv.mError = e;
+        } finally {
+            if(filters != null)
+                closeFilters(filters);
+        }
+        rv.mProcessingNanos = System.nanoTime() - start;
+        return rv;
+    }
+
+    private void process(Pipeline pipeline, PlaybackDevice playback, List<FilterInterface> filters, Sink sink,
+                         FileResult result) {
+        final long[] bytes = new long[1];
+        FrameCallback measure = f -> bytes[0] += f.getDataSize();
+        FrameSet frames = null;
+        while(!mCancelled) {
+            FrameSet next = pipeline.tryWaitForFrames(WAIT_TIMEOUT_MILLISECONDS, frames);
+            if(next == null) {
+                if(playback.getStatus() == PlaybackStatus.STOPPED)
+                    break;
+                continue;
+            }
+            frames = next;
+            try {
+                frames.foreach(measure);
+                FrameSet output = frames;
+                for(FilterInterface filter : filters) {
+                    FrameSet processed = filter.process(output);
+                    if(output != processed && output != frames)
+                        output.close();
+                    output = processed;
+                }
+                try {
+                    if(sink != null)
+                        sink.onFrameSet(result.mPath, output);
+                } finally {
+                    if(output != frames)
+                        output.close();
+                }
+                result.mFrameSets++;
+            } finally {
+                frames.close();
+            }
+        }
+        result.mBytes = bytes[0];
+    }
+
+    private static void closeFilters(List<FilterInterface> filters) {
+        for(FilterInterface filter : filters) {
+            if(!(filter instanceof AutoCloseable))
+                continue;
+            try {
+                ((AutoCloseable) filter).close();
+            } catch (Exception e) {
+                Log.w(TAG, "failed to close filter: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        cancel();
+    }
+}
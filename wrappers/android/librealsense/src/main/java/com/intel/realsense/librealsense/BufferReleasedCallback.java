@@ -0,0 +1,7 @@
+package com.intel.realsense.librealsense;
+
+import java.nio.ByteBuffer;
+
+public interface BufferReleasedCallback {
+    void onBufferReleased(ByteBuffer buffer);
+}
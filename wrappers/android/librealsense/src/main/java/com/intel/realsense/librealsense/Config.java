@@ -36,10 +36,27 @@ public class Config extends LrsClass {
         nEnableRecordToFile(mHandle, filePath);
     }
 
+    // Records to <name>_000.bag, <name>_001.bag... starting a new file once the current one reaches the size
+    // or duration limit (0 disables a limit). Finished files are synced in the background, and with maxSegments
+    // set only the newest maxSegments finished files are kept, so a long capture has a bounded disk footprint.
+    public void enableRecordToFile(String filePath, long maxSegmentBytes, long maxSegmentDurationMilliseconds,
+                                   int maxSegments) {
+        if(maxSegmentBytes < 0 || maxSegmentDurationMilliseconds < 0 || maxSegments < 0)
+            throw new IllegalArgumentException("segment limits must not be negative");
+        if(maxSegmentBytes == 0 && maxSegmentDurationMilliseconds == 0)
+            throw new IllegalArgumentException("a segment size or duration limit is required");
+        nEnableRecordToFileSegmented(mHandle, filePath, maxSegmentBytes, maxSegmentDurationMilliseconds, maxSegments);
+    }
+
     public void enableDeviceFromFile(String filePath) {
         nEnableDeviceFromFile(mHandle, filePath);
     }
 
+    // The file is played in a loop by default, disable repeat to stop once the end of the file was reached.
+    public void enableDeviceFromFile(String filePath, boolean repeatPlayback) {
+        nEnableDeviceFromFileRepeatOption(mHandle, filePath, repeatPlayback);
+    }
+
     public void enableDevice(String serial) { nEnableDevice(mHandle, serial); }
 
     public boolean canResolve(Pipeline pipeline){
@@ -64,8 +81,11 @@ public class Config extends LrsClass {
     private static native void nEnableAllStreams(long handle);
     private static native void nDisableAllStreams(long handle);
     private static native void nEnableDeviceFromFile(long handle, String filePath);
+    private static native void nEnableDeviceFromFileRepeatOption(long handle, String filePath, boolean repeat);
     private static native void nEnableDevice(long handle, String serial);
     private static native void nEnableRecordToFile(long handle, String filePath);
+    private static native void nEnableRecordToFileSegmented(long handle, String filePath, long maxSegmentBytes,
+                                                            long maxSegmentDurationMs, int maxSegments);
     private static native boolean nCanResolve(long handle, long pipelineHandle);
     private static native long nResolve(long handle, long pipelineHandle);
 }
@@ -6,6 +6,13 @@ public class DepthFrame extends VideoFrame {
         mOwner = false;
     }
 
+    // Returns a non owning depth view of the given frame, reusing the provided view object if not null.
+    public static DepthFrame wrap(Frame frame, DepthFrame reuse) {
+        DepthFrame rv = reuse != null ? reuse : new DepthFrame(frame.getHandle());
+        rv.bindTo(frame);
+        return rv;
+    }
+
     public float getDistance(int x, int y) {
         return nGetDistance(mHandle, x, y);
     }
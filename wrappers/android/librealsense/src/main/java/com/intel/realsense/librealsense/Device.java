@@ -52,6 +52,8 @@ public class Device extends LrsClass {
             case UPDATE_DEVICE: return (T) new UpdateDevice(mHandle);
             case DEBUG: return (T) new DebugProtocol(mHandle);
             case FW_LOGGER: return (T) new FwLogger(mHandle);
+            case RECORD: return (T) new RecordDevice(mHandle);
+            case PLAYBACK: return (T) new PlaybackDevice(mHandle);
         }
         throw new RuntimeException("this device is not extendable to " + extension.name());
     }
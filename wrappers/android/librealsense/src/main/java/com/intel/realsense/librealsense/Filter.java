@@ -2,18 +2,46 @@ package com.intel.realsense.librealsense;
 
 public abstract class Filter extends ProcessingBlock implements FilterInterface{
     protected FrameQueue mQueue = new FrameQueue(1);
+    private FrameCallback mAsyncCallback;
 
+    // Processing, processAsync and the switch between queue and callback delivery hold the block lock, so the
+    // output callback is never replaced while a frame is being processed.
     @Override
-    public Frame process(Frame original) {
+    public synchronized Frame process(Frame original) {
+        startQueueMode();
         nInvoke(mHandle, original.getHandle());
         Frame f = mQueue.pollForFrame();
         return f != null ? f : original;
     }
 
     @Override
-    public FrameSet process(FrameSet original) {
+    public synchronized FrameSet process(FrameSet original) {
+        startQueueMode();
         nInvoke(mHandle, original.getHandle());
         FrameSet f = mQueue.pollForFrames();
         return f != null ? f : original;
     }
+
+    // Delivers every frame produced by the block to the callback as it is emitted, without polling.
+    // The callback may run on the calling thread or on a librealsense thread, depending on the block,
+    // and the frame is valid for the callback duration only, clone it to keep it.
+    public synchronized void processAsync(Frame original, FrameCallback callback) {
+        if(callback == null)
+            throw new IllegalArgumentException("callback must not be null");
+        if(mAsyncCallback != callback) {
+            nStartWithCallback(mHandle, callback);
+            mAsyncCallback = callback;
+        }
+        nInvoke(mHandle, original.getHandle());
+    }
+
+    private synchronized void startQueueMode() {
+        if(mAsyncCallback == null)
+            return;
+        nStartWithQueue(mHandle, mQueue.getHandle());
+        mAsyncCallback = null;
+    }
+
+    private static native void nStartWithCallback(long handle, FrameCallback callback);
+    private static native void nStartWithQueue(long handle, long queueHandle);
 }
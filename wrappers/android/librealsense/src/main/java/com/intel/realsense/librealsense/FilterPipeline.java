@@ -0,0 +1,235 @@
+package com.intel.realsense.librealsense;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs a chain of filters as a pipeline, each stage (a single filter or a group of filters) on its
+// own worker thread. Stages are connected by bounded queues so a 7 filter chain is spread across
+// cores instead of being serialized on one thread. Frames leave the pipeline in submission order.
+public class FilterPipeline implements AutoCloseable {
+    private static final String TAG = "librs FilterPipeline";
+    private static final int DEFAULT_QUEUE_CAPACITY = 2;
+
+    public static class StageStats {
+        private final AtomicLong mProcessed = new AtomicLong();
+        private final AtomicLong mDropped = new AtomicLong();
+        private final AtomicLong mTotalLatencyNanos = new AtomicLong();
+        private final AtomicLong mLastLatencyNanos = new AtomicLong();
+        private BlockingQueue<Frame> mQueue;
+
+        public long getProcessedCount() { return mProcessed.get(); }
+        public long getDroppedCount() { return mDropped.get(); }
+        public long getLastLatencyNanos() { return mLastLatencyNanos.get(); }
+        public int getQueueDepth() { return mQueue.size(); }
+
+        public long getAverageLatencyNanos() {
+            long count = mProcessed.get();
+            return count == 0 ? 0 : mTotalLatencyNanos.get() / count;
+        }
+    }
+
+    private class Stage implements Runnable {
+        private final List<FilterInterface> mFilters;
+        private final BlockingQueue<Frame> mInput;
+        private final StageStats mStats = new StageStats();
+        private Stage mNext;
+        private Thread mThread;
+
+        Stage(List<FilterInterface> filters) {
+            mFilters = filters;
+            mInput = new ArrayBlockingQueue<>(mQueueCapacity);
+            mStats.mQueue = mInput;
+        }
+
+        // takes ownership of the frame
+        void offer(Frame frame) throws InterruptedException {
+            if(mPolicy == OverflowPolicy.BLOCK) {
+                // a full queue is not drained any more once the pipeline stopped, give up instead of parking
+                while(!mInput.offer(frame, 100, TimeUnit.MILLISECONDS)) {
+                    if(!mRunning) {
+                        frame.close();
+                        mStats.mDropped.incrementAndGet();
+                        return;
+                    }
+                }
+                return;
+            }
+            if(mPolicy == OverflowPolicy.DROP_NEWEST) {
+                if(!mInput.offer(frame)) {
+                    frame.close();
+                    mStats.mDropped.incrementAndGet();
+                }
+                return;
+            }
+            while(!mInput.offer(frame)) {
+                Frame oldest = mInput.poll();
+                if(oldest != null) {
+                    oldest.close();
+                    mStats.mDropped.incrementAndGet();
+                }
+            }
+        }
+
+        // takes ownership of the frame, the input or intermediate frame is closed when a filter fails
+        private Frame process(Frame frame) {
+            Frame current = frame;
+            try {
+                for(FilterInterface filter : mFilters) {
+                    Frame next = filter.process(current);
+                    if(next != current)
+                        current.close();
+                    current = next;
+                }
+            } catch (RuntimeException e) {
+                current.close();
+                throw e;
+            }
+            return current;
+        }
+
+        @Override
+        public void run() {
+            while(mRunning) {
+                Frame frame;
+                try {
+                    frame = mInput.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if(frame == null)
+                    continue;
+
+                long start = System.nanoTime();
+                Frame result;
+                try {
+                    result = process(frame);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "stage failed to process frame: " + e.getMessage());
+                    mStats.mDropped.incrementAndGet();
+                    continue;
+                }
+                long latency = System.nanoTime() - start;
+                mStats.mLastLatencyNanos.set(latency);
+                mStats.mTotalLatencyNanos.addAndGet(latency);
+                mStats.mProcessed.incrementAndGet();
+
+                try {
+                    if(mNext != null) {
+                        mNext.offer(result);
+                    } else {
+                        try {
+                            mCallback.onFrame(result);
+                        } catch (RuntimeException e) {
+                            Log.e(TAG, "output callback failed: " + e.getMessage());
+                        } finally {
+                            result.close();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    result.close();
+                    break;
+                }
+            }
+        }
+
+        void drain() {
+            Frame f;
+            while((f = mInput.poll()) != null)
+                f.close();
+        }
+    }
+
+    private final int mQueueCapacity;
+    private final OverflowPolicy mPolicy;
+    private final List<Stage> mStages = new ArrayList<>();
+    private FrameCallback mCallback;
+    private volatile boolean mRunning = false;
+
+    public FilterPipeline() {
+        this(DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public FilterPipeline(int queueCapacity, OverflowPolicy policy) {
+        if(queueCapacity < 1)
+            throw new IllegalArgumentException("queue capacity must be positive");
+        mQueueCapacity = queueCapacity;
+        mPolicy = policy;
+    }
+
+    // Adds a stage that runs the given filters in order on a single worker thread.
+    public synchronized FilterPipeline addStage(FilterInterface... filters) {
+        if(mRunning)
+            throw new IllegalStateException("stages cannot be added while the pipeline is running");
+        if(filters.length == 0)
+            throw new IllegalArgumentException("a stage requires at least one filter");
+        Stage stage = new Stage(Collections.unmodifiableList(Arrays.asList(filters)));
+        if(!mStages.isEmpty())
+            mStages.get(mStages.size() - 1).mNext = stage;
+        mStages.add(stage);
+        return this;
+    }
+
+    // The callback is invoked on the last stage thread, the frame is valid for the callback duration only.
+    public synchronized void start(FrameCallback callback) {
+        if(mRunning)
+            return;
+        if(mStages.isEmpty())
+            throw new IllegalStateException("no stages were added to the pipeline");
+        mCallback = callback;
+        mRunning = true;
+        for(int i = 0; i < mStages.size(); i++) {
+            Stage stage = mStages.get(i);
+            stage.mThread = new Thread(stage, "FilterPipeline-stage-" + i);
+            stage.mThread.start();
+        }
+    }
+
+    // Feeds a frame into the first stage. The pipeline keeps its own reference, the caller still owns the frame.
+    public void submit(Frame frame) throws InterruptedException {
+        if(!mRunning)
+            throw new IllegalStateException("pipeline is not running");
+        Stage first = mStages.get(0);
+        first.offer(frame.clone());
+        // stop() may have drained the queue before the frame got in, nothing would release it then
+        if(!mRunning)
+            first.drain();
+    }
+
+    public List<StageStats> getStageStats() {
+        List<StageStats> rv = new ArrayList<>();
+        for(Stage stage : mStages)
+            rv.add(stage.mStats);
+        return rv;
+    }
+
+    public synchronized void stop() {
+        if(!mRunning)
+            return;
+        mRunning = false;
+        for(Stage stage : mStages) {
+            stage.mThread.interrupt();
+            try {
+                stage.mThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stage.mThread = null;
+        }
+        for(Stage stage : mStages)
+            stage.drain();
+    }
+
+    // Filters are owned by the caller and are not closed here.
+    @Override
+    public void close() {
+        stop();
+    }
+}
@@ -1,6 +1,14 @@
 package com.intel.realsense.librealsense;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 public class Frame extends LrsClass implements Cloneable{
+    private ByteBuffer mDataBuffer;
+    private boolean mReleased = false;
+    private long mProfileHandle = 0;
+    // identifies the profile behind the handle, filled together with it
+    private int[] mProfileKey;
 
     Frame(long handle){
         mHandle = handle;
@@ -12,17 +20,29 @@ public class Frame extends LrsClass implements Cloneable{
 
     public <T extends Frame> T as(Extension extension) {
         switch (extension){
-            case VIDEO_FRAME: return (T) new VideoFrame(mHandle);
-            case DEPTH_FRAME: return (T) new DepthFrame(mHandle);
-            case MOTION_FRAME: return (T) new MotionFrame(mHandle);
-            case POINTS: return (T) new Points(mHandle);
+            case VIDEO_FRAME: return (T) VideoFrame.wrap(this, null);
+            case DEPTH_FRAME: return (T) DepthFrame.wrap(this, null);
+            case MOTION_FRAME: return (T) MotionFrame.wrap(this, null);
+            case POINTS: return (T) Points.wrap(this, null);
             case FRAMESET: return (T) new FrameSet(mHandle);
         }
         throw new RuntimeException("this profile is not extendable to " + extension.name());
     }
 
     public StreamProfile getProfile() {
-        return new StreamProfile(nGetStreamProfile(mHandle));
+        return StreamProfileCache.get(getProfileHandle(), mProfileKey, 0);
+    }
+
+    protected long getProfileHandle() {
+        if(mProfileHandle == 0)
+            mProfileHandle = nGetStreamProfile(mHandle, profileKey());
+        return mProfileHandle;
+    }
+
+    private int[] profileKey() {
+        if(mProfileKey == null)
+            mProfileKey = new int[StreamProfileCache.KEY_SIZE];
+        return mProfileKey;
     }
 
     public int getDataSize() {
@@ -33,6 +53,22 @@ public class Frame extends LrsClass implements Cloneable{
         nGetData(mHandle, data);
     }
 
+    // Returns a read-only view over the native frame memory, no copy is made. Every call returns a new view
+    // with its own position and limit, so callers do not disturb each other. The view points into memory owned
+    // by the native frame: it, and any duplicate or slice of it, must not be read after this frame is closed.
+    public synchronized ByteBuffer getDataBuffer() {
+        if(mReleased)
+            throw new IllegalStateException("frame data accessed after close()");
+        if(mDataBuffer == null)
+            mDataBuffer = nGetDataBuffer(mHandle).asReadOnlyBuffer();
+        return mDataBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    protected synchronized void invalidateDataBuffer() {
+        mReleased = true;
+        mDataBuffer = null;
+    }
+
     public int getNumber(){
         return nGetNumber(mHandle);
     }
@@ -50,6 +86,23 @@ public class Frame extends LrsClass implements Cloneable{
 
     public long getMetadata(FrameMetadata type) { return nGetMetadata(mHandle, type.value());}
 
+    // Reads every FrameMetadata value, indexed by FrameMetadata.value(), in a single native call.
+    public void getMetadataSnapshot(long[] values, boolean[] supported) {
+        if(values.length != supported.length)
+            throw new IllegalArgumentException("values and supported arrays must have the same length");
+        nGetMetadataValues(mHandle, values, supported);
+    }
+
+    public FrameMetadataSnapshot getMetadataSnapshot() {
+        return getMetadataSnapshot(new FrameMetadataSnapshot());
+    }
+
+    // Fills the given snapshot with all metadata, number, timestamp and timestamp domain in a single native call.
+    public FrameMetadataSnapshot getMetadataSnapshot(FrameMetadataSnapshot reuse) {
+        nGetMetadataSnapshot(mHandle, reuse);
+        return reuse;
+    }
+
     public Frame applyFilter(FilterInterface filter) {
         return filter.process(this);
     }
@@ -59,8 +112,42 @@ public class Frame extends LrsClass implements Cloneable{
         return this;
     }
 
+    // Rebinds this object to another native frame so it can be reused without allocating.
+    // A frame still owned by this object is released first.
+    void reset(long handle, boolean owner) {
+        if(mOwner && !mReleased && mHandle != 0)
+            nRelease(mHandle);
+        invalidateDataBuffer();
+        mHandle = handle;
+        mOwner = owner;
+        mReleased = false;
+        mProfileHandle = 0;
+    }
+
+    void setProfile(long profileHandle, int[] key, int offset) {
+        System.arraycopy(key, offset, profileKey(), 0, StreamProfileCache.KEY_SIZE);
+        mProfileHandle = profileHandle;
+    }
+
+    private void copyProfile(Frame source) {
+        if(source.mProfileHandle != 0)
+            setProfile(source.mProfileHandle, source.mProfileKey, 0);
+    }
+
+    // Turns this object into a non owning view of the source frame.
+    void bindTo(Frame source) {
+        reset(source.mHandle, false);
+        copyProfile(source);
+    }
+
+    // Closing more than once has no effect, a view that does not own its frame never releases it.
     @Override
     public void close() {
+        synchronized (this) {
+            if(mReleased)
+                return;
+            invalidateDataBuffer();
+        }
         if(mOwner)
             nRelease(mHandle);
     }
@@ -68,6 +155,7 @@ public class Frame extends LrsClass implements Cloneable{
     @Override
     public Frame clone() {
         Frame rv = new Frame(mHandle);
+        rv.copyProfile(this);
         nAddRef(mHandle);
         return rv;
     }
@@ -75,12 +163,15 @@ public class Frame extends LrsClass implements Cloneable{
     private static native boolean nIsFrameExtendableTo(long handle, int extension);
     private static native void nAddRef(long handle);
     private static native void nRelease(long handle);
-    protected static native long nGetStreamProfile(long handle);
+    protected static native long nGetStreamProfile(long handle, int[] key);
     private static native int nGetDataSize(long handle);
     private static native void nGetData(long handle, byte[] data);
+    private static native ByteBuffer nGetDataBuffer(long handle);
     private static native int nGetNumber(long handle);
     private static native double nGetTimestamp(long handle);
     private static native int nGetTimestampDomain(long handle);
     private static native long nGetMetadata(long handle, int metadata_type);
     private static native boolean nSupportsMetadata(long handle, int metadata_type);
+    private static native void nGetMetadataValues(long handle, long[] values, boolean[] supported);
+    private static native void nGetMetadataSnapshot(long handle, FrameMetadataSnapshot snapshot);
 }
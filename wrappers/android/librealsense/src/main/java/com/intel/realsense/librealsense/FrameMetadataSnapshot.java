@@ -0,0 +1,33 @@
+package com.intel.realsense.librealsense;
+
+public class FrameMetadataSnapshot {
+    private static final FrameMetadata[] sMetadataTypes = FrameMetadata.values();
+    private static final TimestampDomain[] sTimestampDomains = TimestampDomain.values();
+
+    // filled by the native layer in a single call, see Frame.getMetadataSnapshot
+    private final long[] mValues = new long[sMetadataTypes.length];
+    private final boolean[] mSupported = new boolean[sMetadataTypes.length];
+    private long mNumber;
+    private double mTimestamp;
+    private int mTimestampDomain;
+
+    public boolean supports(FrameMetadata type) {
+        return mSupported[type.value()];
+    }
+
+    public long get(FrameMetadata type) {
+        return mValues[type.value()];
+    }
+
+    public long getNumber() {
+        return mNumber;
+    }
+
+    public double getTimestamp() {
+        return mTimestamp;
+    }
+
+    public TimestampDomain getTimestampDomain() {
+        return sTimestampDomains[mTimestampDomain];
+    }
+}
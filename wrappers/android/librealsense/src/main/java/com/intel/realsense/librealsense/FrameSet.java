@@ -1,11 +1,50 @@
 package com.intel.realsense.librealsense;
 
 public class FrameSet extends Frame {
+    // a profile key per member, see StreamProfileCache, it starts with the stream type, format and stream index
+    private static final int INDEX_STRIDE = StreamProfileCache.KEY_SIZE;
+    private static final int INITIAL_INDEX_CAPACITY = 8;
+
     private int mSize = 0;
+    // per member profile key and profile handle, built by a single native call
+    private int[] mStreams = new int[INITIAL_INDEX_CAPACITY * INDEX_STRIDE];
+    private long[] mProfiles = new long[INITIAL_INDEX_CAPACITY];
 
     public FrameSet(long handle) {
         super(handle);
-        mSize = nFrameCount(mHandle);
+        buildIndex();
+    }
+
+    private void buildIndex() {
+        mSize = nBuildIndex(mHandle, mStreams, mProfiles);
+        if(mSize > mProfiles.length) {
+            mStreams = new int[mSize * INDEX_STRIDE];
+            mProfiles = new long[mSize];
+            mSize = nBuildIndex(mHandle, mStreams, mProfiles);
+        }
+    }
+
+    private int indexOf(int type, int streamIndex, int format) {
+        int any = StreamFormat.ANY.value();
+        for(int i = 0; i < mSize; i++) {
+            int o = i * INDEX_STRIDE;
+            if(mStreams[o] == type &&
+                    (format == any || mStreams[o + 1] == format) &&
+                    (streamIndex == -1 || mStreams[o + 2] == streamIndex))
+                return i;
+        }
+        return -1;
+    }
+
+    private Frame extract(int i, Frame reuse) {
+        long h = nExtractFrame(mHandle, i);
+        Frame f = reuse;
+        if(f == null)
+            f = new Frame(h);
+        else
+            f.reset(h, true);
+        f.setProfile(mProfiles[i], mStreams, i * INDEX_STRIDE);
+        return f;
     }
 
     public Frame first(StreamType type) {
@@ -13,27 +52,52 @@ public class FrameSet extends Frame {
     }
 
     public Frame first(StreamType type, StreamFormat format) {
-        for(int i = 0; i < mSize; i++) {
-            Frame f = new Frame(nExtractFrame(mHandle, i));
-            try(StreamProfile p = f.getProfile()){
-                if(p.getType() == type && (p.getFormat() == format || format == StreamFormat.ANY))
-                    return f;
-            }
-            f.close();
-        }
-        return null;
+        return first(type, format, null);
+    }
+
+    // Same as first(type, format), but binds the result into the given frame object instead of
+    // allocating a new one. The returned frame owns a reference and must be closed by the caller.
+    public Frame first(StreamType type, StreamFormat format, Frame reuse) {
+        return first(type, -1, format, reuse);
+    }
+
+    // Looks up a member by stream type, stream index (-1 for any) and format, e.g. to tell apart
+    // the two infrared streams. Only the matching frame is extracted from the native frameset.
+    public Frame first(StreamType type, int streamIndex, StreamFormat format, Frame reuse) {
+        int i = indexOf(type.value(), streamIndex, format.value());
+        return i < 0 ? null : extract(i, reuse);
     }
 
     public void foreach(FrameCallback callback) {
+        foreach(callback, null);
+    }
+
+    // Same as foreach(callback), with every member bound in turn into the given frame object.
+    public void foreach(FrameCallback callback, Frame reuse) {
+        Frame f = reuse;
         for(int i = 0; i < mSize; i++) {
-            try(Frame f = new Frame(nExtractFrame(mHandle, i))){
+            f = extract(i, f);
+            try{
                 callback.onFrame(f);
+            } finally {
+                f.close();
             }
         }
     }
 
     public int getSize(){ return mSize; }
 
+    // stream type value of the i-th member
+    int getStreamType(int i) {
+        return mStreams[i * INDEX_STRIDE];
+    }
+
+    @Override
+    void reset(long handle, boolean owner) {
+        super.reset(handle, owner);
+        buildIndex();
+    }
+
     public FrameSet applyFilter(FilterInterface filter) {
         return filter.process(this);
     }
@@ -43,11 +107,6 @@ public class FrameSet extends Frame {
         return this;
     }
 
-    @Override
-    public void close() {
-        nRelease(mHandle);
-    }
-
     @Override
     public FrameSet clone() {
         FrameSet rv = new FrameSet(mHandle);
@@ -56,7 +115,6 @@ public class FrameSet extends Frame {
     }
 
     private static native void nAddRef(long handle);
-    private static native void nRelease(long handle);
     private static native long nExtractFrame(long handle, int index);
-    private static native int nFrameCount(long handle);
+    private static native int nBuildIndex(long handle, int[] streams, long[] profiles);
 }
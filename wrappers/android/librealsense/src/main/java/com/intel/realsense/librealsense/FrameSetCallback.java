@@ -0,0 +1,5 @@
+package com.intel.realsense.librealsense;
+
+public interface FrameSetCallback {
+    void onFrameSet(FrameSet frames);
+}
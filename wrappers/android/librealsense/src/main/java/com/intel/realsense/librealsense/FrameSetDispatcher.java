@@ -0,0 +1,151 @@
+package com.intel.realsense.librealsense;
+
+import android.util.Log;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Adapts the native frame callback to a FrameSetCallback. Without an executor the callback runs on the
+// librealsense thread with a reused, non owning frameset. With an executor framesets are handed over through
+// a bounded queue so a slow consumer never blocks the librealsense dispatch thread (unless BLOCK is chosen).
+class FrameSetDispatcher implements FrameCallback {
+    private static final String TAG = "librs FrameSetDispatcher";
+    private static final int BLOCK_POLL_MILLISECONDS = 100;
+
+    private final FrameSetCallback mCallback;
+    private final Executor mExecutor;
+    private final OverflowPolicy mPolicy;
+    private final BlockingQueue<FrameSet> mQueue;
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    private final AtomicLong mDroppedFrameSets = new AtomicLong();
+    private final AtomicLongArray mDroppedFrames = new AtomicLongArray(StreamType.values().length);
+    private final Runnable mDrain = this::drain;
+    private FrameSet mView;
+    private volatile boolean mClosed = false;
+
+    FrameSetDispatcher(FrameSetCallback callback) {
+        this(callback, null, 1, OverflowPolicy.DROP_OLDEST);
+    }
+
+    FrameSetDispatcher(FrameSetCallback callback, Executor executor, int capacity, OverflowPolicy policy) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("queue capacity must be positive");
+        mCallback = callback;
+        mExecutor = executor;
+        mPolicy = policy;
+        mQueue = executor == null ? null : new ArrayBlockingQueue<FrameSet>(capacity);
+    }
+
+    // Called on the librealsense thread, the frame is valid for the call duration only.
+    @Override
+    public void onFrame(Frame f) {
+        if(mClosed)
+            return;
+        if(mView == null) {
+            mView = new FrameSet(f.getHandle());
+            mView.mOwner = false;
+        } else {
+            mView.reset(f.getHandle(), false);
+        }
+
+        if(mExecutor == null) {
+            mCallback.onFrameSet(mView);
+            return;
+        }
+
+        FrameSet frames = mView.clone();
+        try {
+            if(!enqueue(frames))
+                return;
+        } catch (InterruptedException e) {
+            frames.close();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        schedule();
+    }
+
+    private boolean enqueue(FrameSet frames) throws InterruptedException {
+        switch (mPolicy) {
+            case BLOCK:
+                while(!mQueue.offer(frames, BLOCK_POLL_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+                    if(mClosed) {
+                        frames.close();
+                        return false;
+                    }
+                }
+                return true;
+            case DROP_NEWEST:
+                if(mQueue.offer(frames))
+                    return true;
+                drop(frames);
+                return false;
+            default:
+                while(!mQueue.offer(frames)) {
+                    FrameSet oldest = mQueue.poll();
+                    if(oldest != null)
+                        drop(oldest);
+                }
+                return true;
+        }
+    }
+
+    private void drop(FrameSet frames) {
+        mDroppedFrameSets.incrementAndGet();
+        for(int i = 0; i < frames.getSize(); i++) {
+            int type = frames.getStreamType(i);
+            if(type >= 0 && type < mDroppedFrames.length())
+                mDroppedFrames.incrementAndGet(type);
+        }
+        frames.close();
+    }
+
+    // At most one drain task is pending on the executor, so framesets are delivered in order
+    // even on a thread pool.
+    private void schedule() {
+        if(mScheduled.compareAndSet(false, true))
+            mExecutor.execute(mDrain);
+    }
+
+    private void drain() {
+        while(true) {
+            FrameSet frames;
+            while((frames = mQueue.poll()) != null) {
+                try {
+                    if(!mClosed)
+                        mCallback.onFrameSet(frames);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "frameset callback failed: " + e.getMessage());
+                } finally {
+                    frames.close();
+                }
+            }
+            mScheduled.set(false);
+            if(mQueue.isEmpty() || !mScheduled.compareAndSet(false, true))
+                return;
+        }
+    }
+
+    long getDroppedFrameSets() {
+        return mDroppedFrameSets.get();
+    }
+
+    long getDroppedFrames(StreamType type) {
+        return mDroppedFrames.get(type.value());
+    }
+
+    // Stops delivery and releases the framesets still queued, must be called after the native stream stopped.
+    void close() {
+        mClosed = true;
+        if(mQueue == null)
+            return;
+        FrameSet frames;
+        while((frames = mQueue.poll()) != null)
+            frames.close();
+    }
+}
@@ -6,15 +6,75 @@ import android.opengl.GLES10;
 import java.nio.ByteBuffer;
 
 public abstract class GLFrame implements AutoCloseable {
+    // A frame on its way from the upload thread to the GL thread, each slot owns a frame reference.
+    protected static class Slot {
+        protected Frame mFrame;
+        // read on the upload thread, its type and format are plain fields that stay valid after the frame is released
+        protected StreamProfile mProfile;
+
+        void release() {
+            if(mFrame != null)
+                mFrame.close();
+            mFrame = null;
+            mProfile = null;
+        }
+    }
+
+    // setFrame publishes into the mailbox and draw picks up the latest publication, neither waits for the other
+    private final TripleBuffer<Slot> mMailbox = new TripleBuffer<>(this::createSlot);
+    private volatile boolean mClosed = false;
+
+    // the label is built on demand by getLabel, drawing only records what it shows
+    private final Object mLabelLock = new Object();
+    private final StringBuilder mLabelBuilder = new StringBuilder();
+    private StreamProfile mLabelProfile;
+    private boolean mLabelDirty = false;
+    private String mLabel = "";
+
+    // the frame being drawn, owned by the current slot and only accessed on the GL thread
     protected Frame mFrame;
     protected ByteBuffer mBuffer;
 
     public abstract void draw(Rect rect);
 
-    public synchronized void setFrame(Frame frame) {
-        if(mFrame != null)
-            mFrame.close();
-        mFrame = frame.clone();
+    protected Slot createSlot() {
+        return new Slot();
+    }
+
+    // Called on the upload thread with the slot about to be published, e.g. to prepare vertex data.
+    protected void prepare(Slot slot) {
+    }
+
+    // Must be called from a single upload thread at a time.
+    public void setFrame(Frame frame) {
+        if(mClosed)
+            return;
+        Slot slot = mMailbox.back();
+        slot.release();
+        slot.mFrame = frame.clone();
+        slot.mProfile = slot.mFrame.getProfile();
+        prepare(slot);
+        mMailbox.publish();
+    }
+
+    // Makes the latest published frame the one to draw, returns false when there is no new frame.
+    // Called by draw on the GL thread.
+    protected boolean acquireFrame() {
+        if(!mMailbox.update())
+            return false;
+        Slot slot = mMailbox.front();
+        mFrame = slot.mFrame;
+        if(mFrame != null) {
+            synchronized (mLabelLock) {
+                if(updateLabelState(slot))
+                    mLabelDirty = true;
+            }
+        }
+        return true;
+    }
+
+    protected Slot currentSlot() {
+        return mMailbox.front();
     }
 
     protected static void setViewport(Rect r) {
@@ -24,17 +84,39 @@ public abstract class GLFrame implements AutoCloseable {
         GLES10.glOrthof(0, r.width(), r.height(), 0, -1, +1);
     }
 
+    // Called on the GL thread for every new frame with the label lock held, copies what the label shows
+    // out of the slot and returns true when it changed. Must not allocate.
+    protected boolean updateLabelState(Slot slot) {
+        if(slot.mProfile == mLabelProfile)
+            return false;
+        mLabelProfile = slot.mProfile;
+        return true;
+    }
+
+    // Called by getLabel with the label lock held, from the state saved by updateLabelState.
+    protected void buildLabel(StringBuilder sb, StreamProfile profile) {
+        sb.append(profile.getType()).append(" - ").append(profile.getFormat());
+    }
+
+    // Safe to call from any thread, the label is only rebuilt when what it shows changed.
     public String getLabel() {
-        if(mFrame == null)
-            return "";
-        try(StreamProfile sp = mFrame.getProfile()){
-            return sp.getType() + " - " + sp.getFormat();
+        synchronized (mLabelLock) {
+            if(mLabelDirty && mLabelProfile != null) {
+                mLabelBuilder.setLength(0);
+                buildLabel(mLabelBuilder, mLabelProfile);
+                mLabel = mLabelBuilder.toString();
+                mLabelDirty = false;
+            }
+            return mLabel;
         }
     }
 
+    // Releases the frames, call once neither the upload thread nor the GL thread use this object anymore.
     @Override
     public void close() {
-        if(mFrame != null)
-            mFrame.close();
+        mClosed = true;
+        for(Slot slot : mMailbox.values())
+            slot.release();
+        mFrame = null;
     }
 }
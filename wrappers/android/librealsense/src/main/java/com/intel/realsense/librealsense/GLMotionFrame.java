@@ -6,27 +6,98 @@ import android.renderscript.Float3;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
 public class GLMotionFrame extends GLFrame {
-    private IntBuffer mGlTexture;
+    private static final float AXIS_SIZE = 2;
+    private static final float AXIS_WIDTH = 5;
+    private static final float VECTOR_THRESHOLD = 0.2f;
+    private static final int CIRCLE_SEGMENTS = 50;
+
+    private static final Float3 X = new Float3(1,0,0);
+    private static final Float3 Y = new Float3(0,1,0);
+    private static final Float3 Z = new Float3(0,0,1);
+
+    private static final Color WHITE = new Color(1, 1, 1);
+    private static final Color RED = new Color(0.5f, 0, 0);
+    private static final Color GREEN = new Color(0, 0.5f, 0);
+    private static final Color BLUE = new Color(0, 0, 0.5f);
+
+    // the scene is the same for every frame, only the motion vector changes. The buffers are only read by GL.
+    private static final FloatBuffer CIRCLE_XY = circle(AXIS_SIZE, X, Y);
+    private static final FloatBuffer CIRCLE_YZ = circle(AXIS_SIZE, Y, Z);
+    private static final FloatBuffer CIRCLE_XZ = circle(AXIS_SIZE, X, Z);
+    private static final FloatBuffer DOT = circle(0.05f, X, Y);
+    private static final FloatBuffer AXIS_X = buffer(0, 0, 0, AXIS_SIZE, 0, 0);
+    private static final FloatBuffer AXIS_Y = buffer(0, 0, 0, 0, AXIS_SIZE, 0);
+    private static final FloatBuffer AXIS_Z = buffer(0, 0, 0, 0, 0, AXIS_SIZE);
+    private static final FloatBuffer ARROW_X;
+    private static final FloatBuffer ARROW_Y;
+    private static final FloatBuffer ARROW_Z;
+
+    static {
+        float baseSize = 0.05f * AXIS_SIZE;
+        float basePos = 0.9f * AXIS_SIZE;
+        ARROW_X = buffer(
+                AXIS_SIZE, 0, 0,
+                basePos, baseSize, 0,
+                basePos, -baseSize, 0);
+        ARROW_Y = buffer(
+                0, AXIS_SIZE, 0,
+                baseSize, basePos, 0,
+                -baseSize, basePos, 0);
+        ARROW_Z = buffer(
+                0, 0, AXIS_SIZE,
+                0, baseSize, basePos,
+                0, -baseSize, basePos);
+    }
 
-    final private Float3 X = new Float3(1,0,0);
-    final private Float3 Y = new Float3(0,1,0);
-    final private Float3 Z = new Float3(0,0,1);
+    private static class MotionSlot extends Slot {
+        private final float[] mData = new float[3];
+        private MotionFrame mView;
+    }
+
+    private IntBuffer mGlTexture;
+    // GL thread state, updated in place on every draw
+    private final FloatBuffer mVector = buffer(0, 0, 0, 0, 0, 0);
+    private final Rect mViewport = new Rect();
+    // the motion data the label shows, guarded by the label lock
+    private final float[] mLabelData = new float[3];
 
     public int getTexture() { return mGlTexture.array()[0]; }
 
-    class Color{
+    static class Color{
         public Color(float r, float g, float b){
             red = r;
             green = g;
             blue = b;
         }
-        public float red, green, blue;
+        public final float red, green, blue;
     }
 
-    private Rect adjustRatio(Rect in){
+    private static FloatBuffer buffer(float... vertices) {
+        FloatBuffer rv = ByteBuffer.allocateDirect(vertices.length * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        rv.put(vertices);
+        rv.position(0);
+        return rv;
+    }
+
+    private static FloatBuffer circle(float radius, Float3 x, Float3 y) {
+        float[] verArray = new float[CIRCLE_SEGMENTS * 3];
+        for (int i = 0; i < CIRCLE_SEGMENTS; i++)
+        {
+            final double theta = (2* Math.PI / CIRCLE_SEGMENTS) * i;
+            final double cost = Math.cos(theta);
+            final double sint = Math.sin(theta);
+            verArray[i*3] = ((float) (radius * (x.x * cost + y.x * sint)));
+            verArray[i*3 + 1] = ((float) (radius * (x.y * cost + y.y * sint)));
+            verArray[i*3 + 2] = ((float) (radius * (x.z * cost + y.z * sint)));
+        }
+        return buffer(verArray);
+    }
+
+    private void adjustRatio(Rect in, Rect out){
         float ratio = 4f/3f;
         float newHeight = in.height();
         float newWidth = in.height() * ratio;
@@ -40,112 +111,71 @@ public class GLMotionFrame extends GLFrame {
         float newTop = in.top + (in.height() - newHeight) / 2f;
         float newRight = newLeft + newWidth;
         float newBottom = newTop + newHeight;
-        return new Rect((int)newLeft, (int)newTop, (int)newRight, (int)newBottom);
-    }
-
-    private void  drawCircle(float radius, Float3 x, Float3 y, float axisWidth, Color color, Boolean dashed)
-    {
-        Float3 center = new Float3(0,0,0);
-        final int N = 50;
-        float[] verArray = new float[N * 3];
-        for (int i = 0; i < N; i++)
-        {
-            final double theta = (2* Math.PI / N) * i;
-            final double cost = Math.cos(theta);
-            final double sint = Math.sin(theta);
-            verArray[i*3] = ((float) (center.x + radius * (x.x * cost + y.x * sint)));
-            verArray[i*3 + 1] = ((float) (center.y + radius * (x.y * cost + y.y * sint)));
-            verArray[i*3 + 2] = ((float) (center.z + radius * (x.z * cost + y.z * sint)));
-        }
-
-        drawLines(verArray, axisWidth, color, dashed);
+        out.set((int)newLeft, (int)newTop, (int)newRight, (int)newBottom);
     }
 
-    private void  drawLines(float[] verArray, float axisWidth, Color color, Boolean dashed)
+    private static void drawLines(FloatBuffer vertices, float axisWidth, Color color, boolean dashed)
     {
-        ByteBuffer ver = ByteBuffer.allocateDirect(verArray.length * 4);
-        ver.order(ByteOrder.nativeOrder());
-        ver.asFloatBuffer().put(verArray);
-
         GLES10.glEnableClientState(GLES10.GL_VERTEX_ARRAY);
         GLES10.glColor4f(color.red, color.green, color.blue, 1f);
         GLES10.glLineWidth(axisWidth);
 
-        GLES10.glVertexPointer(3, GLES10.GL_FLOAT, 0, ver);
-        GLES10.glDrawArrays(dashed ? GLES10.GL_LINES: GLES10.GL_LINE_LOOP,0, verArray.length / 3);
+        GLES10.glVertexPointer(3, GLES10.GL_FLOAT, 0, vertices);
+        GLES10.glDrawArrays(dashed ? GLES10.GL_LINES: GLES10.GL_LINE_LOOP,0, vertices.capacity() / 3);
 
         GLES10.glDisableClientState(GLES10.GL_VERTEX_ARRAY);
         GLES10.glColor4f(1f, 1f, 1f, 1f);
     }
 
-    private void  drawTriangle(float[] verArray, Color color)
+    private static void drawTriangle(FloatBuffer vertices, Color color)
     {
-        ByteBuffer ver = ByteBuffer.allocateDirect(verArray.length * 4);
-        ver.order(ByteOrder.nativeOrder());
-        ver.asFloatBuffer().put(verArray);
-
         GLES10.glEnableClientState(GLES10.GL_VERTEX_ARRAY);
 
         GLES10.glColor4f(color.red, color.green, color.blue, 1f);
 
-        GLES10.glVertexPointer(3, GLES10.GL_FLOAT, 0, ver);
+        GLES10.glVertexPointer(3, GLES10.GL_FLOAT, 0, vertices);
 
-        GLES10.glDrawArrays(GLES10.GL_TRIANGLES,0,verArray.length / 3);
+        GLES10.glDrawArrays(GLES10.GL_TRIANGLES,0,vertices.capacity() / 3);
 
         GLES10.glDisableClientState(GLES10.GL_VERTEX_ARRAY);
         GLES10.glColor4f(1f, 1f, 1f, 1f);
     }
 
-    private void  drawAxes(Rect rect, float axisSize, float axisWidth)
+    private static void drawAxes()
     {
-        float baseSize = 0.05f * axisSize;
-        float basePos = 0.9f * axisSize;
-
-        float[] verAxisX = { 0, 0, 0, axisSize, 0, 0 };
-        float[] verTriangleX = {
-                axisSize, 0, 0,
-                basePos, baseSize, 0,
-                basePos, -baseSize, 0
-        };
-        float[] verAxisY = { 0, 0, 0, 0, axisSize, 0 };
-        float[] verTriangleY = {
-                0, axisSize, 0,
-                baseSize, basePos, 0,
-                -baseSize, basePos, 0
-        };
-        float[] verAxisZ = { 0, 0, 0, 0, 0, axisSize };
-        float[] verTriangleZ = {
-                0, 0, axisSize,
-                0, baseSize, basePos,
-                0, -baseSize, basePos
-        };
-        Color red = new Color(0.5f, 0, 0);
-        Color green = new Color(0, 0.5f, 0);
-        Color blue = new Color(0, 0, 0.5f);
+        drawLines(AXIS_X, AXIS_WIDTH, RED, false);
+        drawTriangle(ARROW_X, RED);
+        drawLines(AXIS_Y, AXIS_WIDTH, GREEN, false);
+        drawTriangle(ARROW_Y, GREEN);
+        drawLines(AXIS_Z, AXIS_WIDTH, BLUE, false);
+        drawTriangle(ARROW_Z, BLUE);
+    }
 
-        drawLines(verAxisX, axisWidth, red, false);
-        drawTriangle(verTriangleX, red);
-        drawLines(verAxisY, axisWidth, green, false);
-        drawTriangle(verTriangleY, green);
-        drawLines(verAxisZ, axisWidth, blue, false);
-        drawTriangle(verTriangleZ, blue);
+    @Override
+    protected Slot createSlot() {
+        return new MotionSlot();
     }
 
-    private Float3 normalizeMotionData(Float3 md, float norm){
-        return new Float3(
-                (md.x / norm),
-                (md.y / norm),
-                (md.z / norm));
+    // the motion data is read on the upload thread so draw does not touch the frame
+    @Override
+    protected void prepare(Slot slot) {
+        if(!slot.mFrame.is(Extension.MOTION_FRAME))
+            return;
+        // copied natively into the slot, a data buffer view would be allocated for every sample
+        MotionSlot ms = (MotionSlot) slot;
+        ms.mView = MotionFrame.wrap(slot.mFrame, ms.mView);
+        ms.mView.getMotionData(ms.mData);
     }
 
     @Override
-    public synchronized void draw(Rect rect)
+    public void draw(Rect rect)
     {
+        acquireFrame();
         if (mFrame == null || !(mFrame.is(Extension.MOTION_FRAME)))
             return;
 
-        Rect r = adjustRatio(rect);
-        setViewport(r);
+        adjustRatio(rect, mViewport);
+        setViewport(mViewport);
 
         GLES10.glMatrixMode(GLES10.GL_PROJECTION);
         GLES10.glPushMatrix();
@@ -161,32 +191,26 @@ public class GLMotionFrame extends GLFrame {
         GLES10.glRotatef(180, 0.0f, 0.0f, 1.0f);
         GLES10.glRotatef(-90, 0.0f, 1.0f, 0.0f);
 
-        float axisSize = 2;
-        float axisWidth = 5;
-        Color white = new Color(1, 1, 1);
-
-        drawCircle(axisSize, X, Y, 1, white, true);
-        drawCircle(axisSize, Y, Z, 1, white, true);
-        drawCircle(axisSize, X, Z, 1, white, true);
-        drawAxes(r, axisSize, axisWidth);
+        drawLines(CIRCLE_XY, 1, WHITE, true);
+        drawLines(CIRCLE_YZ, 1, WHITE, true);
+        drawLines(CIRCLE_XZ, 1, WHITE, true);
+        drawAxes();
 
         // draw norm vector
-        MotionFrame mf = mFrame.as(Extension.MOTION_FRAME);
-
-        Float3 md = mf.getMotionData();
-        float norm = (float) Math.sqrt(md.x * md.x + md.y * md.y + md.z * md.z);
-
-        float vecThreshold = 0.2f;
+        float[] md = ((MotionSlot) currentSlot()).mData;
+        float norm = (float) Math.sqrt(md[0] * md[0] + md[1] * md[1] + md[2] * md[2]);
 
-        // If the absolute value of the motion vector is less than predefined `vecThreshold` meaning zero / noise values, draw a centered dot
-        if ( norm < vecThreshold ) {
-            drawCircle(0.05f, X, Y,  7, white, false);
+        // If the absolute value of the motion vector is less than predefined `VECTOR_THRESHOLD` meaning zero / noise values, draw a centered dot
+        if ( norm < VECTOR_THRESHOLD ) {
+            drawLines(DOT, 7, WHITE, false);
         }
         else{
             // Display the motion vector line
-            Float3 nmd = normalizeMotionData(mf.getMotionData(), norm);
-            float[] verArray = {0, 0, 0, axisSize * nmd.x, axisSize * nmd.y, axisSize * nmd.z};
-            drawLines(verArray, axisWidth, white, true);
+            float scale = AXIS_SIZE / norm;
+            mVector.put(3, md[0] * scale);
+            mVector.put(4, md[1] * scale);
+            mVector.put(5, md[2] * scale);
+            drawLines(mVector, AXIS_WIDTH, WHITE, true);
         }
 
         GLES10.glMatrixMode(GLES10.GL_PROJECTION);
@@ -194,21 +218,43 @@ public class GLMotionFrame extends GLFrame {
     }
 
     @Override
-    public synchronized String getLabel() {
-        MotionFrame mf = mFrame.as(Extension.MOTION_FRAME);
-        Float3 d = mf.getMotionData();
-        try(StreamProfile sp = mFrame.getProfile()){
-            return sp.getType().name() +
-                    " [ X: " + String.format("%+.2f", d.x) +
-                    ", Y: " + String.format("%+.2f", d.y) +
-                    ", Z: " + String.format("%+.2f", d.z) + " ]";
+    protected boolean updateLabelState(Slot slot) {
+        boolean changed = super.updateLabelState(slot);
+        float[] md = ((MotionSlot) slot).mData;
+        for(int i = 0; i < 3; i++) {
+            if(mLabelData[i] != md[i]) {
+                mLabelData[i] = md[i];
+                changed = true;
+            }
         }
+        return changed;
+    }
+
+    @Override
+    protected void buildLabel(StringBuilder sb, StreamProfile profile) {
+        sb.append(profile.getType().name()).append(" [ X: ");
+        appendSigned(sb, mLabelData[0]);
+        sb.append(", Y: ");
+        appendSigned(sb, mLabelData[1]);
+        sb.append(", Z: ");
+        appendSigned(sb, mLabelData[2]);
+        sb.append(" ]");
+    }
+
+    // same text as String.format("%+.2f", value), without the formatter allocations
+    static void appendSigned(StringBuilder sb, float value) {
+        long hundredths = Math.round(Math.abs((double) value) * 100);
+        sb.append(Math.copySign(1.f, value) < 0 ? '-' : '+');
+        sb.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if(fraction < 10)
+            sb.append('0');
+        sb.append(fraction);
     }
 
     @Override
-    public synchronized void close() {
-        if(mFrame != null)
-            mFrame.close();
+    public void close() {
+        super.close();
         if(mGlTexture != null)
             GLES10.glDeleteTextures(1, mGlTexture);
         mGlTexture = null;
@@ -5,51 +5,97 @@ import android.opengl.GLES10;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
 public class GLPointsFrame extends GLFrame {
+    private static final float DEFAULT_MAX_RANGE = 1.2f;
+
+    // Vertices and colors of one point cloud. The buffers are kept between frames and only grow.
+    private static class PointsBuffer {
+        private ByteBuffer mVertexBytes;
+        private FloatBuffer mVertices;
+        private ByteBuffer mColors;
+        private int mCount;
+
+        void fill(Points points, Frame texture) {
+            int count = points.getCount();
+            if(mVertices == null || mVertices.capacity() < count * 3) {
+                mVertexBytes = ByteBuffer.allocateDirect(count * 3 * 4).order(ByteOrder.nativeOrder());
+                mVertices = mVertexBytes.asFloatBuffer();
+                mColors = ByteBuffer.allocateDirect(count * 4).order(ByteOrder.nativeOrder());
+            }
+            mVertices.clear();
+            points.getVertices(mVertices);
+            mVertices.position(0);
+            mColors.clear();
+            if(texture != null)
+                points.mapColors(texture, mColors);
+            else
+                points.mapDepthColors(DEFAULT_MAX_RANGE, mColors);
+            mColors.position(0);
+            mCount = count;
+        }
+    }
+
+    private static class PointsSlot extends Slot {
+        private final PointsBuffer mBuffer = new PointsBuffer();
+    }
+
+    // upload thread state
+    private Points mPoints;
     private Frame mTexture;
+
     private IntBuffer mGlTexture;
     private float mDeltaX = 0;
     private float mDeltaY = 0;
     private float mRotationFactor = 0.1f;
 
-    public synchronized void setTextureFrame(Frame frame) {
+    // Sets the frame the points are colored from, it applies to the next points frame.
+    // Called on the upload thread.
+    public void setTextureFrame(Frame frame) {
         if(mTexture != null)
             mTexture.close();
         mTexture = frame.clone();
     }
     public int getTexture() { return mGlTexture.array()[0]; }
 
-    private void drawPoints(float[] verArray, byte[] colorArray)
-    {
-        if(colorArray != null){
-            ByteBuffer tex = ByteBuffer.allocateDirect(colorArray.length);
-            tex.order(ByteOrder.nativeOrder());
-            tex.put(colorArray);
-            tex.position(0);
-
-            GLES10.glEnableClientState(GLES10.GL_COLOR_ARRAY);
-            GLES10.glColorPointer(4, GLES10.GL_UNSIGNED_BYTE, 0, tex);
+    @Override
+    protected Slot createSlot() {
+        return new PointsSlot();
+    }
+
+    // vertices and colors are prepared on the upload thread, draw only hands them to GL
+    @Override
+    protected void prepare(Slot slot) {
+        PointsBuffer buffer = ((PointsSlot) slot).mBuffer;
+        if(!slot.mFrame.is(Extension.POINTS)) {
+            buffer.mCount = 0;
+            return;
         }
+        mPoints = Points.wrap(slot.mFrame, mPoints);
+        buffer.fill(mPoints, mTexture);
+    }
 
-        ByteBuffer ver = ByteBuffer.allocateDirect(verArray.length * 4);
-        ver.order(ByteOrder.nativeOrder());
-        ver.asFloatBuffer().put(verArray);
+    private void drawPoints(PointsBuffer buffer)
+    {
+        GLES10.glEnableClientState(GLES10.GL_COLOR_ARRAY);
+        GLES10.glColorPointer(4, GLES10.GL_UNSIGNED_BYTE, 0, buffer.mColors);
 
         GLES10.glEnableClientState(GLES10.GL_VERTEX_ARRAY);
-        GLES10.glVertexPointer(3, GLES10.GL_FLOAT, 0, ver);
-        GLES10.glDrawArrays(GLES10.GL_POINTS,0,verArray.length / 3);
+        GLES10.glVertexPointer(3, GLES10.GL_FLOAT, 0, buffer.mVertices);
+        GLES10.glDrawArrays(GLES10.GL_POINTS,0, buffer.mCount);
 
         GLES10.glDisableClientState(GLES10.GL_VERTEX_ARRAY);
-        if(colorArray != null)
-            GLES10.glDisableClientState(GLES10.GL_COLOR_ARRAY);
+        GLES10.glDisableClientState(GLES10.GL_COLOR_ARRAY);
     }
 
     @Override
-    public synchronized void draw(Rect rect)
+    public void draw(Rect rect)
     {
-        if (mFrame == null || !(mFrame.is(Extension.POINTS)))
+        acquireFrame();
+        PointsBuffer buffer = ((PointsSlot) currentSlot()).mBuffer;
+        if (mFrame == null || buffer.mCount == 0)
             return;
 
         setViewport(rect);
@@ -64,75 +110,41 @@ public class GLPointsFrame extends GLFrame {
         GLES10.glRotatef(-mDeltaY * mRotationFactor, 1.0f, 0.0f, 0.0f);
         GLES10.glRotatef(mDeltaX * mRotationFactor, 0.0f, 1.0f, 0.0f);
 
-        Points points = mFrame.as(Extension.POINTS);
-        float[] data = points.getVertices();
-        byte[] tex = mTexture == null ? createTexture(data, 1.2f) : createTexture(points);
-        drawPoints(data, tex);
+        drawPoints(buffer);
 
         GLES10.glMatrixMode(GLES10.GL_PROJECTION);
         GLES10.glPopMatrix();
     }
 
-    //fallback to gray scale if no texture is available
-    private byte[] createTexture(float[] data, float maxRange){
-        int size = data.length / 3;
-        byte[] texture = new byte[size * 4];
-        for(int i = 0; i < size; i++){
-            float z = data[i * 3 + 2];
-            byte val = (byte) (z / maxRange * 255);
-            for(int j = 0; j < 3; j++)
-                texture[i*4+j] = val;
-            texture[i*4+3] = (byte) 255;
-        }
-        return texture;
-    }
-
+    // Called on the upload thread.
     public byte[] createTexture(Points points){
         if(mTexture == null)
             return null;
-
-        VideoFrame vf = mTexture.as(Extension.VIDEO_FRAME);
-        int textureSize = vf.getWidth() * vf.getHeight();
-        int pointCount = points.getCount();
-        float[] pointsData = points.getVertices();
-        byte[] textureData = new byte[textureSize * 3];
-        byte[] texture = new byte[pointCount * 4];
-        float[] textureCoordinates = points.getTextureCoordinates();
-
-        vf.getData(textureData);
-        int w = vf.getWidth();
-        int h = vf.getHeight();
-        for(int i = 0; i < pointCount; i++){
-            if(pointsData[i * 3 + 2] == 0)
-                continue;
-            float x = (float) Math.round(textureCoordinates[2 * i] * w);
-            float y = (float) Math.round(textureCoordinates[2 * i + 1] * h);
-            if(x <= 0 || y <= 0 || x >= w || y >= h)
-                continue;
-            long texIndex = (long) (x + y * w);
-            for(int j = 0; j < 3; j++)
-                texture[i*4+j] = textureData[(int) (texIndex * 3 + j)];
-            texture[i*4+3] = (byte) 255;
-        }
-        return texture;
+        ByteBuffer colors = ByteBuffer.allocateDirect(points.getCount() * 4);
+        points.mapColors(mTexture, colors);
+        byte[] rv = new byte[colors.capacity()];
+        colors.position(0);
+        colors.get(rv);
+        return rv;
     }
 
     @Override
-    public synchronized void close() {
-        if(mFrame != null)
-            mFrame.close();
+    public void close() {
+        super.close();
 
         if (mTexture != null) {
             mTexture.close();
             mTexture = null;
         }
+        mPoints = null;
 
         if(mGlTexture != null)
             GLES10.glDeleteTextures(1, mGlTexture);
         mGlTexture = null;
     }
 
-    public synchronized void rotate(float deltaX, float deltaY) {
+    // Called on the GL thread.
+    public void rotate(float deltaX, float deltaY) {
         mDeltaX += deltaX;
         mDeltaY += deltaY;
     }
@@ -10,17 +10,36 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
 
 public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
 
-    private final Map<Integer,GLFrame> mFrames = new HashMap<>();
-    private int mWindowHeight = 0;
-    private int mWindowWidth = 0;
+    // Streams are added by the upload thread and drawn by the GL thread. Frames reach the GL thread through
+    // the mailbox of each GLFrame, so a slow draw never blocks frame ingestion and the other way round.
+    private final Map<Integer,GLFrame> mFrames = new ConcurrentHashMap<>();
+    // streams removed by clear(), their GL resources are released on the GL thread
+    private final Queue<GLFrame> mRetired = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mStreamsVersion = new AtomicInteger();
+    // serializes the producers: upload, clear and the pointcloud toggle
+    private final Object mUploadLock = new Object();
+    private volatile int mWindowHeight = 0;
+    private volatile int mWindowWidth = 0;
+    private final Object mTouchLock = new Object();
     private float mDeltaX = 0;
     private float mDeltaY = 0;
+
+    // layout cache of the GL thread, rebuilt when the streams or the surface change
+    private int mLayoutVersion = -1;
+    private int mLayoutWidth = -1;
+    private int mLayoutHeight = -1;
+    private GLFrame[] mLayoutFrames = new GLFrame[0];
+    private Rect[] mLayoutRects = new Rect[0];
     private Frame mPointsTexture;
     private boolean mHasColorRbg8 = false;
     private Colorizer mColorizer = new Colorizer();
@@ -42,11 +61,11 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
 
     private List<FilterInterface> createProcessingPipe(){
         List<FilterInterface> rv = new ArrayList<>();
-        if(mHasDepth && !mHasColorizedDepth && !showPoints())
+        if(mHasDepth && !mHasColorizedDepth && !showPoints() && !isDecodedOnGpu(StreamFormat.Z16))
             rv.add(mColorizer);
 
         // convert yuyv into rgb8 for display and uv mapping
-        if(mHasColorYuy)
+        if(mHasColorYuy && (showPoints() || !isDecodedOnGpu(StreamFormat.YUYV)))
             rv.add(mYuyDecoder);
 
         if(showPoints()){
@@ -70,6 +89,12 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
     }
 
     public void upload(FrameSet frameSet) {
+        synchronized (mUploadLock) {
+            uploadFrameSet(frameSet);
+        }
+    }
+
+    private void uploadFrameSet(FrameSet frameSet) {
         mHasColorRbg8 = mHasColorizedDepth = mHasColorYuy = mHasDepth = false;
 
         frameSet.foreach(new FrameCallback() {
@@ -87,7 +112,7 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
                     processed.foreach(new FrameCallback() {
                         @Override
                         public void onFrame(Frame f) {
-                            upload(f);
+                            uploadFrame(f);
                         }
                     });
             }
@@ -141,13 +166,16 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
             int uid = sp.getUniqueId();
 
             if(!mFrames.containsKey(uid)){
-                synchronized (mFrames) {
-                    if(f.is(Extension.VIDEO_FRAME) && !showPoints())
-                        mFrames.put(uid, new GLVideoFrame());
-                    else if (f.is(Extension.MOTION_FRAME) && !showPoints())
-                        mFrames.put(uid, new GLMotionFrame());
-                    else if (f.is(Extension.POINTS))
-                        mFrames.put(uid, new GLPointsFrame());
+                GLFrame frame = null;
+                if(f.is(Extension.VIDEO_FRAME) && !showPoints())
+                    frame = createVideoFrame();
+                else if (f.is(Extension.MOTION_FRAME) && !showPoints())
+                    frame = new GLMotionFrame();
+                else if (f.is(Extension.POINTS))
+                    frame = new GLPointsFrame();
+                if(frame != null) {
+                    mFrames.put(uid, frame);
+                    mStreamsVersion.incrementAndGet();
                 }
             }
         }
@@ -156,7 +184,12 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
     public void upload(Frame f) {
         if(f == null)
             return;
+        synchronized (mUploadLock) {
+            uploadFrame(f);
+        }
+    }
 
+    private void uploadFrame(Frame f) {
         try(StreamProfile sp = f.getProfile()){
             if(!isFormatSupported(sp.getFormat()))
                 return;
@@ -168,28 +201,27 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
             if(curr == null)
                 return;
 
-            curr.setFrame(f);
-
+            // the texture is set first, the points frame colors its points when it is set
             if(mPointsTexture != null && curr instanceof GLPointsFrame){
                 ((GLPointsFrame) curr).setTextureFrame(mPointsTexture);
                 mPointsTexture.close();
                 mPointsTexture = null;
             }
+
+            curr.setFrame(f);
         }
     }
 
     public void clear() {
-        synchronized (mFrames) {
-            for(Map.Entry<Integer,GLFrame> f : mFrames.entrySet()) {
-                GLFrame frame = f.getValue();
-                if (frame instanceof GLPointsFrame)
-                    ((GLPointsFrame) frame).close();
-                else
-                    frame.close();
-            }
+        synchronized (mUploadLock) {
+            List<GLFrame> removed = new ArrayList<>(mFrames.values());
             mFrames.clear();
-            mDeltaX = 0;
-            mDeltaY = 0;
+            mStreamsVersion.incrementAndGet();
+            mRetired.addAll(removed);
+            synchronized (mTouchLock) {
+                mDeltaX = 0;
+                mDeltaY = 0;
+            }
 
             if (mPointcloud != null)
             {
@@ -207,22 +239,53 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
         }
     }
 
+    private static Rect layout(int index, int count, int width, int height) {
+        Point size = width > height ?
+                new Point(width / count, height) :
+                new Point(width, height / count);
+        Point pos = width > height ?
+                new Point(index * size.x, 0) :
+                new Point(0, index * size.y);
+        return new Rect(pos.x, pos.y, pos.x + size.x, pos.y + size.y);
+    }
+
     private Map<Integer, Pair<String,Rect>> calcRectangles(){
         Map<Integer, Pair<String,Rect>> rv = new HashMap<>();
 
-        int i = 0;
-        for (Map.Entry<Integer, GLFrame> entry : mFrames.entrySet()){
-            Point size = mWindowWidth > mWindowHeight ?
-                    new Point(mWindowWidth / mFrames.size(), mWindowHeight) :
-                    new Point(mWindowWidth, mWindowHeight / mFrames.size());
-            Point pos = mWindowWidth > mWindowHeight ?
-                    new Point(i++ * size.x, 0) :
-                    new Point(0, i++ * size.y);
-            rv.put(entry.getKey(), new Pair<>(entry.getValue().getLabel(), new Rect(pos.x, pos.y, pos.x + size.x, pos.y + size.y)));
+        List<Map.Entry<Integer, GLFrame>> entries = new ArrayList<>(mFrames.entrySet());
+        for (int i = 0; i < entries.size(); i++){
+            Map.Entry<Integer, GLFrame> entry = entries.get(i);
+            Rect r = layout(i, entries.size(), mWindowWidth, mWindowHeight);
+            rv.put(entry.getKey(), new Pair<>(entry.getValue().getLabel(), r));
         }
         return rv;
     }
 
+    private void updateLayout() {
+        int width = mWindowWidth;
+        int height = mWindowHeight;
+        // read before the streams, a stream added meanwhile bumps the version again
+        int version = mStreamsVersion.get();
+        if(version == mLayoutVersion && width == mLayoutWidth && height == mLayoutHeight)
+            return;
+
+        GLFrame[] frames = mFrames.values().toArray(new GLFrame[0]);
+        Rect[] rects = new Rect[frames.length];
+        for(int i = 0; i < frames.length; i++){
+            Rect r = layout(i, frames.length, width, height);
+            if(height > width){// TODO: remove, w/a for misaligned labels
+                int newTop = height - r.height() - r.top;
+                r = new Rect(r.left, newTop, r.right, newTop + r.height());
+            }
+            rects[i] = r;
+        }
+        mLayoutFrames = frames;
+        mLayoutRects = rects;
+        mLayoutVersion = version;
+        mLayoutWidth = width;
+        mLayoutHeight = height;
+    }
+
     @Override
     public void onSurfaceCreated(GL10 gl, EGLConfig config) {
 
@@ -236,35 +299,47 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
 
     @Override
     public void onDrawFrame(GL10 gl) {
-        synchronized (mFrames) {
-            GLES10.glViewport(0, 0, mWindowWidth, mWindowHeight);
-            GLES10.glClearColor(0, 0, 0, 1);
-            GLES10.glClear(GLES10.GL_COLOR_BUFFER_BIT | GLES10.GL_DEPTH_BUFFER_BIT);
+        GLFrame retired;
+        while((retired = mRetired.poll()) != null)
+            retired.close();
 
-            if (mFrames.size() == 0)
-                return;
+        GLES10.glViewport(0, 0, mWindowWidth, mWindowHeight);
+        GLES10.glClearColor(0, 0, 0, 1);
+        GLES10.glClear(GLES10.GL_COLOR_BUFFER_BIT | GLES10.GL_DEPTH_BUFFER_BIT);
 
-            Map<Integer, Pair<String, Rect>> rects = calcRectangles();
+        updateLayout();
+        if (mLayoutFrames.length == 0)
+            return;
 
-            for(Integer uid : mFrames.keySet()){
-                GLFrame fl = mFrames.get(uid);
+        float dx, dy;
+        synchronized (mTouchLock) {
+            dx = mDeltaX;
+            dy = mDeltaY;
+            mDeltaX = 0;
+            mDeltaY = 0;
+        }
 
-                Rect r = rects.get(uid).second;
-                if(mWindowHeight > mWindowWidth){// TODO: remove, w/a for misaligned labels
-                    int newTop = mWindowHeight - r.height() - r.top;
-                    r = new Rect(r.left, newTop, r.right, newTop + r.height());
-                }
-                fl.draw(r);
-                if(fl instanceof GLPointsFrame){
-                    ((GLPointsFrame)fl).rotate(mDeltaX, mDeltaY);
-                    mDeltaX = 0;
-                    mDeltaY = 0;
-                }
+        for(int i = 0; i < mLayoutFrames.length; i++){
+            GLFrame fl = mLayoutFrames[i];
+            fl.draw(mLayoutRects[i]);
+            if(fl instanceof GLPointsFrame){
+                ((GLPointsFrame)fl).rotate(dx, dy);
+                dx = 0;
+                dy = 0;
             }
         }
     }
 
-    private boolean isFormatSupported(StreamFormat format) {
+    // Formats the video frames display as they arrive, without a conversion on the CPU before the upload.
+    protected boolean isDecodedOnGpu(StreamFormat format) {
+        return false;
+    }
+
+    protected GLFrame createVideoFrame() {
+        return new GLVideoFrame();
+    }
+
+    protected boolean isFormatSupported(StreamFormat format) {
         switch (format){
             case RGB8:
             case RGBA8:
@@ -276,13 +351,23 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
     }
 
     public void onTouchEvent(float dx, float dy) {
-        synchronized (mFrames) {
+        synchronized (mTouchLock) {
             mDeltaX = dx;
             mDeltaY = dy;
         }
     }
 
+    public boolean supportsPointcloud() {
+        return true;
+    }
+
     public void showPointcloud(boolean showPoints) {
+        synchronized (mUploadLock) {
+            setShowPointcloud(showPoints);
+        }
+    }
+
+    private void setShowPointcloud(boolean showPoints) {
         mShowPoints = showPoints;
 
         if(showPoints){
@@ -308,6 +393,9 @@ public class GLRenderer implements GLSurfaceView.Renderer, AutoCloseable{
     @Override
     public void close() {
         clear();
+        GLFrame retired;
+        while((retired = mRetired.poll()) != null)
+            retired.close();
         if (mColorizer != null) mColorizer.close();
         if (mYuyDecoder != null) mYuyDecoder.close();
     }
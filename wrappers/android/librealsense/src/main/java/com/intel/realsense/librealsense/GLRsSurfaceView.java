@@ -1,6 +1,7 @@
 package com.intel.realsense.librealsense;
 
 import android.content.Context;
+import android.content.res.TypedArray;
 import android.graphics.Rect;
 import android.opengl.GLSurfaceView;
 import android.util.AttributeSet;
@@ -16,15 +17,39 @@ public class GLRsSurfaceView extends GLSurfaceView implements AutoCloseable{
     private float mPreviousY = 0;
 
     public GLRsSurfaceView(Context context) {
+        this(context, false);
+    }
+
+    // With useShaderRenderer Z16 and YUYV streams are converted on the GPU instead of the CPU, see GLShaderRenderer.
+    public GLRsSurfaceView(Context context, boolean useShaderRenderer) {
         super(context);
-        mRenderer = new GLRenderer();
-        setRenderer(mRenderer);
+        mRenderer = createRenderer(useShaderRenderer);
     }
 
     public GLRsSurfaceView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        mRenderer = new GLRenderer();
-        setRenderer(mRenderer);
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.GLRsSurfaceView);
+        boolean useShaderRenderer = a.getBoolean(R.styleable.GLRsSurfaceView_useShaderRenderer, false);
+        a.recycle();
+        mRenderer = createRenderer(useShaderRenderer);
+    }
+
+    private GLRenderer createRenderer(boolean useShaderRenderer) {
+        GLRenderer rv = useShaderRenderer ? new GLShaderRenderer() : new GLRenderer();
+        if(useShaderRenderer)
+            setEGLContextClientVersion(2);
+        setRenderer(rv);
+        return rv;
+    }
+
+    public boolean isShaderRenderer() {
+        return mRenderer instanceof GLShaderRenderer;
+    }
+
+    // Only applies to the shader renderer, the colorizer of the default renderer adapts to each frame.
+    public void setDepthRange(float minMeters, float maxMeters) {
+        if(mRenderer instanceof GLShaderRenderer)
+            ((GLShaderRenderer) mRenderer).setDepthRange(minMeters, maxMeters);
     }
 
     public Map<Integer, Pair<String,Rect>> getRectangles() {
@@ -61,8 +86,13 @@ public class GLRsSurfaceView extends GLSurfaceView implements AutoCloseable{
         return true;
     }
 
+    public boolean supportsPointcloud() {
+        return mRenderer.supportsPointcloud();
+    }
+
+    // ignored by renderers that do not draw point clouds
     public void showPointcloud(boolean showPoints) {
-        mRenderer.showPointcloud(showPoints);
+        mRenderer.showPointcloud(showPoints && mRenderer.supportsPointcloud());
     }
 
     @Override
@@ -0,0 +1,59 @@
+package com.intel.realsense.librealsense;
+
+import android.util.Log;
+
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.opengles.GL10;
+
+// Renders video streams with OpenGL ES 2.0 shaders. Z16 is colorized and YUYV converted on the GPU, so the preview
+// does not run a colorizer or a YUYV decoder on the CPU. Needs an ES 2.0 context, motion and point cloud are not drawn,
+// a request to show the point cloud is logged and ignored.
+public class GLShaderRenderer extends GLRenderer {
+    private static final String TAG = "librs GLShaderRenderer";
+
+    private final GLShaders mShaders = new GLShaders();
+
+    // Unlike the colorizer the colormap has a fixed range, distances outside of it get the color of the closer end.
+    public void setDepthRange(float minMeters, float maxMeters) {
+        mShaders.setDepthRange(minMeters, maxMeters);
+    }
+
+    @Override
+    protected boolean isDecodedOnGpu(StreamFormat format) {
+        return format == StreamFormat.Z16 || format == StreamFormat.YUYV;
+    }
+
+    @Override
+    protected GLFrame createVideoFrame() {
+        return new GLShaderVideoFrame(mShaders);
+    }
+
+    @Override
+    protected boolean isFormatSupported(StreamFormat format) {
+        return GLShaderVideoFrame.isFormatSupported(format);
+    }
+
+    @Override
+    public boolean supportsPointcloud() {
+        return false;
+    }
+
+    @Override
+    public void showPointcloud(boolean showPoints) {
+        if(showPoints)
+            Log.w(TAG, "showPointcloud: point clouds are not drawn by the shader renderer, showing the 2D streams");
+        super.showPointcloud(false);
+    }
+
+    @Override
+    public void onSurfaceCreated(GL10 gl, EGLConfig config) {
+        super.onSurfaceCreated(gl, config);
+        mShaders.init();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        mShaders.close();
+    }
+}
@@ -0,0 +1,91 @@
+package com.intel.realsense.librealsense;
+
+import android.graphics.Rect;
+import android.opengl.GLES20;
+
+// Video stream of the shader renderer, the frame data is uploaded as is and converted by the shader.
+class GLShaderVideoFrame extends GLVideoFrame {
+    private static final float DEFAULT_DEPTH_UNITS = 0.001f;
+
+    private final GLShaders mShaders;
+    private int mGeneration = -1;
+    private DepthFrame mDepthFrame;
+    private GLShaders.Program mProgram = GLShaders.Program.RGB;
+    private float mDepthUnits = DEFAULT_DEPTH_UNITS;
+
+    GLShaderVideoFrame(GLShaders shaders){
+        mShaders = shaders;
+    }
+
+    // the texture belongs to the context it was created in, a new context needs a new texture
+    @Override
+    protected boolean needsTexture() {
+        return super.needsTexture() || mGeneration != mShaders.getGeneration();
+    }
+
+    @Override
+    protected void createTexture() {
+        super.createTexture();
+        mGeneration = mShaders.getGeneration();
+    }
+
+    // Z16 and YUYV have two bytes per pixel, one texel per pixel keeps the texture size the image size
+    @Override
+    protected int glFormat(StreamFormat format) {
+        switch (format)
+        {
+            case Z16:
+            case YUYV: return GLES20.GL_LUMINANCE_ALPHA;
+            default: return super.glFormat(format);
+        }
+    }
+
+    @Override
+    protected void setTextureParameters(int format) {
+        // the bytes of packed texels must not be blended with their neighbours
+        GLShaders.setTextureParameters(format == GLES20.GL_LUMINANCE_ALPHA ? GLES20.GL_NEAREST : GLES20.GL_LINEAR);
+    }
+
+    @Override
+    protected void onUpload(StreamFormat format) {
+        mProgram = program(format);
+        if(mProgram == GLShaders.Program.DEPTH) {
+            mDepthFrame = mFrame.is(Extension.DEPTH_FRAME) ? DepthFrame.wrap(mFrame, mDepthFrame) : null;
+            mDepthUnits = mDepthFrame != null ? mDepthFrame.getUnits() : DEFAULT_DEPTH_UNITS;
+        }
+    }
+
+    @Override
+    protected void drawTexture(Rect r) {
+        mShaders.draw(mProgram, getTexture(), r, getTextureWidth(), mDepthUnits);
+    }
+
+    static boolean isFormatSupported(StreamFormat format) {
+        switch (format)
+        {
+            case RGB8:
+            case BGR8:
+            case RGBA8:
+            case Y8:
+            case Z16:
+            case YUYV: return true;
+            default: return false;
+        }
+    }
+
+    private static GLShaders.Program program(StreamFormat format) {
+        switch (format)
+        {
+            case BGR8: return GLShaders.Program.BGR;
+            case Z16: return GLShaders.Program.DEPTH;
+            case YUYV: return GLShaders.Program.YUYV;
+            default: return GLShaders.Program.RGB;
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        mGeneration = -1;
+    }
+}
@@ -0,0 +1,251 @@
+package com.intel.realsense.librealsense;
+
+import android.graphics.Rect;
+import android.opengl.GLES20;
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+// GL resources of the shader renderer. Z16 and YUYV are uploaded as two channel byte textures and decoded by
+// the fragment shaders, depth is colorized through a lookup texture. Called on the GL thread unless noted.
+class GLShaders implements AutoCloseable {
+    private static final String TAG = "librs GLShaders";
+
+    enum Program { RGB, BGR, DEPTH, YUYV }
+
+    private static final int LUT_SIZE = 256;
+    // jet, near is blue and far is red like the colorizer default
+    private static final float[][] LUT_POINTS = {
+            {0, 0, 255}, {0, 255, 255}, {255, 255, 0}, {255, 0, 0}, {50, 0, 0}
+    };
+
+    private static final String VERTEX_SHADER =
+            "attribute vec2 aPosition;\n" +
+            "attribute vec2 aTexCoord;\n" +
+            "varying vec2 vTexCoord;\n" +
+            "void main() {\n" +
+            "    gl_Position = vec4(aPosition, 0.0, 1.0);\n" +
+            "    vTexCoord = aTexCoord;\n" +
+            "}\n";
+
+    private static final String PRECISION =
+            "#ifdef GL_FRAGMENT_PRECISION_HIGH\n" +
+            "precision highp float;\n" +
+            "#else\n" +
+            "precision mediump float;\n" +
+            "#endif\n" +
+            "varying vec2 vTexCoord;\n" +
+            "uniform sampler2D uTexture;\n";
+
+    private static final String RGB_SHADER = PRECISION +
+            "void main() {\n" +
+            "    gl_FragColor = vec4(texture2D(uTexture, vTexCoord).rgb, 1.0);\n" +
+            "}\n";
+
+    private static final String BGR_SHADER = PRECISION +
+            "void main() {\n" +
+            "    gl_FragColor = vec4(texture2D(uTexture, vTexCoord).bgr, 1.0);\n" +
+            "}\n";
+
+    // luminance holds the low byte and alpha the high byte of the little endian depth value
+    private static final String DEPTH_SHADER = PRECISION +
+            "uniform sampler2D uLut;\n" +
+            "uniform float uScale;\n" +
+            "uniform float uOffset;\n" +
+            "void main() {\n" +
+            "    vec4 t = texture2D(uTexture, vTexCoord);\n" +
+            "    float raw = t.r * 255.0 + t.a * 65280.0;\n" +
+            "    float n = clamp(raw * uScale + uOffset, 0.0, 1.0);\n" +
+            "    vec3 color = texture2D(uLut, vec2(n * " + ((LUT_SIZE - 1f) / LUT_SIZE) + " + " + (0.5f / LUT_SIZE) + ", 0.5)).rgb;\n" +
+            "    gl_FragColor = vec4(raw < 0.5 ? vec3(0.0) : color, 1.0);\n" +
+            "}\n";
+
+    // every texel holds Y in luminance, the alpha of even texels holds U and of odd texels V, BT.601 limited range
+    private static final String YUYV_SHADER = PRECISION +
+            "uniform float uWidth;\n" +
+            "void main() {\n" +
+            "    float x = floor(vTexCoord.x * uWidth);\n" +
+            "    float even = x - mod(x, 2.0);\n" +
+            "    float y = texture2D(uTexture, vTexCoord).r - 16.0 / 255.0;\n" +
+            "    float u = texture2D(uTexture, vec2((even + 0.5) / uWidth, vTexCoord.y)).a - 0.5;\n" +
+            "    float v = texture2D(uTexture, vec2((even + 1.5) / uWidth, vTexCoord.y)).a - 0.5;\n" +
+            "    vec3 rgb = vec3(1.164 * y + 1.596 * v,\n" +
+            "                    1.164 * y - 0.391 * u - 0.813 * v,\n" +
+            "                    1.164 * y + 2.018 * u);\n" +
+            "    gl_FragColor = vec4(clamp(rgb, 0.0, 1.0), 1.0);\n" +
+            "}\n";
+
+    // the quad fills the viewport, the first image row is at the top
+    private static final float[] QUAD = {
+            -1,  1,  0, 0,
+            -1, -1,  0, 1,
+             1, -1,  1, 1,
+             1,  1,  1, 0
+    };
+
+    private final int[] mPrograms = new int[Program.values().length];
+    private final FloatBuffer mQuad;
+    private final int[] mLut = new int[1];
+    private volatile float mMinDistance = 0.f;
+    private volatile float mMaxDistance = 4.f;
+    // bumped by init, textures created for an older context are recreated
+    private int mGeneration = 0;
+
+    GLShaders() {
+        mQuad = ByteBuffer.allocateDirect(QUAD.length * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        mQuad.put(QUAD).position(0);
+    }
+
+    // Called whenever a new GL context was created, resources of the previous context are gone with it.
+    void init() {
+        mPrograms[Program.RGB.ordinal()] = createProgram(RGB_SHADER);
+        mPrograms[Program.BGR.ordinal()] = createProgram(BGR_SHADER);
+        mPrograms[Program.DEPTH.ordinal()] = createProgram(DEPTH_SHADER);
+        mPrograms[Program.YUYV.ordinal()] = createProgram(YUYV_SHADER);
+        mLut[0] = createLut();
+        mGeneration++;
+    }
+
+    int getGeneration() {
+        return mGeneration;
+    }
+
+    // distances in meters mapped to the two ends of the colormap, can be called on any thread
+    void setDepthRange(float min, float max) {
+        mMinDistance = min;
+        mMaxDistance = max;
+    }
+
+    void draw(Program program, int texture, Rect r, int width, float depthUnits) {
+        int handle = mPrograms[program.ordinal()];
+        if(handle == 0)
+            return;
+
+        GLES20.glViewport(r.left, r.top, r.width(), r.height());
+        GLES20.glUseProgram(handle);
+
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, texture);
+        GLES20.glUniform1i(GLES20.glGetUniformLocation(handle, "uTexture"), 0);
+
+        switch (program) {
+            case DEPTH: {
+                GLES20.glActiveTexture(GLES20.GL_TEXTURE1);
+                GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mLut[0]);
+                GLES20.glUniform1i(GLES20.glGetUniformLocation(handle, "uLut"), 1);
+                // normalized = (raw * units - min) / (max - min)
+                float range = Math.max(mMaxDistance - mMinDistance, 1e-6f);
+                GLES20.glUniform1f(GLES20.glGetUniformLocation(handle, "uScale"), depthUnits / range);
+                GLES20.glUniform1f(GLES20.glGetUniformLocation(handle, "uOffset"), -mMinDistance / range);
+                break;
+            }
+            case YUYV:
+                GLES20.glUniform1f(GLES20.glGetUniformLocation(handle, "uWidth"), width);
+                break;
+            default:
+                break;
+        }
+
+        int position = GLES20.glGetAttribLocation(handle, "aPosition");
+        int texCoord = GLES20.glGetAttribLocation(handle, "aTexCoord");
+        mQuad.position(0);
+        GLES20.glVertexAttribPointer(position, 2, GLES20.GL_FLOAT, false, 16, mQuad);
+        mQuad.position(2);
+        GLES20.glVertexAttribPointer(texCoord, 2, GLES20.GL_FLOAT, false, 16, mQuad);
+        GLES20.glEnableVertexAttribArray(position);
+        GLES20.glEnableVertexAttribArray(texCoord);
+
+        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_FAN, 0, 4);
+
+        GLES20.glDisableVertexAttribArray(position);
+        GLES20.glDisableVertexAttribArray(texCoord);
+        if(program == Program.DEPTH) {
+            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+            GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+        }
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        GLES20.glUseProgram(0);
+    }
+
+    private static int createLut() {
+        ByteBuffer colors = ByteBuffer.allocateDirect(LUT_SIZE * 3);
+        int segments = LUT_POINTS.length - 1;
+        for(int i = 0; i < LUT_SIZE; i++) {
+            float pos = (float) i / (LUT_SIZE - 1) * segments;
+            int s = Math.min((int) pos, segments - 1);
+            float t = pos - s;
+            for(int c = 0; c < 3; c++)
+                colors.put((byte) Math.round(LUT_POINTS[s][c] * (1 - t) + LUT_POINTS[s + 1][c] * t));
+        }
+        colors.position(0);
+
+        int[] rv = new int[1];
+        GLES20.glGenTextures(1, rv, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, rv[0]);
+        GLES20.glPixelStorei(GLES20.GL_UNPACK_ALIGNMENT, 1);
+        GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0, GLES20.GL_RGB, LUT_SIZE, 1, 0, GLES20.GL_RGB, GLES20.GL_UNSIGNED_BYTE, colors);
+        setTextureParameters(GLES20.GL_LINEAR);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        return rv[0];
+    }
+
+    // non power of two textures are only complete with clamping and without mipmaps
+    static void setTextureParameters(int filter) {
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, filter);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, filter);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+    }
+
+    private static int createProgram(String fragmentSource) {
+        int vertex = compile(GLES20.GL_VERTEX_SHADER, VERTEX_SHADER);
+        int fragment = compile(GLES20.GL_FRAGMENT_SHADER, fragmentSource);
+        if(vertex == 0 || fragment == 0)
+            return 0;
+
+        int rv = GLES20.glCreateProgram();
+        GLES20.glAttachShader(rv, vertex);
+        GLES20.glAttachShader(rv, fragment);
+        GLES20.glLinkProgram(rv);
+        // the program keeps the shaders alive while they are attached
+        GLES20.glDeleteShader(vertex);
+        GLES20.glDeleteShader(fragment);
+
+        int[] status = new int[1];
+        GLES20.glGetProgramiv(rv, GLES20.GL_LINK_STATUS, status, 0);
+        if(status[0] == 0) {
+            Log.e(TAG, "failed to link program: " + GLES20.glGetProgramInfoLog(rv));
+            GLES20.glDeleteProgram(rv);
+            return 0;
+        }
+        return rv;
+    }
+
+    private static int compile(int type, String source) {
+        int rv = GLES20.glCreateShader(type);
+        GLES20.glShaderSource(rv, source);
+        GLES20.glCompileShader(rv);
+        int[] status = new int[1];
+        GLES20.glGetShaderiv(rv, GLES20.GL_COMPILE_STATUS, status, 0);
+        if(status[0] == 0) {
+            Log.e(TAG, "failed to compile shader: " + GLES20.glGetShaderInfoLog(rv));
+            GLES20.glDeleteShader(rv);
+            return 0;
+        }
+        return rv;
+    }
+
+    @Override
+    public void close() {
+        for(int i = 0; i < mPrograms.length; i++) {
+            if(mPrograms[i] != 0)
+                GLES20.glDeleteProgram(mPrograms[i]);
+            mPrograms[i] = 0;
+        }
+        if(mLut[0] != 0)
+            GLES20.glDeleteTextures(1, mLut, 0);
+        mLut[0] = 0;
+    }
+}
@@ -8,23 +8,24 @@ import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 
 public class GLVideoFrame extends GLFrame {
+    private static final int GL_UNPACK_ALIGNMENT = 0x0CF5;
+
     private IntBuffer mGlTexture;
+    private VideoFrame mVideoFrame;
+    // what the texture currently holds, storage is allocated once per size and format
+    private boolean mUploaded = false;
+    private int mTextureWidth;
+    private int mTextureHeight;
+    private int mTextureFormat;
 
     public GLVideoFrame(){
         mGlTexture = IntBuffer.allocate(1);
-        GLES10.glGenTextures(1, mGlTexture);
     }
 
-    public int getTexture() { return mGlTexture.array()[0]; }
+    public int getTexture() { return mGlTexture.get(0); }
 
-    private Rect adjustRatio(Rect in){
-        if (mFrame == null || !(mFrame.is(Extension.VIDEO_FRAME)))
-            return null;
-
-        float ratio = 0;
-        try(VideoFrame vf = mFrame.as(Extension.VIDEO_FRAME)) {
-            ratio = (float)vf.getWidth() / (float)vf.getHeight();
-        }
+    static Rect adjustRatio(Rect in, VideoFrame vf){
+        float ratio = (float)vf.getWidth() / (float)vf.getHeight();
         float newHeight = in.height();
         float newWidth = in.height() * ratio;
         if(newWidth > in.width()){
@@ -41,31 +42,107 @@ public class GLVideoFrame extends GLFrame {
     }
 
     @Override
-    public synchronized void draw(Rect rect)
+    public void draw(Rect rect)
     {
+        // the display refreshes faster than most streams, a frame is sent to the GPU once, when it is acquired
+        boolean dirty = acquireFrame();
         if (mFrame == null || !(mFrame.is(Extension.VIDEO_FRAME)))
             return;
 
-        try(VideoFrame vf = mFrame.as(Extension.VIDEO_FRAME)) {
-            int size = vf.getStride() * vf.getHeight();
-            if(mBuffer == null || mBuffer.array().length != size){
-                mBuffer = ByteBuffer.allocate(size);
-                mBuffer.order(ByteOrder.LITTLE_ENDIAN);
-            }
-            mFrame.getData(mBuffer.array());
-            mBuffer.rewind();
+        // textures are created on the GL thread, the constructor runs on the upload thread
+        if(needsTexture()) {
+            createTexture();
+            // the new texture is empty, the current frame is uploaded again
+            mUploaded = false;
+            mTextureWidth = mTextureHeight = mTextureFormat = 0;
+        }
+
+        VideoFrame vf = videoFrame();
+        if(dirty || !mUploaded) {
+            uploadIncremental(vf);
+            mUploaded = true;
+        }
+        Rect r = adjustRatio(rect, vf);
+        drawTexture(r);
+    }
+
+    private void uploadIncremental(VideoFrame vf) {
+        int width = vf.getWidth();
+        int height = vf.getHeight();
+        StreamFormat streamFormat;
+        try(VideoStreamProfile profile = vf.getProfile()){
+            streamFormat = profile.getFormat();
+        }
+        int format = glFormat(streamFormat);
+        onUpload(streamFormat);
+
+        GLES10.glBindTexture(GLES10.GL_TEXTURE_2D, getTexture());
+        GLES10.glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        if(width != mTextureWidth || height != mTextureHeight || format != mTextureFormat) {
+            GLES10.glTexImage2D(GLES10.GL_TEXTURE_2D, 0, format, width, height, 0, format, GLES10.GL_UNSIGNED_BYTE, null);
+            setTextureParameters(format);
+            mTextureWidth = width;
+            mTextureHeight = height;
+            mTextureFormat = format;
+        }
+        // reads straight from the native frame memory
+        GLES10.glTexSubImage2D(GLES10.GL_TEXTURE_2D, 0, 0, 0, width, height, format, GLES10.GL_UNSIGNED_BYTE, mFrame.getDataBuffer());
+        GLES10.glBindTexture(GLES10.GL_TEXTURE_2D, 0);
+    }
+
+    protected int getTextureWidth() { return mTextureWidth; }
 
-            upload(vf, mBuffer, mGlTexture.get(0));
-            Rect r = adjustRatio(rect);
-            draw(r, mGlTexture.get(0));
+    // Hooks for renderers that create, fill or draw the texture differently, all of them run on the GL thread.
+
+    protected boolean needsTexture() {
+        return getTexture() == 0;
+    }
+
+    protected void createTexture() {
+        GLES10.glGenTextures(1, mGlTexture);
+    }
+
+    protected int glFormat(StreamFormat format) {
+        switch (format)
+        {
+            case RGB8:
+            case BGR8: return GLES10.GL_RGB;
+            case RGBA8: return GLES10.GL_RGBA;
+            case Y8: return GLES10.GL_LUMINANCE;
+            default:
+                throw new RuntimeException("The requested format is not supported by the viewer");
         }
     }
 
+    // called once the texture storage of the given format was allocated and is bound
+    protected void setTextureParameters(int format) {
+        GLES10.glTexParameterx(GLES10.GL_TEXTURE_2D, GLES10.GL_TEXTURE_MAG_FILTER, GLES10.GL_LINEAR);
+        GLES10.glTexParameterx(GLES10.GL_TEXTURE_2D, GLES10.GL_TEXTURE_MIN_FILTER, GLES10.GL_LINEAR);
+        GLES10.glTexParameterx(GLES10.GL_TEXTURE_2D, GLES10.GL_TEXTURE_WRAP_S, 0x2900);
+        GLES10.glTexParameterx(GLES10.GL_TEXTURE_2D, GLES10.GL_TEXTURE_WRAP_T, 0x2900);
+    }
+
+    // called before each upload of the current frame
+    protected void onUpload(StreamFormat format) { }
+
+    protected void drawTexture(Rect r) {
+        draw(r, getTexture());
+    }
+
+    private VideoFrame videoFrame() {
+        mVideoFrame = VideoFrame.wrap(mFrame, mVideoFrame);
+        return mVideoFrame;
+    }
+
     @Override
-    public synchronized void close() {
-        if(mFrame != null)
-            mFrame.close();
-        GLES10.glDeleteTextures(1, mGlTexture);
+    public void close() {
+        super.close();
+        // a texture of a lost context was already freed with it
+        if(!needsTexture())
+            GLES10.glDeleteTextures(1, mGlTexture);
+        mGlTexture.put(0, 0);
+        mUploaded = false;
+        mTextureWidth = mTextureHeight = mTextureFormat = 0;
     }
 
     public static void upload(VideoFrame vf, ByteBuffer buffer, int texture)
@@ -0,0 +1,16 @@
+package com.intel.realsense.librealsense;
+
+public enum Matcher {
+    DI(0),
+    DI_C(1),
+    DLR_C(2),
+    DLR(3),
+    DIC(4),
+    DIC_C(5),
+    DEFAULT(6);
+
+    private final int mValue;
+
+    private Matcher(int value) { mValue = value; }
+    public int value() { return mValue; }
+}
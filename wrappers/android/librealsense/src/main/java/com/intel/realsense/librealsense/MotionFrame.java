@@ -12,6 +12,13 @@ public class MotionFrame extends Frame {
         mOwner = false;
     }
 
+    // Returns a non owning motion view of the given frame, reusing the provided view object if not null.
+    public static MotionFrame wrap(Frame frame, MotionFrame reuse) {
+        MotionFrame rv = reuse != null ? reuse : new MotionFrame(frame.getHandle());
+        rv.bindTo(frame);
+        return rv;
+    }
+
     public Float3 getMotionData(){
         ByteBuffer buffer = ByteBuffer.allocate(32);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
@@ -20,7 +27,16 @@ public class MotionFrame extends Frame {
         return new Float3(fb.get(0), fb.get(1), fb.get(2));
     }
 
+    // Copies x, y and z into the first three elements of the given array, nothing is allocated.
+    public void getMotionData(float[] data) {
+        if(data.length < 3)
+            throw new IllegalArgumentException("the array must hold at least 3 values");
+        nGetMotionData(mHandle, data);
+    }
+
     public MotionStreamProfile getProfile() {
-        return new MotionStreamProfile(nGetStreamProfile(mHandle));
+        return super.getProfile().as(Extension.MOTION_PROFILE);
     }
+
+    private static native void nGetMotionData(long handle, float[] data);
 }
@@ -0,0 +1,8 @@
+package com.intel.realsense.librealsense;
+
+// What a bounded hand-off does with a new frame when its queue is full.
+public enum OverflowPolicy {
+    DROP_OLDEST,
+    DROP_NEWEST,
+    BLOCK
+}
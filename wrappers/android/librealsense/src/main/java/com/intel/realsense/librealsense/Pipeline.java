@@ -2,8 +2,14 @@ package com.intel.realsense.librealsense;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class Pipeline extends LrsClass{
+    private static final int DEFAULT_HANDOFF_CAPACITY = 2;
+
+    private FrameSetDispatcher mDispatcher;
+    private long mLastWaitNanos;
+
     public Pipeline(){
         try(RsContext ctx = new RsContext()) {
             mHandle = nCreate(ctx.getHandle());
@@ -33,8 +39,58 @@ public class Pipeline extends LrsClass{
         return new PipelineProfile(h);
     }
 
+    // The callback runs on the librealsense thread with a frameset that is valid for the callback duration only.
+    // Named apart from start(FrameCallback) so a lambda argument is not ambiguous.
+    public PipelineProfile startWithFrameSets(FrameSetCallback cb) throws Exception {
+        FrameSetDispatcher dispatcher = new FrameSetDispatcher(cb);
+        PipelineProfile rv = start(dispatcher);
+        mDispatcher = dispatcher;
+        return rv;
+    }
+
+    public PipelineProfile startWithFrameSets(Config config, FrameSetCallback cb) throws Exception {
+        return start(config, new FrameSetDispatcher(cb));
+    }
+
+    public PipelineProfile startWithFrameSets(Config config, Executor executor, FrameSetCallback cb) throws Exception {
+        return startWithFrameSets(config, executor, DEFAULT_HANDOFF_CAPACITY, OverflowPolicy.DROP_OLDEST, cb);
+    }
+
+    // Framesets are queued and delivered in order on the executor, so a slow consumer does not stall the
+    // librealsense threads. When the queue is full the policy decides which frameset is dropped, or BLOCK
+    // makes librealsense wait. The frameset passed to the callback is closed when the callback returns.
+    public PipelineProfile startWithFrameSets(Config config, Executor executor, int queueCapacity,
+                                              OverflowPolicy policy, FrameSetCallback cb) throws Exception {
+        return start(config, new FrameSetDispatcher(cb, executor, queueCapacity, policy));
+    }
+
+    private PipelineProfile start(Config config, FrameSetDispatcher dispatcher) throws Exception {
+        PipelineProfile rv = start(config, (FrameCallback) dispatcher);
+        mDispatcher = dispatcher;
+        return rv;
+    }
+
+    // Framesets dropped by the executor hand-off since the pipeline was started.
+    public long getDroppedFrameSets() {
+        FrameSetDispatcher dispatcher = mDispatcher;
+        return dispatcher == null ? 0 : dispatcher.getDroppedFrameSets();
+    }
+
+    public long getDroppedFrames(StreamType type) {
+        FrameSetDispatcher dispatcher = mDispatcher;
+        return dispatcher == null ? 0 : dispatcher.getDroppedFrames(type);
+    }
+
     public void stop() {
+        FrameSetDispatcher dispatcher = mDispatcher;
+        // unblocks a BLOCK hand-off so the native stop can complete
+        if(dispatcher != null)
+            dispatcher.close();
         nStop(mHandle);
+        if(dispatcher != null)
+            dispatcher.close();
+        // the counters belong to the stopped session, a later start() without a dispatcher reports none
+        mDispatcher = null;
     }
 
     public FrameSet waitForFrames() throws Exception {
@@ -46,6 +102,48 @@ public class Pipeline extends LrsClass{
         return new FrameSet(frameHandle);
     }
 
+    // Binds the next frameset into the given object instead of allocating a new one.
+    public FrameSet waitForFrames (int timeoutMilliseconds, FrameSet reuse) throws Exception{
+        long frameHandle = nWaitForFrames(mHandle, timeoutMilliseconds);
+        return bind(frameHandle, reuse);
+    }
+
+    // Same as waitForFrames, but a timeout returns null instead of throwing.
+    public FrameSet tryWaitForFrames(int timeoutMilliseconds) {
+        return tryWaitForFrames(timeoutMilliseconds, null);
+    }
+
+    public FrameSet tryWaitForFrames(int timeoutMilliseconds, FrameSet reuse) {
+        long start = System.nanoTime();
+        long frameHandle = nTryWaitForFrames(mHandle, timeoutMilliseconds);
+        mLastWaitNanos = System.nanoTime() - start;
+        return frameHandle == 0 ? null : bind(frameHandle, reuse);
+    }
+
+    // Returns the next frameset if one is already available, null otherwise. Never blocks.
+    public FrameSet pollForFrames() {
+        return pollForFrames(null);
+    }
+
+    public FrameSet pollForFrames(FrameSet reuse) {
+        long start = System.nanoTime();
+        long frameHandle = nPollForFrames(mHandle);
+        mLastWaitNanos = System.nanoTime() - start;
+        return frameHandle == 0 ? null : bind(frameHandle, reuse);
+    }
+
+    // Time spent in the last tryWaitForFrames or pollForFrames call, i.e. the slack left in a streaming loop.
+    public long getLastWaitNanos() {
+        return mLastWaitNanos;
+    }
+
+    private static FrameSet bind(long frameHandle, FrameSet reuse) {
+        if(reuse == null)
+            return new FrameSet(frameHandle);
+        reuse.reset(frameHandle, true);
+        return reuse;
+    }
+
     public List<StreamProfile> getActiveStreams(){
         long[] streamProfilesHandles = nGetActiveStreams(mHandle);
         List<StreamProfile> rv = new ArrayList<>();
@@ -68,5 +166,7 @@ public class Pipeline extends LrsClass{
     private static native long nStartWithConfigAndCallback(long handle, long configHandle, FrameCallback callback);
     private static native void nStop(long handle);
     private static native long nWaitForFrames(long handle, int timeout);
+    private static native long nTryWaitForFrames(long handle, int timeout);
+    private static native long nPollForFrames(long handle);
     private static native long[] nGetActiveStreams(long handle);
 }
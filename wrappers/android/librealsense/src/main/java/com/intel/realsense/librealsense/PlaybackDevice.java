@@ -0,0 +1,97 @@
+package com.intel.realsense.librealsense;
+
+import java.util.concurrent.TimeUnit;
+
+// Controls a device created from a recorded file, e.g. the device of a pipeline started with
+// Config.enableDeviceFromFile. Times and positions are in nanoseconds from the start of the file.
+public class PlaybackDevice extends Device {
+
+    private static class StatusCallback {
+        private final PlaybackStatusListener mListener;
+
+        StatusCallback(PlaybackStatusListener listener) {
+            mListener = listener;
+        }
+
+        // called from native code
+        void onStatusChanged(int status) {
+            mListener.onStatusChanged(PlaybackStatus.fromValue(status));
+        }
+    }
+
+    PlaybackDevice(long handle){
+        super(handle);
+        mOwner = false;
+    }
+
+    public String getFilePath() {
+        return nGetFilePath(mHandle);
+    }
+
+    public long getDuration() {
+        return nGetDuration(mHandle);
+    }
+
+    public long getPosition() {
+        return nGetPosition(mHandle);
+    }
+
+    public void seek(long timeNanos) {
+        nSeek(mHandle, timeNanos);
+    }
+
+    public void seek(long time, TimeUnit unit) {
+        seek(unit.toNanos(time));
+    }
+
+    public void pause() {
+        nPause(mHandle);
+    }
+
+    public void resume() {
+        nResume(mHandle);
+    }
+
+    // Stops all playback sensors and rewinds to the beginning of the file.
+    public void stop() {
+        nStop(mHandle);
+    }
+
+    // In non real time mode frames are read only after the previous ones were handled, so offline
+    // processing runs as fast as the consumer allows and no frames are dropped.
+    public void setRealTime(boolean realTime) {
+        nSetRealTime(mHandle, realTime);
+    }
+
+    public boolean isRealTime() {
+        return nIsRealTime(mHandle);
+    }
+
+    // 1 is the recorded speed, 0.5 is twice as slow. Applies to real time mode only.
+    public void setPlaybackSpeed(float speed) {
+        if(speed <= 0)
+            throw new IllegalArgumentException("playback speed must be positive");
+        nSetPlaybackSpeed(mHandle, speed);
+    }
+
+    public PlaybackStatus getStatus() {
+        return PlaybackStatus.fromValue(nGetCurrentStatus(mHandle));
+    }
+
+    public void setStatusChangedListener(PlaybackStatusListener listener) {
+        nSetStatusChangedCallback(mHandle, new StatusCallback(listener));
+    }
+
+    private static native String nGetFilePath(long handle);
+    private static native long nGetDuration(long handle);
+    private static native long nGetPosition(long handle);
+    private static native void nSeek(long handle, long time);
+    private static native void nPause(long handle);
+    private static native void nResume(long handle);
+    private static native void nStop(long handle);
+    private static native void nSetRealTime(long handle, boolean realTime);
+    private static native boolean nIsRealTime(long handle);
+    private static native void nSetPlaybackSpeed(long handle, float speed);
+    private static native int nGetCurrentStatus(long handle);
+    private static native void nSetStatusChangedCallback(long handle, StatusCallback callback);
+}
@@ -0,0 +1,21 @@
+package com.intel.realsense.librealsense;
+
+public enum PlaybackStatus {
+    UNKNOWN(0),
+    PLAYING(1),
+    PAUSED(2),
+    STOPPED(3);
+
+    private final int mValue;
+
+    private PlaybackStatus(int value) { mValue = value; }
+    public int value() { return mValue; }
+
+    static PlaybackStatus fromValue(int value) {
+        for(PlaybackStatus status : values()) {
+            if(status.mValue == value)
+                return status;
+        }
+        return UNKNOWN;
+    }
+}
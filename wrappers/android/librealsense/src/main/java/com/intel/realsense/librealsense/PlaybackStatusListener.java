@@ -0,0 +1,6 @@
+package com.intel.realsense.librealsense;
+
+public interface PlaybackStatusListener {
+    // Called on the playback reading thread, heavy work here delays the playback.
+    void onStatusChanged(PlaybackStatus status);
+}
@@ -1,14 +1,35 @@
 package com.intel.realsense.librealsense;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
 public class Points extends Frame {
     private float[] mData;
     private float[] mTextureCoordinates;
+    private FloatBuffer mVerticesBuffer;
+    private FloatBuffer mTextureCoordinatesBuffer;
 
     protected Points(long handle) {
         super(handle);
         mOwner = false;
     }
 
+    // Returns a non owning points view of the given frame, reusing the provided view object if not null.
+    public static Points wrap(Frame frame, Points reuse) {
+        Points rv = reuse != null ? reuse : new Points(frame.getHandle());
+        rv.bindTo(frame);
+        return rv;
+    }
+
+    @Override
+    void reset(long handle, boolean owner) {
+        super.reset(handle, owner);
+        mData = null;
+        mTextureCoordinates = null;
+    }
+
     public float[] getVertices(){
         if(mData == null){
             mData = new float[getCount() * 3];
@@ -33,6 +54,58 @@ public class Points extends Frame {
         nGetData(mHandle, data);
     }
 
+    // Copies count * 3 floats into a caller owned direct, writable, native order buffer, starting at its position.
+    // The position is advanced past the written vertices.
+    public void getVertices(FloatBuffer dst) {
+        int size = getCount() * 3;
+        checkDestination(dst, size);
+        nCopyVertices(mHandle, dst, dst.position(), size);
+        dst.position(dst.position() + size);
+    }
+
+    // Copies count * 2 floats into a caller owned direct, writable, native order buffer, starting at its position.
+    // The position is advanced past the written coordinates.
+    public void getTextureCoordinates(FloatBuffer dst) {
+        int size = getCount() * 2;
+        checkDestination(dst, size);
+        nCopyTextureCoordinates(mHandle, dst, dst.position(), size);
+        dst.position(dst.position() + size);
+    }
+
+    // Writes an RGBA color per point into a caller owned direct, writable buffer, starting at its position, by looking up
+    // the texture coordinates in the given RGB8, BGR8, RGBA8, BGRA8 or Y8 video frame. Points without depth or
+    // outside of the texture are transparent. The position is advanced past the written colors.
+    public void mapColors(Frame texture, ByteBuffer dst) {
+        int size = getCount() * 4;
+        checkDestination(dst, size);
+        nMapColors(mHandle, texture.getHandle(), dst, dst.position());
+        dst.position(dst.position() + size);
+    }
+
+    // Same as mapColors for point clouds without a texture, the gray level is proportional to the distance.
+    public void mapDepthColors(float maxRange, ByteBuffer dst) {
+        int size = getCount() * 4;
+        checkDestination(dst, size);
+        nMapDepthColors(mHandle, maxRange, dst, dst.position());
+        dst.position(dst.position() + size);
+    }
+
+    // Zero copy, read-only view over the native vertices (x, y, z per point), a new view on every call.
+    // Like getDataBuffer, it must not be read after this object is closed.
+    public synchronized FloatBuffer getVerticesBuffer() {
+        if(mVerticesBuffer == null)
+            mVerticesBuffer = asFloatView(nGetVerticesBuffer(mHandle));
+        return mVerticesBuffer.duplicate();
+    }
+
+    // Zero copy, read-only view over the native texture coordinates (u, v per point), a new view on every call.
+    // Like getDataBuffer, it must not be read after this object is closed.
+    public synchronized FloatBuffer getTextureCoordinatesBuffer() {
+        if(mTextureCoordinatesBuffer == null)
+            mTextureCoordinatesBuffer = asFloatView(nGetTextureCoordinatesBuffer(mHandle));
+        return mTextureCoordinatesBuffer.duplicate();
+    }
+
     public int getCount(){
         return nGetCount(mHandle);
     }
@@ -41,8 +114,41 @@ public class Points extends Frame {
         nExportToPly(mHandle, filePath, texture.getHandle());
     }
 
+    @Override
+    protected synchronized void invalidateDataBuffer() {
+        super.invalidateDataBuffer();
+        mVerticesBuffer = null;
+        mTextureCoordinatesBuffer = null;
+    }
+
+    // the native side writes floats in native byte order
+    private static void checkDestination(FloatBuffer dst, int size) {
+        if(dst.order() != ByteOrder.nativeOrder())
+            throw new IllegalArgumentException("destination buffer must use the native byte order");
+        checkDestination((Buffer) dst, size);
+    }
+
+    private static void checkDestination(Buffer dst, int size) {
+        if(!dst.isDirect())
+            throw new IllegalArgumentException("destination buffer must be direct");
+        if(dst.isReadOnly())
+            throw new IllegalArgumentException("destination buffer must be writable");
+        if(dst.remaining() < size)
+            throw new IllegalArgumentException("destination buffer too small, required: " + size + ", remaining: " + dst.remaining());
+    }
+
+    private static FloatBuffer asFloatView(ByteBuffer buffer) {
+        return buffer.asReadOnlyBuffer().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
     private static native int nGetCount(long handle);
     private static native void nGetData(long handle, float[] data);
     private static native void nGetTextureCoordinates(long handle, float[] data);
+    private static native void nCopyVertices(long handle, FloatBuffer dst, int offset, int size);
+    private static native void nCopyTextureCoordinates(long handle, FloatBuffer dst, int offset, int size);
+    private static native ByteBuffer nGetVerticesBuffer(long handle);
+    private static native ByteBuffer nGetTextureCoordinatesBuffer(long handle);
+    private static native void nMapColors(long handle, long textureHandle, ByteBuffer dst, int offset);
+    private static native void nMapDepthColors(long handle, float maxRange, ByteBuffer dst, int offset);
     private static native void nExportToPly(long handle, String filePath, long textureHandle);
 }
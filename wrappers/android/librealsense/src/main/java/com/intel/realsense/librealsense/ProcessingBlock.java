@@ -5,17 +5,17 @@ public abstract class ProcessingBlock extends Options implements ProcessingBlock
     private static native void nDelete(long handle);
 
     @Override
-    public void invoke(Frame original) {
+    public synchronized void invoke(Frame original) {
         nInvoke(mHandle, original.getHandle());
     }
 
     @Override
-    public void invoke(FrameSet original) {
+    public synchronized void invoke(FrameSet original) {
         nInvoke(mHandle, original.getHandle());
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
         nDelete(mHandle);
     }
 
@@ -0,0 +1,88 @@
+package com.intel.realsense.librealsense;
+
+// Controls the recorder of a pipeline started with Config.enableRecordToFile, obtained with
+// Device.as(Extension.RECORD). Pausing stops writing to the file while the sensors keep streaming, and
+// switching continues in a new file, so clips can be cut without restarting the pipeline.
+public class RecordDevice extends Device {
+
+    // Counters of the writer between the sensors and the file, byte counts refer to frame data.
+    public static class WriteStats {
+        public long framesPending;
+        public long bytesPending;
+        public long maxBytesPending;
+        public long framesWritten;
+        public long bytesWritten;
+        public long writeTimeNanos;
+        public long framesDropped;
+
+        // sustained rate of the storage, compare with the capture rate to size a recording
+        public double getWriteBytesPerSecond() {
+            return writeTimeNanos == 0 ? 0 : bytesWritten * 1e9 / writeTimeNanos;
+        }
+    }
+
+    RecordDevice(long handle){
+        super(handle);
+        mOwner = false;
+    }
+
+    private RecordDevice(long handle, boolean owner){
+        super(handle);
+        mOwner = owner;
+    }
+
+    // Records the given device to a file. Sensors opened through the returned device are recorded,
+    // the file is finalized when the returned device is closed.
+    public static RecordDevice create(Device device, String filePath, boolean compression) {
+        return new RecordDevice(nCreate(device.getHandle(), filePath, compression), true);
+    }
+
+    public void pause() {
+        nPause(mHandle);
+    }
+
+    public void resume() {
+        nResume(mHandle);
+    }
+
+    // Finishes the current file and continues the recording in a new one while the sensors keep streaming.
+    // Frames still queued for writing go to the previous file, pause before switching to cut at an exact frame
+    // and resume afterwards. The new file is compressed like the files of a pipeline recording.
+    public void switchFile(String filePath) {
+        switchFile(filePath, true);
+    }
+
+    public void switchFile(String filePath, boolean compression) {
+        nSwitchFile(mHandle, filePath, compression);
+    }
+
+    public String getFileName() {
+        return nGetFileName(mHandle);
+    }
+
+    // Limits the frame data waiting to be written. When a stall of the storage exhausts the budget, DROP_NEWEST
+    // skips the new frames and counts them as dropped, BLOCK holds the sensor thread until the writer caught up.
+    public void setWriteBudget(long maxPendingBytes, OverflowPolicy policy) {
+        if(maxPendingBytes <= 0)
+            throw new IllegalArgumentException("write budget must be positive");
+        switch (policy) {
+            case DROP_NEWEST: nSetWriteBudget(mHandle, maxPendingBytes, 0); break;
+            case BLOCK: nSetWriteBudget(mHandle, maxPendingBytes, 1); break;
+            default: throw new IllegalArgumentException("recording does not support " + policy);
+        }
+    }
+
+    public WriteStats getWriteStats() {
+        WriteStats rv = new WriteStats();
+        nGetWriteStats(mHandle, rv);
+        return rv;
+    }
+
+    private static native long nCreate(long deviceHandle, String filePath, boolean compression);
+    private static native void nPause(long handle);
+    private static native void nResume(long handle);
+    private static native void nSwitchFile(long handle, String filePath, boolean compression);
+    private static native String nGetFileName(long handle);
+    private static native void nSetWriteBudget(long handle, long maxPendingBytes, int policy);
+    private static native void nGetWriteStats(long handle, WriteStats stats);
+}
@@ -0,0 +1,42 @@
+package com.intel.realsense.librealsense;
+
+// A device fed by the application instead of a camera or a recording.
+// Frames are injected through the sensors returned by addSensor.
+public class SoftwareDevice extends Device {
+
+    public SoftwareDevice() {
+        super(nCreate());
+    }
+
+    // The sensor is owned by the device and released when the device is closed.
+    public SoftwareSensor addSensor(String name) {
+        SoftwareSensor rv = new SoftwareSensor(nAddSensor(mHandle, name));
+        querySensors().add(rv);
+        return rv;
+    }
+
+    public void registerInfo(CameraInfo info, String value) {
+        nRegisterInfo(mHandle, info.value(), value);
+    }
+
+    public void updateInfo(CameraInfo info, String value) {
+        nUpdateInfo(mHandle, info.value(), value);
+    }
+
+    // Selects how frames of the different sensors are grouped into framesets.
+    public void createMatcher(Matcher matcher) {
+        nCreateMatcher(mHandle, matcher.value());
+    }
+
+    // Makes the device available to pipelines created with the given context.
+    public void addTo(RsContext context) {
+        nAddToContext(mHandle, context.getHandle());
+    }
+
+    private static native long nCreate();
+    private static native long nAddSensor(long handle, String name);
+    private static native void nRegisterInfo(long handle, int info, String value);
+    private static native void nUpdateInfo(long handle, int info, String value);
+    private static native void nCreateMatcher(long handle, int matcher);
+    private static native void nAddToContext(long handle, long contextHandle);
+}
@@ -0,0 +1,84 @@
+package com.intel.realsense.librealsense;
+
+import java.nio.ByteBuffer;
+
+public class SoftwareSensor extends Sensor {
+
+    SoftwareSensor(long handle) {
+        super(handle);
+    }
+
+    // The returned profile is owned by the sensor.
+    public VideoStreamProfile addVideoStream(StreamType type, int index, int uid, int width, int height,
+                                             int fps, int bpp, StreamFormat format, Intrinsic intrinsic,
+                                             boolean isDefault) {
+        long h = nAddVideoStream(mHandle, type.value(), index, uid, width, height, fps, bpp,
+                format.value(), intrinsic, isDefault);
+        return new VideoStreamProfile(h);
+    }
+
+    // The returned profile is owned by the sensor.
+    public MotionStreamProfile addMotionStream(StreamType type, int index, int uid, int fps,
+                                               StreamFormat format, MotionIntrinsic intrinsic,
+                                               boolean isDefault) {
+        long h = nAddMotionStream(mHandle, type.value(), index, uid, fps, format.value(), intrinsic, isDefault);
+        return new MotionStreamProfile(h);
+    }
+
+    // Injects a video frame without copying it. The direct buffer is handed over to librealsense and must
+    // not be modified until onRelease is called, which happens once the frame and all its clones are released.
+    // onRelease may be called on any thread, and is called even if the frame is dropped.
+    public void onVideoFrame(ByteBuffer pixels, int stride, int bpp, double timestamp, TimestampDomain domain,
+                             int frameNumber, StreamProfile profile, float depthUnits,
+                             BufferReleasedCallback onRelease) {
+        checkFrameArguments(pixels, profile);
+        nOnVideoFrame(mHandle, pixels, stride, bpp, timestamp, domain.value(), frameNumber,
+                profile.getHandle(), depthUnits, onRelease);
+    }
+
+    public void onVideoFrame(ByteBuffer pixels, int stride, int bpp, double timestamp, TimestampDomain domain,
+                             int frameNumber, StreamProfile profile, BufferReleasedCallback onRelease) {
+        onVideoFrame(pixels, stride, bpp, timestamp, domain, frameNumber, profile, 0, onRelease);
+    }
+
+    // Same ownership rules as onVideoFrame.
+    public void onMotionFrame(ByteBuffer data, double timestamp, TimestampDomain domain, int frameNumber,
+                              StreamProfile profile, BufferReleasedCallback onRelease) {
+        checkFrameArguments(data, profile);
+        nOnMotionFrame(mHandle, data, timestamp, domain.value(), frameNumber, profile.getHandle(), onRelease);
+    }
+
+    // Applied to every frame injected after this call.
+    public void setMetadata(FrameMetadata type, long value) {
+        nSetMetadata(mHandle, type.value(), value);
+    }
+
+    // DEPTH_UNITS has to be added for depth sensors to be usable by Align and Pointcloud.
+    public void addReadOnlyOption(Option option, float value) {
+        nAddReadOnlyOption(mHandle, option.value(), value);
+    }
+
+    public void updateReadOnlyOption(Option option, float value) {
+        nUpdateReadOnlyOption(mHandle, option.value(), value);
+    }
+
+    private static void checkFrameArguments(ByteBuffer data, StreamProfile profile) {
+        if(data == null || !data.isDirect())
+            throw new IllegalArgumentException("frame data must be a direct buffer");
+        if(profile == null)
+            throw new IllegalArgumentException("profile must not be null");
+    }
+
+    private static native long nAddVideoStream(long handle, int type, int index, int uid, int width, int height,
+                                               int fps, int bpp, int format, Intrinsic intrinsic, boolean isDefault);
+    private static native long nAddMotionStream(long handle, int type, int index, int uid, int fps, int format,
+                                                MotionIntrinsic intrinsic, boolean isDefault);
+    private static native void nOnVideoFrame(long handle, ByteBuffer pixels, int stride, int bpp, double timestamp,
+                                             int domain, int frameNumber, long profile, float depthUnits,
+                                             BufferReleasedCallback callback);
+    private static native void nOnMotionFrame(long handle, ByteBuffer data, double timestamp, int domain,
+                                              int frameNumber, long profile, BufferReleasedCallback callback);
+    private static native void nSetMetadata(long handle, int type, long value);
+    private static native void nAddReadOnlyOption(long handle, int option, float value);
+    private static native void nUpdateReadOnlyOption(long handle, int option, float value);
+}
@@ -2,6 +2,9 @@ package com.intel.realsense.librealsense;
 
 
 public class StreamProfile extends LrsClass {
+    private static final StreamType[] sStreamTypes = StreamType.values();
+    private static final StreamFormat[] sStreamFormats = StreamFormat.values();
+
     private StreamType mType;
     private StreamFormat mFormat;
 
@@ -19,8 +22,8 @@ public class StreamProfile extends LrsClass {
         mHandle = handle;
         mPp = new ProfileParams();
         nGetProfile(mHandle, mPp);
-        mType = StreamType.values()[mPp.type];
-        mFormat = StreamFormat.values()[mPp.format];
+        mType = sStreamTypes[mPp.type];
+        mFormat = sStreamFormats[mPp.format];
     }
 
     public StreamType getType() {
@@ -60,8 +63,8 @@ public class StreamProfile extends LrsClass {
 
     public <T extends StreamProfile> T as(Extension extension) {
         switch (extension){
-            case VIDEO_PROFILE: return (T) new VideoStreamProfile(mHandle);
-            case MOTION_PROFILE: return (T) new MotionStreamProfile(mHandle);
+            case VIDEO_PROFILE: return (T) (this instanceof VideoStreamProfile ? this : new VideoStreamProfile(mHandle));
+            case MOTION_PROFILE: return (T) (this instanceof MotionStreamProfile ? this : new MotionStreamProfile(mHandle));
         }
         throw new RuntimeException("this profile is not extendable to " + extension.name());
     }
@@ -0,0 +1,86 @@
+package com.intel.realsense.librealsense;
+
+// Process wide cache of stream profiles keyed by their native rs2_stream_profile handle.
+// Sensors and processing blocks free and re-create profiles, so a handle can be reused by a different profile.
+// A hit is only returned when the live profile still has the stream, format, index, unique id, rate and size
+// it had when it was cached, otherwise the entry is replaced. The caller passes that key, read natively together
+// with the handle, so a lookup does not call into native code. Lookups use an open addressing table to avoid
+// boxing the key.
+class StreamProfileCache {
+    private static final int CAPACITY = 128;
+    private static final int MAX_ENTRIES = CAPACITY / 2;
+    // stream type, format, index, unique id, frame rate, width and height, see rs_jni_get_profile_key
+    static final int KEY_SIZE = 7;
+
+    private static final long[] sKeys = new long[CAPACITY];
+    private static final StreamProfile[] sValues = new StreamProfile[CAPACITY];
+    private static final int[] sProfileKeys = new int[CAPACITY * KEY_SIZE];
+    private static int sSize = 0;
+
+    // The handle comes from a live frame, so it points to a live profile, maybe not the cached one.
+    static synchronized StreamProfile get(long handle, int[] key, int offset) {
+        if(handle == 0)
+            throw new IllegalArgumentException("invalid stream profile handle");
+        int i = indexOf(handle);
+        if(sKeys[i] == handle) {
+            if(matches(i, key, offset))
+                return sValues[i];
+            StreamProfile rv = create(handle);
+            store(i, rv, key, offset);
+            return rv;
+        }
+
+        StreamProfile rv = create(handle);
+        if(sSize >= MAX_ENTRIES) {
+            clear();
+            i = indexOf(handle);
+        }
+        sKeys[i] = handle;
+        store(i, rv, key, offset);
+        sSize++;
+        return rv;
+    }
+
+    static synchronized void clear() {
+        for(int i = 0; i < CAPACITY; i++) {
+            sKeys[i] = 0;
+            sValues[i] = null;
+        }
+        sSize = 0;
+    }
+
+    private static boolean matches(int i, int[] key, int offset) {
+        int o = i * KEY_SIZE;
+        for(int k = 0; k < KEY_SIZE; k++)
+            if(sProfileKeys[o + k] != key[offset + k])
+                return false;
+        return true;
+    }
+
+    private static void store(int i, StreamProfile profile, int[] key, int offset) {
+        sValues[i] = profile;
+        System.arraycopy(key, offset, sProfileKeys, i * KEY_SIZE, KEY_SIZE);
+    }
+
+    private static int indexOf(long handle) {
+        int i = hash(handle);
+        while(sKeys[i] != 0 && sKeys[i] != handle)
+            i = (i + 1) & (CAPACITY - 1);
+        return i;
+    }
+
+    private static int hash(long handle) {
+        long h = handle * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (CAPACITY - 1);
+    }
+
+    private static StreamProfile create(long handle) {
+        StreamProfile rv = new StreamProfile(handle);
+        // intrinsics are read on first use, not every video profile is calibrated
+        if(rv.is(Extension.VIDEO_PROFILE))
+            return new VideoStreamProfile(handle);
+        if(rv.is(Extension.MOTION_PROFILE))
+            return new MotionStreamProfile(handle);
+        return rv;
+    }
+}
@@ -0,0 +1,321 @@
+package com.intel.realsense.librealsense;
+
+import android.os.Process;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Owns a pipeline and a high priority streaming thread that waits for framesets and fans them out to
+// the registered consumers. Each consumer runs on its own thread behind a bounded queue, so a slow
+// consumer neither blocks the UI thread nor the other consumers.
+public class StreamingEngine implements AutoCloseable {
+    private static final String TAG = "librs StreamingEngine";
+    private static final int WAIT_TIMEOUT_MILLISECONDS = 100;
+    private static final int DEFAULT_QUEUE_CAPACITY = 2;
+
+    public enum State {
+        STOPPED,
+        STARTING,
+        STREAMING,
+        STOPPING
+    }
+
+    public interface Configurator {
+        void configure(Config config) throws Exception;
+    }
+
+    public interface Listener {
+        void onStateChanged(State state);
+        // Called on the streaming thread when the pipeline fails while streaming. The pipeline is released
+        // and the state is already STOPPED, call start() or restart() to recover.
+        void onError(Exception e);
+    }
+
+    public static class ConsumerStats {
+        private final String mName;
+        private final AtomicLong mProcessed = new AtomicLong();
+        private final AtomicLong mDropped = new AtomicLong();
+        private final AtomicLong mTotalLatencyNanos = new AtomicLong();
+        private final AtomicLong mLastLatencyNanos = new AtomicLong();
+        private BlockingQueue<Entry> mQueue;
+
+        ConsumerStats(String name) {
+            mName = name;
+        }
+
+        public String getName() { return mName; }
+        public long getProcessedCount() { return mProcessed.get(); }
+        public long getDroppedCount() { return mDropped.get(); }
+        // from the frameset arrival on the streaming thread until the consumer returned
+        public long getLastLatencyNanos() { return mLastLatencyNanos.get(); }
+        public int getQueueDepth() { return mQueue.size(); }
+
+        public long getAverageLatencyNanos() {
+            long count = mProcessed.get();
+            return count == 0 ? 0 : mTotalLatencyNanos.get() / count;
+        }
+    }
+
+    private static class Entry {
+        final FrameSet mFrames;
+        final long mArrivalNanos;
+
+        Entry(FrameSet frames, long arrivalNanos) {
+            mFrames = frames;
+            mArrivalNanos = arrivalNanos;
+        }
+    }
+
+    private class Consumer implements Runnable {
+        private final FrameSetCallback mCallback;
+        private final OverflowPolicy mPolicy;
+        private final BlockingQueue<Entry> mQueue;
+        private final ConsumerStats mStats;
+        private final Thread mThread;
+        private volatile boolean mActive = true;
+
+        Consumer(String name, int capacity, OverflowPolicy policy, FrameSetCallback callback) {
+            mCallback = callback;
+            mPolicy = policy;
+            mQueue = new ArrayBlockingQueue<>(capacity);
+            mStats = new ConsumerStats(name);
+            mStats.mQueue = mQueue;
+            mThread = new Thread(this, "StreamingEngine-" + name);
+        }
+
+        // takes ownership of the entry
+        void offer(Entry entry) throws InterruptedException {
+            switch (mPolicy) {
+                case BLOCK:
+                    while(!mQueue.offer(entry, WAIT_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+                        if(!mRunning || !mActive) {
+                            entry.mFrames.close();
+                            return;
+                        }
+                    }
+                    return;
+                case DROP_NEWEST:
+                    if(!mQueue.offer(entry)) {
+                        entry.mFrames.close();
+                        mStats.mDropped.incrementAndGet();
+                    }
+                    return;
+                default:
+                    while(!mQueue.offer(entry)) {
+                        Entry oldest = mQueue.poll();
+                        if(oldest != null) {
+                            oldest.mFrames.close();
+                            mStats.mDropped.incrementAndGet();
+                        }
+                    }
+            }
+        }
+
+        @Override
+        public void run() {
+            while(mActive) {
+                Entry entry;
+                try {
+                    entry = mQueue.poll(WAIT_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if(entry == null)
+                    continue;
+                try {
+                    mCallback.onFrameSet(entry.mFrames);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, mStats.mName + " consumer failed: " + e.getMessage());
+                } finally {
+                    entry.mFrames.close();
+                }
+                long latency = System.nanoTime() - entry.mArrivalNanos;
+                mStats.mLastLatencyNanos.set(latency);
+                mStats.mTotalLatencyNanos.addAndGet(latency);
+                mStats.mProcessed.incrementAndGet();
+            }
+            drain();
+        }
+
+        void drain() {
+            Entry entry;
+            while((entry = mQueue.poll()) != null)
+                entry.mFrames.close();
+        }
+
+        void shutdown() {
+            mActive = false;
+            mThread.interrupt();
+            try {
+                mThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            drain();
+        }
+    }
+
+    private final List<Consumer> mConsumers = new CopyOnWriteArrayList<>();
+    private final Listener mListener;
+    private Configurator mConfigurator;
+    private volatile Pipeline mPipeline;
+    private Thread mStreamingThread;
+    private volatile State mState = State.STOPPED;
+    private volatile boolean mRunning = false;
+
+    public StreamingEngine() {
+        this(null);
+    }
+
+    public StreamingEngine(Listener listener) {
+        mListener = listener;
+    }
+
+    public State getState() {
+        return mState;
+    }
+
+    private void setState(State state) {
+        mState = state;
+        if(mListener != null)
+            mListener.onStateChanged(state);
+    }
+
+    public FrameSetCallback addConsumer(String name, FrameSetCallback callback) {
+        return addConsumer(name, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP_OLDEST, callback);
+    }
+
+    // The frameset passed to the callback is closed when the callback returns, clone it to keep it.
+    public FrameSetCallback addConsumer(String name, int queueCapacity, OverflowPolicy policy,
+                                        FrameSetCallback callback) {
+        if(queueCapacity < 1)
+            throw new IllegalArgumentException("queue capacity must be positive");
+        Consumer consumer = new Consumer(name, queueCapacity, policy, callback);
+        mConsumers.add(consumer);
+        consumer.mThread.start();
+        return callback;
+    }
+
+    public void removeConsumer(FrameSetCallback callback) {
+        for(Consumer consumer : mConsumers) {
+            if(consumer.mCallback == callback) {
+                mConsumers.remove(consumer);
+                consumer.shutdown();
+            }
+        }
+    }
+
+    public List<ConsumerStats> getConsumerStats() {
+        List<ConsumerStats> rv = new ArrayList<>();
+        for(Consumer consumer : mConsumers)
+            rv.add(consumer.mStats);
+        return rv;
+    }
+
+    // Starts the pipeline on the calling thread, so configuration errors are thrown from here.
+    // The returned profile must be closed by the caller.
+    public synchronized PipelineProfile start(Configurator configurator) throws Exception {
+        if(mState != State.STOPPED)
+            throw new IllegalStateException("streaming engine is " + mState);
+        setState(State.STARTING);
+        mConfigurator = configurator;
+        Pipeline pipeline = new Pipeline();
+        PipelineProfile rv;
+        try(Config config = new Config()) {
+            if(configurator != null)
+                configurator.configure(config);
+            rv = pipeline.start(config);
+        } catch (Exception e) {
+            pipeline.close();
+            setState(State.STOPPED);
+            throw e;
+        }
+        mPipeline = pipeline;
+        mRunning = true;
+        mStreamingThread = new Thread(this::stream, "StreamingEngine-stream");
+        mStreamingThread.start();
+        setState(State.STREAMING);
+        return rv;
+    }
+
+    // Stops streaming and releases the pipeline, consumers stay registered.
+    public synchronized void stop() {
+        if(mState == State.STOPPED || mStreamingThread == null)
+            return;
+        setState(State.STOPPING);
+        mRunning = false;
+        try {
+            mStreamingThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        mStreamingThread = null;
+        mPipeline = null;
+        for(Consumer consumer : mConsumers)
+            consumer.drain();
+        setState(State.STOPPED);
+    }
+
+    public synchronized PipelineProfile restart() throws Exception {
+        stop();
+        return start(mConfigurator);
+    }
+
+    // Valid while streaming, e.g. to query the active streams.
+    public Pipeline getPipeline() {
+        return mPipeline;
+    }
+
+    private void stream() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_DISPLAY);
+        Pipeline pipeline = mPipeline;
+        FrameSet frames = null;
+        Exception error = null;
+        try {
+            while(mRunning) {
+                FrameSet next = pipeline.tryWaitForFrames(WAIT_TIMEOUT_MILLISECONDS, frames);
+                if(next == null)
+                    continue;
+                frames = next;
+                long arrival = System.nanoTime();
+                try {
+                    for(Consumer consumer : mConsumers)
+                        consumer.offer(new Entry(frames.clone(), arrival));
+                } finally {
+                    frames.close();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Log.e(TAG, "streaming failed: " + e.getMessage());
+            error = e;
+        } finally {
+            mRunning = false;
+            mPipeline = null;
+            pipeline.stop();
+            pipeline.close();
+        }
+        if(error == null)
+            return;
+        // nothing streams any more, unless stop() is already on its way to STOPPED
+        if(mState == State.STREAMING)
+            setState(State.STOPPED);
+        if(mListener != null)
+            mListener.onError(error);
+    }
+
+    @Override
+    public void close() {
+        stop();
+        for(Consumer consumer : mConsumers)
+            consumer.shutdown();
+        mConsumers.clear();
+    }
+}
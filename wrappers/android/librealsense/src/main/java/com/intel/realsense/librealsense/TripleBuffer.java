@@ -0,0 +1,61 @@
+package com.intel.realsense.librealsense;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free latest value hand-off between one producer and one consumer. The producer fills its back slot and
+// publishes it, the consumer swaps in the most recently published slot. Publications the consumer did not pick
+// up are overwritten, so neither side ever waits for the other.
+class TripleBuffer<T> {
+    interface Factory<T> {
+        T create();
+    }
+
+    private static class Entry<T> {
+        final T mValue;
+        volatile boolean mFresh;
+
+        Entry(T value) {
+            mValue = value;
+        }
+    }
+
+    private final AtomicReference<Entry<T>> mMiddle;
+    private Entry<T> mBack;
+    private Entry<T> mFront;
+
+    TripleBuffer(Factory<T> factory) {
+        mBack = new Entry<>(factory.create());
+        mMiddle = new AtomicReference<>(new Entry<>(factory.create()));
+        mFront = new Entry<>(factory.create());
+    }
+
+    // producer side, the slot to fill before publish()
+    T back() {
+        return mBack.mValue;
+    }
+
+    void publish() {
+        mBack.mFresh = true;
+        mBack = mMiddle.getAndSet(mBack);
+    }
+
+    // consumer side, returns false when nothing was published since the last update
+    boolean update() {
+        if(!mMiddle.get().mFresh)
+            return false;
+        mFront.mFresh = false;
+        mFront = mMiddle.getAndSet(mFront);
+        return true;
+    }
+
+    T front() {
+        return mFront.mValue;
+    }
+
+    // all slots, for releasing them once both sides stopped
+    List<T> values() {
+        return Arrays.asList(mBack.mValue, mMiddle.get().mValue, mFront.mValue);
+    }
+}
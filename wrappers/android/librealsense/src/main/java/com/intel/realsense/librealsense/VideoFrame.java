@@ -31,7 +31,7 @@ public class VideoFrame extends Frame {
     }
 
     public VideoStreamProfile getProfile() {
-        return new VideoStreamProfile(nGetStreamProfile(mHandle));
+        return super.getProfile().as(Extension.VIDEO_PROFILE);
     }
 
     protected VideoFrame(long handle) {
@@ -39,6 +39,19 @@ public class VideoFrame extends Frame {
         mOwner = false;
     }
 
+    // Returns a non owning video view of the given frame, reusing the provided view object if not null.
+    public static VideoFrame wrap(Frame frame, VideoFrame reuse) {
+        VideoFrame rv = reuse != null ? reuse : new VideoFrame(frame.getHandle());
+        rv.bindTo(frame);
+        return rv;
+    }
+
+    @Override
+    void reset(long handle, boolean owner) {
+        super.reset(handle, owner);
+        mWidth = mHeight = mStride = mBitsPerPixel = -1;
+    }
+
     private static native int nGetWidth(long handle);
     private static native int nGetHeight(long handle);
     private static native int nGetStride(long handle);
@@ -19,9 +19,11 @@ public class VideoStreamProfile extends StreamProfile {
 
     public Intrinsic getIntrinsic() throws Exception {
         if(mIntrinsic == null){
-            mIntrinsic = new Intrinsic();
-            nGetIntrinsic(mHandle, mIntrinsic);
-            mIntrinsic.SetModel();
+            // only kept once read, an uncalibrated profile keeps throwing instead of returning zeros
+            Intrinsic intrinsic = new Intrinsic();
+            nGetIntrinsic(mHandle, intrinsic);
+            intrinsic.SetModel();
+            mIntrinsic = intrinsic;
         }
         return mIntrinsic;
     }
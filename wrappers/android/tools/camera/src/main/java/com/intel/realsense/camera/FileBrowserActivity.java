@@ -10,11 +10,19 @@ import android.widget.ArrayAdapter;
 import android.widget.ListView;
 import android.widget.TextView;
 
+import com.intel.realsense.librealsense.BagFileInfo;
+
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 public class FileBrowserActivity extends AppCompatActivity {
 
     private String mFolder = "";
+    // the summaries are read on a background thread, a newer listing or leaving the activity cancels it
+    private Thread mDescriber;
+    private int mListing = 0;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -43,17 +51,15 @@ public class FileBrowserActivity extends AppCompatActivity {
 
         message.setText("Select a file to play from:");
 
-        String[] filesNames = new String[files.length];
+        final List<String> filesNames = new ArrayList<>(files.length);
         final ListView listview = findViewById(R.id.list_view);
 
-        for (int i = 0; i < files.length; ++i) {
-            String path = files[i].getAbsolutePath();
-            String[] split = path.split("/");
-            filesNames[i] = split[split.length - 1];
-        }
+        for (int i = 0; i < files.length; ++i)
+            filesNames.add(files[i].getName());
 
-        final ArrayAdapter adapter = new ArrayAdapter<>(this, R.layout.files_list_view, filesNames);
+        final ArrayAdapter<String> adapter = new ArrayAdapter<>(this, R.layout.files_list_view, filesNames);
         listview.setAdapter(adapter);
+        describeAsync(files, filesNames, adapter);
 
         listview.setOnItemClickListener(new AdapterView.OnItemClickListener() {
 
@@ -69,4 +75,60 @@ public class FileBrowserActivity extends AppCompatActivity {
 
         });
     }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        cancelDescriber();
+    }
+
+    private void cancelDescriber() {
+        mListing++;
+        if(mDescriber != null)
+            mDescriber.interrupt();
+        mDescriber = null;
+    }
+
+    // the names are listed right away, each summary is appended once it was read
+    private void describeAsync(final File[] files, final List<String> filesNames, final ArrayAdapter<String> adapter) {
+        cancelDescriber();
+        final int listing = mListing;
+        mDescriber = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < files.length && !Thread.currentThread().isInterrupted(); ++i) {
+                    final int position = i;
+                    final String description = files[i].getName() + describe(files[i].getAbsolutePath());
+                    runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            // results of a cancelled listing are dropped
+                            if(listing != mListing)
+                                return;
+                            filesNames.set(position, description);
+                            adapter.notifyDataSetChanged();
+                        }
+                    });
+                }
+            }
+        }, "librs file browser describer");
+        mDescriber.start();
+    }
+
+    // reads only the file index, the list shows no thumbnail so none is decoded
+    private static String describe(String path) {
+        try {
+            BagFileInfo info = BagFileInfo.open(path, false);
+            StringBuilder sb = new StringBuilder(String.format(Locale.US, "\n%.1f s", info.getDurationNanos() / 1e9));
+            for(BagFileInfo.StreamInfo stream : info.getStreams()) {
+                sb.append(", ").append(stream.getType().name());
+                if(stream.getWidth() > 0)
+                    sb.append(' ').append(stream.getWidth()).append('x').append(stream.getHeight());
+                sb.append(String.format(Locale.US, " %d frames", stream.getFrameCount()));
+            }
+            return sb.toString();
+        } catch (RuntimeException e) {
+            return "";
+        }
+    }
 }
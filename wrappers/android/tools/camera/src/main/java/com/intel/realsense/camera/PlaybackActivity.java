@@ -7,6 +7,8 @@ import android.content.res.Configuration;
 import android.graphics.Color;
 import android.graphics.Rect;
 import android.os.Bundle;
+import android.util.Log;
+import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import android.util.Pair;
 import android.view.View;
@@ -114,6 +116,18 @@ public class PlaybackActivity extends AppCompatActivity {
                     Map<Integer, Pair<String, Rect>> rects = mGLSurfaceView.getRectangles();
                     printLables(rects);
                 }
+
+                @Override
+                public void onError(final Exception e) {
+                    Log.e(TAG, "streaming stopped: " + e.getMessage());
+                    runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Toast.makeText(PlaybackActivity.this, "Streaming stopped: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                            finish();
+                        }
+                    });
+                }
             });
             try {
                 mGLSurfaceView.clear();
@@ -131,7 +145,7 @@ public class PlaybackActivity extends AppCompatActivity {
         clearLables();
 
         if(mStreamer != null)
-            mStreamer.stop();
+            mStreamer.close();
         if(mGLSurfaceView != null)
             mGLSurfaceView.clear();
     }
@@ -187,15 +201,16 @@ public class PlaybackActivity extends AppCompatActivity {
         if(rects == null)
             return;
         final Map<Integer, String> lables = new HashMap<>();
-        if(mLabels == null)
-            mLabels = createLabels(rects);
         for(Map.Entry<Integer, Pair<String, Rect>> e : rects.entrySet()){
             lables.put(e.getKey(), e.getValue().first);
         }
 
+        // frames are delivered on a streaming thread, views are only touched on the UI thread
         runOnUiThread(new Runnable() {
             @Override
             public void run() {
+                if(mLabels == null)
+                    mLabels = createLabels(rects);
                 for(Map.Entry<Integer,TextView> e : mLabels.entrySet()){
                     Integer uid = e.getKey();
                     if(rects.get(uid) == null)
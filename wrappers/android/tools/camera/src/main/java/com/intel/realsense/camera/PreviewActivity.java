@@ -211,15 +211,16 @@ public class PreviewActivity extends AppCompatActivity {
         if(rects == null)
             return;
         final Map<Integer, String> lables = new HashMap<>();
-        if(mLabels == null)
-            mLabels = createLabels(rects);
         for(Map.Entry<Integer, Pair<String, Rect>> e : rects.entrySet()){
             lables.put(e.getKey(), e.getValue().first);
         }
 
+        // frames are delivered on a streaming thread, views are only touched on the UI thread
         runOnUiThread(new Runnable() {
             @Override
             public void run() {
+                if(mLabels == null)
+                    mLabels = createLabels(rects);
                 for(Map.Entry<Integer,TextView> e : mLabels.entrySet()){
                     Integer uid = e.getKey();
                     if(rects.get(uid) == null)
@@ -235,11 +236,16 @@ public class PreviewActivity extends AppCompatActivity {
     }
 
     private void clearLables(){
-        if(mLabels != null){
-            for(Map.Entry<Integer, TextView> label : mLabels.entrySet())
-                label.getValue().setVisibility(View.GONE);
-            mLabels = null;
-        }
+        runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                if(mLabels != null){
+                    for(Map.Entry<Integer, TextView> label : mLabels.entrySet())
+                        label.getValue().setVisibility(View.GONE);
+                    mLabels = null;
+                }
+            }
+        });
     }
 
     @Override
@@ -277,6 +283,17 @@ public class PreviewActivity extends AppCompatActivity {
                     printLables(rects);
                 }
             }
+
+            @Override
+            public void onError(final Exception e) {
+                Log.e(TAG, "streaming stopped: " + e.getMessage());
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Toast.makeText(PreviewActivity.this, "Streaming stopped: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    }
+                });
+            }
         });
 
         try {
@@ -285,7 +302,7 @@ public class PreviewActivity extends AppCompatActivity {
         }
         catch (Exception e){
             if(mStreamer != null)
-                mStreamer.stop();
+                mStreamer.close();
             Log.e(TAG, e.getMessage());
             Toast.makeText(this, "Failed to set streaming configuration ", Toast.LENGTH_LONG).show();
             Intent intent = new Intent(PreviewActivity.this, SettingsActivity.class);
@@ -301,7 +318,7 @@ public class PreviewActivity extends AppCompatActivity {
 
         clearLables();
         if(mStreamer != null)
-            mStreamer.stop();
+            mStreamer.close();
         if(mGLSurfaceView != null)
             mGLSurfaceView.clear();
 
@@ -5,6 +5,8 @@ import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.util.Log;
+import android.widget.Toast;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
@@ -104,6 +106,18 @@ public class RecordingActivity extends AppCompatActivity {
                 public void onFrameset(FrameSet frameSet) {
                     mGLSurfaceView.upload(frameSet);
                 }
+
+                @Override
+                public void onError(final Exception e) {
+                    Log.e(TAG, "streaming stopped: " + e.getMessage());
+                    runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Toast.makeText(RecordingActivity.this, "Streaming stopped: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                            finish();
+                        }
+                    });
+                }
             });
             try {
                 mGLSurfaceView.clear();
@@ -119,7 +133,7 @@ public class RecordingActivity extends AppCompatActivity {
         super.onPause();
 
         if(mStreamer != null)
-            mStreamer.stop();
+            mStreamer.close();
         if(mGLSurfaceView != null)
             mGLSurfaceView.clear();
     }
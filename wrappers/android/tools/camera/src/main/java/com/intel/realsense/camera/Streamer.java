@@ -2,7 +2,6 @@ package com.intel.realsense.camera;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.os.Handler;
 import android.util.Log;
 
 import com.intel.realsense.librealsense.CameraInfo;
@@ -11,14 +10,14 @@ import com.intel.realsense.librealsense.Device;
 import com.intel.realsense.librealsense.DeviceList;
 import com.intel.realsense.librealsense.Extension;
 import com.intel.realsense.librealsense.FrameSet;
+import com.intel.realsense.librealsense.FrameSetCallback;
 import com.intel.realsense.librealsense.MotionStreamProfile;
 import com.intel.realsense.librealsense.Option;
-import com.intel.realsense.librealsense.Pipeline;
 import com.intel.realsense.librealsense.PipelineProfile;
-import com.intel.realsense.librealsense.ProductLine;
 import com.intel.realsense.librealsense.RsContext;
 import com.intel.realsense.librealsense.Sensor;
 import com.intel.realsense.librealsense.StreamProfile;
+import com.intel.realsense.librealsense.StreamingEngine;
 import com.intel.realsense.librealsense.VideoStreamProfile;
 
 import java.util.List;
@@ -26,58 +25,46 @@ import java.util.Map;
 
 public class Streamer {
     private static final String TAG = "librs camera streamer";
-    private static final int DEFAULT_TIMEOUT = 3000;
-    private static final int L500_TIMEOUT = 15000;
 
     interface Listener{
         void config(Config config);
         void onFrameset(FrameSet frameSet);
+        // streaming failed and was stopped, called on a background thread
+        void onError(Exception e);
     }
 
     private final Context mContext;
     private final boolean mLoadConfig;
 
-    private boolean mIsStreaming = false;
-    private final Handler mHandler = new Handler();
     private final Listener mListener;
 
-    private Pipeline mPipeline;
+    private final StreamingEngine mEngine;
+    private boolean mDefaultConfig;
 
     public Streamer(Context context, boolean loadConfig, Listener listener){
         mContext = context;
         mListener = listener;
         mLoadConfig = loadConfig;
-    }
-
-    private Runnable mStreaming = new Runnable() {
-        @Override
-        public void run() {
-            try {
-                try(FrameSet frames = mPipeline.waitForFrames()) {
-                    mListener.onFrameset(frames);
-                }
-                mHandler.post(mStreaming);
+        mEngine = new StreamingEngine(new StreamingEngine.Listener() {
+            @Override
+            public void onStateChanged(StreamingEngine.State state) {
+                Log.d(TAG, "streaming state: " + state);
             }
-            catch (Exception e) {
-                Log.e(TAG, "streaming, error: " + e.getMessage());
-            }
-        }
-    };
 
-    private int getFirstFrameTimeout() {
-        try(RsContext ctx = new RsContext()){
-            try(DeviceList devices = ctx.queryDevices()) {
-                if (devices.getDeviceCount() == 0) {
-                    return DEFAULT_TIMEOUT;
-                }
-                try (Device device = devices.createDevice(0)) {
-                    if(device == null)
-                        return DEFAULT_TIMEOUT;
-                    ProductLine pl = ProductLine.valueOf(device.getInfo(CameraInfo.PRODUCT_LINE));
-                    return pl == ProductLine.L500 ? L500_TIMEOUT : DEFAULT_TIMEOUT;
-                }
+            @Override
+            public void onError(Exception e) {
+                // the engine already stopped, start() can be called again
+                if(mListener != null)
+                    mListener.onError(e);
             }
-        }
+        });
+        mEngine.addConsumer("camera", new FrameSetCallback() {
+            @Override
+            public void onFrameSet(FrameSet frameSet) {
+                if(mListener != null)
+                    mListener.onFrameset(frameSet);
+            }
+        });
     }
 
     private int configStream(Config config){
@@ -128,78 +115,72 @@ public class Streamer {
         return numStreams;
     }
 
+    private void configure(Config config) {
+        mDefaultConfig = true;
+
+        if(mLoadConfig) {
+            if (configStream(config) > 0)
+                mDefaultConfig = false;
+        }
+        if(mListener != null)
+            mListener.config(config);
+    }
+
     void configAndStart() throws Exception {
-        try(Config config = new Config()){
-            boolean defaultConfig = true;
+        // try statement needed here to release resources allocated by the StreamingEngine:start() method
+        try (PipelineProfile pp = mEngine.start(this::configure)){
 
-            if(mLoadConfig) {
-                if (configStream(config) > 0)
-                    defaultConfig = false;
-            }
-            if(mListener != null)
-                mListener.config(config);
-            // try statement needed here to release resources allocated by the Pipeline:start() method
-            try (PipelineProfile pp = mPipeline.start(config)){
-
-                // if device runs on default configuration, get active stream profiles and record in settings
-                if (defaultConfig) {
-                    List<StreamProfile> activeProfiles = mPipeline.getActiveStreams();
-                    SharedPreferences sharedPref = mContext.getSharedPreferences(mContext.getString(R.string.app_settings), Context.MODE_PRIVATE);
-                    Device device = pp.getDevice();
+            // if device runs on default configuration, get active stream profiles and record in settings
+            if (mDefaultConfig) {
+                List<StreamProfile> activeProfiles = mEngine.getPipeline().getActiveStreams();
+                SharedPreferences sharedPref = mContext.getSharedPreferences(mContext.getString(R.string.app_settings), Context.MODE_PRIVATE);
+                Device device = pp.getDevice();
 
-                    for (StreamProfile sp : activeProfiles) {
-                        String msg = "active profile: " + sp.getType() + "," + sp.getIndex() + "," + sp.getFormat().toString() + "," + sp.getFrameRate() + " fps";
+                for (StreamProfile sp : activeProfiles) {
+                    String msg = "active profile: " + sp.getType() + "," + sp.getIndex() + "," + sp.getFormat().toString() + "," + sp.getFrameRate() + " fps";
 
-                        if (sp.is(Extension.VIDEO_PROFILE)) {
-                            VideoStreamProfile vp = sp.as(Extension.VIDEO_PROFILE);
+                    if (sp.is(Extension.VIDEO_PROFILE)) {
+                        VideoStreamProfile vp = sp.as(Extension.VIDEO_PROFILE);
 
-                            if (vp != null) {
-                                msg += "," + vp.getWidth() + "x" + vp.getHeight();
-                            }
+                        if (vp != null) {
+                            msg += "," + vp.getWidth() + "x" + vp.getHeight();
                         }
+                    }
 
-                        Log.d(TAG, msg);
+                    Log.d(TAG, msg);
 
-                        // turn on the active profile in settings
-                        SettingsActivity.setProfileSetting(sharedPref, device, sp, true);
-                    }
+                    // turn on the active profile in settings
+                    SettingsActivity.setProfileSetting(sharedPref, device, sp, true);
                 }
             }
         }
     }
 
     public synchronized void start() throws Exception {
-        if(mIsStreaming)
+        if(mEngine.getState() != StreamingEngine.State.STOPPED)
             return;
         try{
-            mPipeline = new Pipeline();
             Log.d(TAG, "try start streaming");
             configAndStart();
-            int firstFrameTimeOut = getFirstFrameTimeout();
-            try(FrameSet frames = mPipeline.waitForFrames(firstFrameTimeOut)){} // w/a for l500
-            mIsStreaming = true;
-            mHandler.post(mStreaming);
             Log.d(TAG, "streaming started successfully");
         } catch (Exception e) {
             Log.e(TAG, "failed to start streaming: " + e.getMessage());
-            mPipeline.close();
+            mEngine.stop();
             throw e;
         }
     }
 
     public synchronized void stop() {
-        if(!mIsStreaming)
+        if(mEngine.getState() == StreamingEngine.State.STOPPED)
             return;
-        try {
-            Log.d(TAG, "try stop streaming");
-            mIsStreaming = false;
-            mHandler.removeCallbacks(mStreaming);
-            mPipeline.stop();
-            mPipeline.close();
-            Log.d(TAG, "streaming stopped successfully");
-        }  catch (Exception e) {
-            Log.w(TAG, "failed to stop streaming");
-            mPipeline = null;
-        }
+        Log.d(TAG, "try stop streaming");
+        mEngine.stop();
+        Log.d(TAG, "streaming stopped successfully");
+    }
+
+    // stops streaming and releases the consumer thread, the streamer cannot be restarted
+    public synchronized void close() {
+        Log.d(TAG, "closing streamer");
+        mEngine.close();
     }
 }
@@ -6,6 +6,7 @@ import com.intel.realsense.librealsense.Extension;
 import com.intel.realsense.librealsense.Frame;
 import com.intel.realsense.librealsense.FrameCallback;
 import com.intel.realsense.librealsense.FrameMetadata;
+import com.intel.realsense.librealsense.FrameMetadataSnapshot;
 import com.intel.realsense.librealsense.FrameSet;
 import com.intel.realsense.librealsense.StreamProfile;
 import com.intel.realsense.librealsense.TimestampDomain;
@@ -49,32 +50,36 @@ public class StreamingStats {
         mLastFrames.put(profile.getUniqueId(), new Statistics(name));
     }
 
+    private final FrameMetadataSnapshot mMetadata = new FrameMetadataSnapshot();
+
     private FrameCallback mFrameCallback = new FrameCallback() {
         @Override
         public void onFrame(Frame f) {
             try(StreamProfile profile = f.getProfile()) {
-                int fn = f.getNumber();
+                f.getMetadataSnapshot(mMetadata);
+                int fn = (int) mMetadata.getNumber();
                 int uid = profile.getUniqueId();
                 if (!mLastFrames.containsKey(profile.getUniqueId()))
                     initStream(profile);
                 if (mLastFrames.get(uid).mFrameNumber != fn) {
-                    if(f.supportsMetadata(FrameMetadata.FRAME_EMITTER_MODE))
-                        mStreamsMap.get(uid).mEmitter = String.valueOf(f.getMetadata(FrameMetadata.FRAME_EMITTER_MODE));
-                    if(f.supportsMetadata(FrameMetadata.ACTUAL_EXPOSURE))
-                        mStreamsMap.get(uid).mExposure = String.valueOf(f.getMetadata(FrameMetadata.ACTUAL_EXPOSURE));
-                    if(f.supportsMetadata(FrameMetadata.AUTO_EXPOSURE))
-                        mStreamsMap.get(uid).mAutoExposureMode = String.valueOf(f.getMetadata(FrameMetadata.AUTO_EXPOSURE));
-                    if(f.supportsMetadata(FrameMetadata.GAIN_LEVEL))
-                        mStreamsMap.get(uid).mGain = String.valueOf(f.getMetadata(FrameMetadata.GAIN_LEVEL));
-                    if(f.supportsMetadata(FrameMetadata.FRAME_LASER_POWER))
-                        mStreamsMap.get(uid).mLaserPower = String.valueOf(f.getMetadata(FrameMetadata.FRAME_LASER_POWER));
-                    if(f.supportsMetadata(FrameMetadata.FRAME_LED_POWER))
-                        mStreamsMap.get(uid).mLedPower = String.valueOf(f.getMetadata(FrameMetadata.FRAME_LED_POWER));
-                    mStreamsMap.get(uid).mFrameNumber = fn;
-                    mStreamsMap.get(uid).mHWTimestamp = f.getTimestamp();
-                    mStreamsMap.get(uid).mSWTimestamp = System.currentTimeMillis();
-                    mStreamsMap.get(uid).onFrame(f);
-                    mLastFrames.put(uid, mStreamsMap.get(uid).clone());
+                    Statistics stats = mStreamsMap.get(uid);
+                    if(mMetadata.supports(FrameMetadata.FRAME_EMITTER_MODE))
+                        stats.mEmitter = String.valueOf(mMetadata.get(FrameMetadata.FRAME_EMITTER_MODE));
+                    if(mMetadata.supports(FrameMetadata.ACTUAL_EXPOSURE))
+                        stats.mExposure = String.valueOf(mMetadata.get(FrameMetadata.ACTUAL_EXPOSURE));
+                    if(mMetadata.supports(FrameMetadata.AUTO_EXPOSURE))
+                        stats.mAutoExposureMode = String.valueOf(mMetadata.get(FrameMetadata.AUTO_EXPOSURE));
+                    if(mMetadata.supports(FrameMetadata.GAIN_LEVEL))
+                        stats.mGain = String.valueOf(mMetadata.get(FrameMetadata.GAIN_LEVEL));
+                    if(mMetadata.supports(FrameMetadata.FRAME_LASER_POWER))
+                        stats.mLaserPower = String.valueOf(mMetadata.get(FrameMetadata.FRAME_LASER_POWER));
+                    if(mMetadata.supports(FrameMetadata.FRAME_LED_POWER))
+                        stats.mLedPower = String.valueOf(mMetadata.get(FrameMetadata.FRAME_LED_POWER));
+                    stats.mFrameNumber = fn;
+                    stats.mHWTimestamp = mMetadata.getTimestamp();
+                    stats.mSWTimestamp = System.currentTimeMillis();
+                    stats.onFrame(f);
+                    mLastFrames.put(uid, stats.clone());
                 }
                 else
                     mStreamsMap.get(uid).kick();
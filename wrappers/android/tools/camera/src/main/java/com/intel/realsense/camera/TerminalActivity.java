@@ -124,7 +124,7 @@ public class TerminalActivity extends AppCompatActivity {
                 try(Pipeline pipe = new Pipeline()){
                     pipe.start();
                     while(!mStreamingThread.isInterrupted()){
-                        try(FrameSet frames = pipe.waitForFrames()){}
+                        try(FrameSet frames = pipe.tryWaitForFrames(5000)){}
                     }
                     pipe.stop();
                 } catch (Exception e) {